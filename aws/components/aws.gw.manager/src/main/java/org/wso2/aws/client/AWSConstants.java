@@ -31,11 +31,66 @@ public class AWSConstants {
     public static final String AWS_ENVIRONMENT_ACCESS_KEY = "access_key";
     public static final String AWS_ENVIRONMENT_SECRET_KEY = "secret_key";
     public static final String AWS_API_STAGE = "stage";
+    public static final String AWS_DEPLOY_CONCURRENCY = "deploy_concurrency";
+    public static final int DEFAULT_DEPLOY_CONCURRENCY = 4;
+    public static final String AWS_DISCOVERY_CONCURRENCY = "discovery_concurrency";
+    public static final int DEFAULT_DISCOVERY_CONCURRENCY = 4;
+    public static final String AWS_DISCOVERY_CACHE_SIZE = "discovery_cache_size";
+    public static final int DEFAULT_DISCOVERY_CACHE_SIZE = 1000;
+    public static final String AWS_HTTP_TRANSPORT = "http_transport";
+    public static final String HTTP_TRANSPORT_APACHE = "Apache";
+    public static final String HTTP_TRANSPORT_CRT = "CRT";
+    public static final String AWS_MAX_CONNECTIONS = "max_connections";
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    public static final String AWS_CONNECTION_IDLE_TIMEOUT = "connection_idle_timeout";
+    public static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 60;
+    public static final String AWS_DEPLOY_MODE = "deploy_mode";
+    public static final String DEPLOY_MODE_SYNC = "Sync";
+    public static final String DEPLOY_MODE_ASYNC = "Async";
+    public static final String AWS_DEPLOY_TIMEOUT = "deploy_timeout";
+    public static final int DEFAULT_DEPLOY_TIMEOUT = 300;
+    public static final String AWS_CHECKPOINT_DIRECTORY = "checkpoint_directory";
+    public static final String AWS_MAX_DEPLOY_ATTEMPTS = "max_deploy_attempts";
+    public static final int DEFAULT_MAX_DEPLOY_ATTEMPTS = 3;
+    public static final String AWS_ROLLBACK_ON_FAILURE = "rollback_on_failure";
+    public static final String AWS_DEPLOYMENT_RETENTION = "deployment_retention";
+    public static final int DEFAULT_DEPLOYMENT_RETENTION = 2;
+    public static final String AWS_MAX_CONCURRENT_DEPLOYMENTS = "max_concurrent_deployments";
+    public static final int DEFAULT_MAX_CONCURRENT_DEPLOYMENTS = 4;
+    public static final String REST_API_ARN_TEMPLATE = "arn:%s:apigateway:%s::/restapis/%s";
+    public static final String DEPLOYMENT_HASH_TAG_PREFIX = "wso2:deployment-hash:";
+    public static final String AWS_ENDPOINT_MODE = "endpoint_mode";
+    public static final String ENDPOINT_MODE_STATIC = "Static";
+    public static final String ENDPOINT_MODE_STAGE_VARIABLE = "StageVariable";
+    public static final String BACKEND_STAGE_VARIABLE = "backend";
+    public static final String AWS_API_TYPE = "api_type";
+    public static final String API_TYPE_REST = "REST";
+    public static final String API_TYPE_HTTP = "HTTP";
+    public static final String AWS_MINIMUM_COMPRESSION_SIZE = "minimum_compression_size";
+    public static final String API_PROPERTY_MINIMUM_COMPRESSION_SIZE = "aws_minimum_compression_size";
+    public static final int MAX_MINIMUM_COMPRESSION_SIZE = 10485760;
+    public static final String AWS_INTEGRATION_MODE = "integration_mode";
+    public static final String INTEGRATION_MODE_HTTP = "HTTP";
+    public static final String INTEGRATION_MODE_HTTP_PROXY = "HTTP_PROXY";
+    public static final String AWS_DRY_RUN = "dry_run";
+    public static final String AWS_CACHE_CLUSTER_SIZE = "cache_cluster_size";
+    public static final String DEFAULT_CACHE_CLUSTER_SIZE = "0.5";
+    public static final String[] CACHE_CLUSTER_SIZES = {"0.5", "1.6", "6.1", "13.5", "28.4", "58.2", "118", "237"};
+    public static final String RESPONSE_CACHE_ENABLED = "Enabled";
+    public static final int MAX_CACHE_TTL = 3600;
+    public static final String UNLIMITED_TIER = "Unlimited";
+    public static final String ALL_METHODS_SETTING_KEY = "*/*";
+    public static final String THROTTLING_DISABLED = "-1";
 
     // Authorizer related constants
     public static final String AWS_OPERATION_POLICY_NAME = "awsOAuth2";
     public static final String OPERATION_POLICY_ARN_PARAMETER = "lambdaARN";
     public static final String OPERATION_POLICY_ROLE_PARAMETER = "invokeRoleArn";
+    public static final String OPERATION_POLICY_RESULT_TTL_PARAMETER = "resultTtlInSeconds";
+    public static final String OPERATION_POLICY_IDENTITY_VALIDATION_PARAMETER = "identityValidationExpression";
+    public static final int MAX_AUTHORIZER_RESULT_TTL = 3600;
+    public static final String OPERATION_POLICY_JWT_ISSUER_PARAMETER = "jwtIssuer";
+    public static final String OPERATION_POLICY_JWT_AUDIENCE_PARAMETER = "jwtAudience";
     public static final String OPERATION_POLICY_API = "API";
     public static final String OPEN_API_VERSION = "oas30";
     public static final String JSON_PAYLOAD_TYPE = "application/json";
@@ -44,4 +99,42 @@ public class AWSConstants {
     public static final String SANDBOX_ENDPOINTS = "sandbox_endpoints";
     public static final String URL_PROP = "url";
     public static final String DEFAULT_VERSION = "1.0.0";
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final String RESOURCE_EMBED_METHODS = "methods";
+    public static final String EXPORT_EXTENSIONS_PARAMETER = "extensions";
+    public static final String EXPORT_INTEGRATIONS_EXTENSION = "integrations";
+    public static final int REFERENCE_ARTIFACT_VERSION = 1;
+    public static final String REFERENCE_ARTIFACT_VERSION_FIELD = "artifactVersion";
+    public static final String REFERENCE_ARTIFACT_ID_FIELD = "id";
+    public static final String REFERENCE_ARTIFACT_NAME_FIELD = "name";
+    public static final String REFERENCE_ARTIFACT_API_VERSION_FIELD = "apiVersion";
+    public static final String REFERENCE_ARTIFACT_STAGE_FIELD = "stage";
+    public static final String REFERENCE_ARTIFACT_FINGERPRINT_FIELD = "fingerprint";
+    public static final String REFERENCE_ARTIFACT_API_TYPE_FIELD = "apiType";
+
+    // OpenAPI extension related constants
+    public static final String OPENAPI_INTEGRATION_EXTENSION = "x-amazon-apigateway-integration";
+    public static final String OPENAPI_AUTHORIZER_EXTENSION = "x-amazon-apigateway-authorizer";
+    public static final String OPENAPI_AUTH_TYPE_EXTENSION = "x-amazon-apigateway-authtype";
+    public static final String OPENAPI_GATEWAY_RESPONSES_EXTENSION = "x-amazon-apigateway-gateway-responses";
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+    public static final String AUTHORIZER_IDENTITY_SOURCE = "method.request.header.Authorization";
+    public static final String AUTHORIZER_URI_TEMPLATE =
+            "arn:%s:apigateway:%s:lambda:path/2015-03-31/functions/%s/invocations";
+    public static final String OPENAPI_MINIMUM_COMPRESSION_SIZE_EXTENSION =
+            "x-amazon-apigateway-minimum-compression-size";
+    public static final String OPENAPI_CORS_EXTENSION = "x-amazon-apigateway-cors";
+    public static final String HTTP_API_IDENTITY_SOURCE = "$request.header.Authorization";
+    public static final String HTTP_API_PAYLOAD_FORMAT_VERSION = "1.0";
+    public static final String HTTP_API_AUTHORIZER_PAYLOAD_FORMAT_VERSION = "1.0";
+    public static final String HTTP_API_EXPORT_SPECIFICATION = "OAS30";
+    public static final String HTTP_API_EXPORT_OUTPUT_TYPE = "JSON";
+    public static final String CORS_ALLOW_ORIGIN_HEADER = "Access-Control-Allow-Origin";
+    public static final String CORS_ALLOW_METHODS_HEADER = "Access-Control-Allow-Methods";
+    public static final String CORS_ALLOW_HEADERS_HEADER = "Access-Control-Allow-Headers";
+    public static final String CORS_ALLOW_CREDENTIALS_HEADER = "Access-Control-Allow-Credentials";
+    public static final String CORS_DEFAULT_ALLOW_ORIGIN = "*";
+    public static final String CORS_DEFAULT_ALLOW_METHODS = "GET,OPTIONS";
+    public static final String CORS_DEFAULT_ALLOW_HEADERS =
+            "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token";
 }
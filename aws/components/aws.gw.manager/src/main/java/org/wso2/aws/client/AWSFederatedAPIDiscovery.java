@@ -24,22 +24,26 @@ import com.google.gson.JsonObject;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.aws.client.util.AWSAPIUtil;
+import org.wso2.aws.client.util.ApiGatewayClientRegistry;
+import org.wso2.aws.client.util.DeploymentTaskExecutor;
+import org.wso2.aws.client.util.DiscoveryCache;
+import org.wso2.aws.client.util.ExportedDefinition;
+import org.wso2.aws.client.util.GatewayUtil;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.FederatedAPIDiscovery;
 import org.wso2.carbon.apimgt.api.model.API;
 import org.wso2.carbon.apimgt.api.model.DiscoveredAPI;
 import org.wso2.carbon.apimgt.api.model.Environment;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.http.SdkHttpClient;
-import software.amazon.awssdk.http.apache.ApacheHttpClient;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
 import software.amazon.awssdk.services.apigateway.model.RestApi;
+import software.amazon.awssdk.services.apigateway.model.Stage;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.wso2.carbon.apimgt.impl.importexport.ImportExportConstants.DEPLOYMENT_NAME;
 import static org.wso2.carbon.apimgt.impl.importexport.ImportExportConstants.DEPLOYMENT_VHOST;
@@ -61,36 +65,56 @@ public class AWSFederatedAPIDiscovery implements FederatedAPIDiscovery {
     private static final Log log = LogFactory.getLog(AWSFederatedAPIDiscovery.class);
 
     private Environment environment;
+    private ApiGatewayClientRegistry.ClientLease<ApiGatewayClient> clientLease;
     private ApiGatewayClient apiGatewayClient;
     private String organization;
     private String region;
     private String stage;
     private JsonObject deploymentConfigObject;
+    private DeploymentTaskExecutor taskExecutor;
+    private DiscoveryCache discoveryCache;
+    private AWSHttpAPIDiscovery httpAPIDiscovery;
 
     @Override
     public void init(Environment environment, String organization)
             throws APIManagementException {
         log.debug("Initializing AWS Gateway Deployer for environment: " + environment.getName());
+        if (AWSConstants.API_TYPE_HTTP.equalsIgnoreCase(
+                environment.getAdditionalProperties().get(AWSConstants.AWS_API_TYPE))) {
+            // HTTP APIs are discovered through a separate client
+            if (clientLease != null) {
+                clientLease.close();
+                clientLease = null;
+                apiGatewayClient = null;
+            }
+            if (httpAPIDiscovery == null) {
+                this.httpAPIDiscovery = new AWSHttpAPIDiscovery();
+            }
+            httpAPIDiscovery.init(environment, organization);
+            return;
+        }
+        if (httpAPIDiscovery != null) {
+            httpAPIDiscovery.release();
+            this.httpAPIDiscovery = null;
+        }
         try {
             this.environment = environment;
             this.organization = organization;
             this.region = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_REGION);
             this.stage = environment.getAdditionalProperties().get(AWSConstants.AWS_API_STAGE);
+            this.taskExecutor = DeploymentTaskExecutor.getInstance(environment.getName() + "-discovery",
+                    GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_DISCOVERY_CONCURRENCY, AWSConstants.DEFAULT_DISCOVERY_CONCURRENCY));
+            this.discoveryCache = new DiscoveryCache(GatewayUtil.getIntegerProperty(
+                    environment.getAdditionalProperties(), AWSConstants.AWS_DISCOVERY_CACHE_SIZE,
+                    AWSConstants.DEFAULT_DISCOVERY_CACHE_SIZE));
 
-            String accessKey = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_ACCESS_KEY);
-            String secretKey = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_SECRET_KEY);
-
-            if (region == null || accessKey == null || secretKey == null) {
-                throw new APIManagementException("Missing required AWS environment configurations");
+            ApiGatewayClientRegistry.ClientLease<ApiGatewayClient> previousLease = clientLease;
+            this.clientLease = ApiGatewayClientRegistry.acquire(this, environment);
+            if (previousLease != null) {
+                previousLease.close();
             }
-
-            SdkHttpClient httpClient = ApacheHttpClient.builder().build();
-            this.apiGatewayClient = ApiGatewayClient.builder()
-                    .region(Region.of(region))
-                    .httpClient(httpClient)
-                    .credentialsProvider(StaticCredentialsProvider.create(
-                            AwsBasicCredentials.create(accessKey, secretKey)))
-                    .build();
+            this.apiGatewayClient = clientLease.getClient();
 
             this.deploymentConfigObject = new JsonObject();
             deploymentConfigObject.addProperty(DEPLOYMENT_NAME, environment.getName());
@@ -105,25 +129,118 @@ public class AWSFederatedAPIDiscovery implements FederatedAPIDiscovery {
 
     @Override
     public List<DiscoveredAPI> discoverAPI() {
+        if (httpAPIDiscovery != null) {
+            return httpAPIDiscovery.discoverAPI();
+        }
+        long startTime = System.currentTimeMillis();
         List<RestApi> restApis = AWSAPIUtil.getRestApis(apiGatewayClient);
-        List<DiscoveredAPI> retrievedAPIs = new ArrayList<>();
+        long listingTime = System.currentTimeMillis() - startTime;
+        discoveryCache.retainAll(restApis);
+
+        // fetch the details of the APIs concurrently, a failure only skips the API it belongs to
+        DiscoveryTimings timings = new DiscoveryTimings();
+        List<Callable<DiscoveredAPI>> tasks = new ArrayList<>(restApis.size());
         for (RestApi restApi : restApis) {
-            String apiStage = AWSAPIUtil.getStageNames(apiGatewayClient, restApi.id());
-            if (!Objects.equals(apiStage, stage)) {
-                continue;
+            tasks.add(() -> discoverRestApi(restApi, timings));
+        }
+        List<DiscoveredAPI> retrievedAPIs = new ArrayList<>();
+        try {
+            for (DiscoveredAPI discoveredAPI : taskExecutor.invokeAll(tasks)) {
+                if (discoveredAPI != null) {
+                    retrievedAPIs.add(discoveredAPI);
+                }
             }
-            String apiDefinition = AWSAPIUtil.getRestApiDefinition(apiGatewayClient, restApi.id(), stage);
-            API api = AWSAPIUtil.restAPItoAPI(restApi, apiDefinition, organization, environment);
-            AWSAPIUtil.setEndpointConfig(api, restApi, apiGatewayClient);
-            DiscoveredAPI discoveredAPI = new DiscoveredAPI(api,
-                    AWSAPIUtil.createReferenceArtifact(restApi,apiDefinition));
-            retrievedAPIs.add(discoveredAPI);
+        } catch (APIManagementException e) {
+            log.error("Error occurred while discovering APIs of environment: " + environment.getName(), e);
+            return retrievedAPIs;
         }
+
+        log.info("Discovered " + retrievedAPIs.size() + " of " + restApis.size() + " AWS APIs in environment "
+                + environment.getName() + " in " + (System.currentTimeMillis() - startTime) + " ms (listing: "
+                + listingTime + " ms, " + timings + ")");
         return retrievedAPIs;
     }
 
+    private DiscoveredAPI discoverRestApi(RestApi restApi, DiscoveryTimings timings) {
+        try {
+            long phaseStart = System.currentTimeMillis();
+            Stage apiStage = AWSAPIUtil.getStage(apiGatewayClient, restApi.id());
+            phaseStart = timings.stages.record(phaseStart);
+            if (apiStage == null || !Objects.equals(apiStage.stageName(), stage)) {
+                return null;
+            }
+            DiscoveryCache.Entry cachedEntry = discoveryCache.get(restApi, apiStage);
+            if (cachedEntry != null) {
+                // not redeployed since the previous cycle
+                timings.cacheHits.incrementAndGet();
+                API api = AWSAPIUtil.restAPItoAPI(restApi, cachedEntry.getApiDefinition(), organization,
+                        environment);
+                AWSAPIUtil.setEndpointConfig(api, restApi, cachedEntry.getEndpoint());
+                return new DiscoveredAPI(api, cachedEntry.getReferenceArtifact());
+            }
+
+            // the backend is read from the integrations of the export, so no resource calls are needed
+            ExportedDefinition exportedDefinition = ExportedDefinition.parse(
+                    AWSAPIUtil.getRestApiDefinition(apiGatewayClient, restApi.id(), stage));
+            timings.export.record(phaseStart);
+            String apiDefinition = exportedDefinition.getDefinition();
+            String endpoint = exportedDefinition.getEndpoint(apiStage.variables());
+            String referenceArtifact = AWSAPIUtil.createReferenceArtifact(restApi, stage, exportedDefinition,
+                    endpoint);
+            discoveryCache.put(restApi, apiStage, apiDefinition, endpoint, referenceArtifact);
+
+            API api = AWSAPIUtil.restAPItoAPI(restApi, apiDefinition, organization, environment);
+            AWSAPIUtil.setEndpointConfig(api, restApi, endpoint);
+            return new DiscoveredAPI(api, referenceArtifact);
+        } catch (Exception e) {
+            log.error("Error occurred while discovering AWS API " + restApi.name() + " (" + restApi.id() + ")", e);
+            return null;
+        }
+    }
+
     @Override
     public boolean isAPIUpdated(String existingReferenceArtifact, String newReferenceArtifact) {
-        return !existingReferenceArtifact.equals(newReferenceArtifact);
+        return GatewayUtil.isReferenceArtifactUpdated(existingReferenceArtifact, newReferenceArtifact);
+    }
+
+    /**
+     * Time spent in each phase of fetching API details, summed over all APIs of a discovery cycle.
+     */
+    private static final class DiscoveryTimings {
+
+        private final PhaseTiming stages = new PhaseTiming("stages");
+        private final PhaseTiming export = new PhaseTiming("export");
+        private final AtomicInteger cacheHits = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            return stages + ", " + export + ", cached: " + cacheHits.get() + " APIs";
+        }
+    }
+
+    private static final class PhaseTiming {
+
+        private final String name;
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private PhaseTiming(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Records the phase started at the given time as completed and returns the completion time.
+         */
+        private long record(long startTime) {
+            long endTime = System.currentTimeMillis();
+            totalTime.addAndGet(endTime - startTime);
+            count.incrementAndGet();
+            return endTime;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + totalTime.get() + " ms over " + count.get() + " APIs";
+        }
     }
 }
@@ -25,7 +25,9 @@ import com.google.gson.JsonParser;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.wso2.aws.client.util.AWSAPIUtil;
+import org.wso2.aws.client.util.DeploymentPruner;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.model.ConfigurationDto;
 import org.wso2.carbon.apimgt.api.model.GatewayAgentConfiguration;
@@ -50,6 +52,12 @@ import java.util.List;
 public class AWSGatewayConfiguration implements GatewayAgentConfiguration {
     private static final Log log = LogFactory.getLog(AWSAPIUtil.class);
 
+    @Deactivate
+    protected void deactivate() {
+        // complete the background cleanup of the environments before the bundle goes away
+        DeploymentPruner.shutdownAll();
+    }
+
     @Override
     public String getGatewayDeployerImplementation() {
         return AWSGatewayDeployer.class.getName();
@@ -79,6 +87,141 @@ public class AWSGatewayConfiguration implements GatewayAgentConfiguration {
         configurationDtoList.add(new ConfigurationDto("stage", "Stage Name", "input", "Default stage name", "", true,
                 false,
                 Collections.emptyList(), false));
+        List<ConfigurationDto> apiTypeValues = new ArrayList<>();
+        apiTypeValues.add(new ConfigurationDto(AWSConstants.API_TYPE_REST, AWSConstants.API_TYPE_REST, "labelOnly",
+                "Deploy APIs as REST APIs, which support response caching and payload compression", "", false, false,
+                Collections.emptyList(), false));
+        apiTypeValues.add(new ConfigurationDto(AWSConstants.API_TYPE_HTTP, AWSConstants.API_TYPE_HTTP, "labelOnly",
+                "Deploy APIs as HTTP APIs with proxy integrations and native JWT authorizers, at a lower latency "
+                        + "and cost", "", false, false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_API_TYPE, "API Type", "options",
+                "Type of the AWS API Gateway APIs that APIs are deployed as and discovered from",
+                AWSConstants.API_TYPE_REST, false, false, apiTypeValues, false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DEPLOY_CONCURRENCY, "Deployment Concurrency",
+                "input", "Maximum number of AWS API Gateway calls issued concurrently while deploying an API",
+                String.valueOf(AWSConstants.DEFAULT_DEPLOY_CONCURRENCY), false, false, Collections.emptyList(),
+                false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_MAX_CONCURRENT_DEPLOYMENTS,
+                "Max Concurrent Deployments", "input",
+                "Maximum number of APIs deployed concurrently. Repeated deployments of an API are run one at a time",
+                String.valueOf(AWSConstants.DEFAULT_MAX_CONCURRENT_DEPLOYMENTS), false, false,
+                Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DISCOVERY_CONCURRENCY,
+                "Discovery Concurrency", "input",
+                "Maximum number of AWS APIs whose details are fetched concurrently during discovery",
+                String.valueOf(AWSConstants.DEFAULT_DISCOVERY_CONCURRENCY), false, false, Collections.emptyList(),
+                false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DISCOVERY_CACHE_SIZE,
+                "Discovery Cache Size", "input",
+                "Maximum number of discovered AWS APIs whose definitions are reused until they are redeployed",
+                String.valueOf(AWSConstants.DEFAULT_DISCOVERY_CACHE_SIZE), false, false, Collections.emptyList(),
+                false));
+
+        List<ConfigurationDto> transportValues = new ArrayList<>();
+        transportValues.add(new ConfigurationDto(AWSConstants.HTTP_TRANSPORT_APACHE,
+                AWSConstants.HTTP_TRANSPORT_APACHE, "labelOnly", "Apache HTTP client", "", false, false,
+                Collections.emptyList(), false));
+        transportValues.add(new ConfigurationDto(AWSConstants.HTTP_TRANSPORT_CRT, AWSConstants.HTTP_TRANSPORT_CRT,
+                "labelOnly", "AWS Common Runtime HTTP client", "", false, false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_HTTP_TRANSPORT, "HTTP Transport", "options",
+                "HTTP client used to connect to AWS API Gateway", AWSConstants.HTTP_TRANSPORT_APACHE, false, false,
+                transportValues, false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_MAX_CONNECTIONS, "Max Connections", "input",
+                "Maximum number of pooled connections to AWS API Gateway",
+                String.valueOf(AWSConstants.DEFAULT_MAX_CONNECTIONS), false, false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_CONNECTION_IDLE_TIMEOUT,
+                "Connection Idle Timeout", "input", "Seconds after which idle pooled connections are evicted",
+                String.valueOf(AWSConstants.DEFAULT_CONNECTION_IDLE_TIMEOUT), false, false, Collections.emptyList(),
+                false));
+
+        List<ConfigurationDto> deployModeValues = new ArrayList<>();
+        deployModeValues.add(new ConfigurationDto(AWSConstants.DEPLOY_MODE_SYNC, AWSConstants.DEPLOY_MODE_SYNC,
+                "labelOnly", "Issue AWS API Gateway calls from the deploying thread", "", false, false,
+                Collections.emptyList(), false));
+        deployModeValues.add(new ConfigurationDto(AWSConstants.DEPLOY_MODE_ASYNC, AWSConstants.DEPLOY_MODE_ASYNC,
+                "labelOnly", "Issue AWS API Gateway calls through a non-blocking client", "", false, false,
+                Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DEPLOY_MODE, "Deployment Mode", "options",
+                "How API deployments are executed against AWS API Gateway", AWSConstants.DEPLOY_MODE_SYNC, false,
+                false, deployModeValues, false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DEPLOY_TIMEOUT, "Deployment Timeout", "input",
+                "Seconds to wait for a deployment in the Async mode. A deployment that takes longer keeps running "
+                        + "and holds back the later deployments of the API until it completes",
+                String.valueOf(AWSConstants.DEFAULT_DEPLOY_TIMEOUT), false, false, Collections.emptyList(), false));
+
+        List<ConfigurationDto> endpointModeValues = new ArrayList<>();
+        endpointModeValues.add(new ConfigurationDto(AWSConstants.ENDPOINT_MODE_STATIC,
+                AWSConstants.ENDPOINT_MODE_STATIC, "labelOnly", "Embed the backend URL in every integration", "",
+                false, false, Collections.emptyList(), false));
+        endpointModeValues.add(new ConfigurationDto(AWSConstants.ENDPOINT_MODE_STAGE_VARIABLE,
+                AWSConstants.ENDPOINT_MODE_STAGE_VARIABLE, "labelOnly",
+                "Refer to the backend through the '" + AWSConstants.BACKEND_STAGE_VARIABLE
+                        + "' stage variable so that endpoint changes only update the stage", "", false, false,
+                Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_ENDPOINT_MODE, "Endpoint Mode", "options",
+                "How integrations refer to the backend endpoint", AWSConstants.ENDPOINT_MODE_STATIC, false, false,
+                endpointModeValues, false));
+
+        List<ConfigurationDto> integrationModeValues = new ArrayList<>();
+        integrationModeValues.add(new ConfigurationDto(AWSConstants.INTEGRATION_MODE_HTTP,
+                AWSConstants.INTEGRATION_MODE_HTTP, "labelOnly",
+                "Map request parameters and CORS response headers through HTTP integrations", "", false, false,
+                Collections.emptyList(), false));
+        integrationModeValues.add(new ConfigurationDto(AWSConstants.INTEGRATION_MODE_HTTP_PROXY,
+                AWSConstants.INTEGRATION_MODE_HTTP_PROXY, "labelOnly",
+                "Pass requests and responses through HTTP_PROXY integrations as they are. The backend has to return "
+                        + "the CORS headers of its responses", "", false, false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_INTEGRATION_MODE, "Integration Mode",
+                "options", "How the methods of APIs are integrated with the backend endpoint",
+                AWSConstants.INTEGRATION_MODE_HTTP, false, false, integrationModeValues, false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_MINIMUM_COMPRESSION_SIZE,
+                "Minimum Compression Size", "input",
+                "Default minimum size in bytes of the REST API responses that are compressed. APIs override it with "
+                        + "the " + AWSConstants.API_PROPERTY_MINIMUM_COMPRESSION_SIZE + " property. Compression is "
+                        + "disabled if empty", "", false, false, Collections.emptyList(), false));
+
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_CHECKPOINT_DIRECTORY,
+                "Checkpoint Directory", "input",
+                "Directory where the progress of failed deployments is kept across restarts. Kept in memory if empty",
+                "", false, false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_MAX_DEPLOY_ATTEMPTS, "Max Deployment Attempts",
+                "input", "Number of failed attempts after which a partially applied deployment is rolled back",
+                String.valueOf(AWSConstants.DEFAULT_MAX_DEPLOY_ATTEMPTS), false, false, Collections.emptyList(),
+                false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DEPLOYMENT_RETENTION,
+                "Deployment Retention", "input",
+                "Number of previous deployments kept per API for a rollback of the stage. Older ones are deleted "
+                        + "in the background. With 0, only the deployment of the stage is kept",
+                String.valueOf(AWSConstants.DEFAULT_DEPLOYMENT_RETENTION), false, false, Collections.emptyList(),
+                false));
+        List<ConfigurationDto> rollbackValues = new ArrayList<>();
+        rollbackValues.add(new ConfigurationDto("false", "false", "labelOnly",
+                "Keep the progress of a failed deployment so that the next attempt resumes it", "", false, false,
+                Collections.emptyList(), false));
+        rollbackValues.add(new ConfigurationDto("true", "true", "labelOnly",
+                "Roll back a failed deployment right away", "", false, false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_ROLLBACK_ON_FAILURE, "Rollback On Failure",
+                "options", "Whether a failed deployment is rolled back instead of being resumed", "false", false,
+                false, rollbackValues, false));
+
+        List<ConfigurationDto> cacheClusterSizeValues = new ArrayList<>();
+        for (String cacheClusterSize : AWSConstants.CACHE_CLUSTER_SIZES) {
+            cacheClusterSizeValues.add(new ConfigurationDto(cacheClusterSize, cacheClusterSize, "labelOnly",
+                    cacheClusterSize + " GB", "", false, false, Collections.emptyList(), false));
+        }
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_CACHE_CLUSTER_SIZE, "Cache Cluster Size",
+                "options", "Size of the stage cache cluster provisioned for APIs with response caching enabled",
+                AWSConstants.DEFAULT_CACHE_CLUSTER_SIZE, false, false, cacheClusterSizeValues, false));
+
+        List<ConfigurationDto> dryRunValues = new ArrayList<>();
+        dryRunValues.add(new ConfigurationDto("false", "false", "labelOnly", "Apply deployments to AWS API Gateway",
+                "", false, false, Collections.emptyList(), false));
+        dryRunValues.add(new ConfigurationDto("true", "true", "labelOnly",
+                "Only log the AWS API Gateway calls a deployment would issue, without applying them", "", false,
+                false, Collections.emptyList(), false));
+        configurationDtoList.add(new ConfigurationDto(AWSConstants.AWS_DRY_RUN, "Dry Run", "options",
+                "Whether deployments are planned without being applied", "false", false, false, dryRunValues,
+                false));
 
         return configurationDtoList;
     }
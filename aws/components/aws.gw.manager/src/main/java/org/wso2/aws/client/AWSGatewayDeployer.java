@@ -18,51 +18,163 @@
 
 package org.wso2.aws.client;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.model.DeploymentSettings;
 import org.wso2.aws.client.util.AWSAPIUtil;
+import org.wso2.aws.client.util.AWSAsyncAPIUtil;
+import org.wso2.aws.client.util.AdaptiveRateLimiter;
+import org.wso2.aws.client.util.ApiGatewayClientRegistry;
+import org.wso2.aws.client.util.DeployRequestQueue;
+import org.wso2.aws.client.util.DeploymentCheckpointStore;
+import org.wso2.aws.client.util.DeploymentPruner;
+import org.wso2.aws.client.util.DeploymentTaskExecutor;
 import org.wso2.aws.client.util.GatewayUtil;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.model.API;
 import org.wso2.carbon.apimgt.api.model.Environment;
 import org.wso2.carbon.apimgt.api.model.GatewayAPIValidationResult;
 import org.wso2.carbon.apimgt.api.model.GatewayDeployer;
-import org.wso2.carbon.apimgt.api.model.URITemplate;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.exception.SdkException;
-import software.amazon.awssdk.http.SdkHttpClient;
-import software.amazon.awssdk.http.apache.ApacheHttpClient;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.apigateway.ApiGatewayAsyncClient;
 import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-
 
 /**
  * This class controls the API artifact deployments on the AWS API Gateway
  */
 public class AWSGatewayDeployer implements GatewayDeployer {
+    private static final Log log = LogFactory.getLog(AWSGatewayDeployer.class);
+    private ApiGatewayClientRegistry.ClientLease<ApiGatewayClient> clientLease;
     private ApiGatewayClient apiGatewayClient;
     private String region;
     private String stage;
+    private DeploymentTaskExecutor taskExecutor;
+    private ApiGatewayClientRegistry.ClientLease<ApiGatewayAsyncClient> asyncClientLease;
+    private AWSAsyncAPIUtil asyncAPIUtil;
+    private boolean stageVariableEndpoint;
+    private long deployTimeout;
+    private DeploymentSettings deploymentSettings;
+    private boolean dryRun;
+    private DeploymentCheckpointStore checkpoints;
+    private DeploymentPruner deploymentPruner;
+    private DeployRequestQueue deployRequestQueue;
+    private Environment environment;
+    private boolean httpAPIType;
+    private AWSHttpAPIGatewayDeployer httpAPIDeployer;
 
 
     @Override
-    public void init(Environment environment) throws APIManagementException {
-        try {
-            this.region = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_REGION);
-            this.stage = environment.getAdditionalProperties().get(AWSConstants.AWS_API_STAGE);
+    public synchronized void init(Environment environment) throws APIManagementException {
+        this.environment = environment;
+        this.region = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_REGION);
+        this.stage = environment.getAdditionalProperties().get(AWSConstants.AWS_API_STAGE);
+        this.httpAPIType = AWSConstants.API_TYPE_HTTP.equalsIgnoreCase(
+                environment.getAdditionalProperties().get(AWSConstants.AWS_API_TYPE));
+        // the deployer of the other API type is only initialized if an API deployed as that type is managed
+        if (httpAPIType) {
+            releaseRestAPIClients();
+            getHttpAPIDeployer(true);
+        } else {
+            if (httpAPIDeployer != null) {
+                httpAPIDeployer.release();
+                httpAPIDeployer = null;
+            }
+            initRestAPIDeployment();
+        }
+    }
 
-            String accessKey = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_ACCESS_KEY);
-            String secretKey = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_SECRET_KEY);
+    /**
+     * Returns the deployer of HTTP APIs, initializing it with the current environment if it is not initialized yet
+     * or if the environment was re-initialized.
+     */
+    private synchronized AWSHttpAPIGatewayDeployer getHttpAPIDeployer(boolean reinitialize)
+            throws APIManagementException {
+        if (httpAPIDeployer == null) {
+            httpAPIDeployer = new AWSHttpAPIGatewayDeployer();
+            httpAPIDeployer.init(environment);
+        } else if (reinitialize) {
+            httpAPIDeployer.init(environment);
+        }
+        return httpAPIDeployer;
+    }
 
-            SdkHttpClient httpClient = ApacheHttpClient.builder().build();
-            this.apiGatewayClient = ApiGatewayClient.builder().region(Region.of(region))
-                    .httpClient(httpClient).credentialsProvider(StaticCredentialsProvider
-                            .create(AwsBasicCredentials.create(accessKey, secretKey))).build();
+    /**
+     * Returns whether the API of the given reference artifact is managed as an HTTP API. APIs that are not deployed
+     * yet are deployed as the API type of the environment, while deployed APIs stay of the type they were deployed
+     * as, even if the API type of the environment was changed since.
+     */
+    private boolean isHttpAPI(String externalReference) {
+        return externalReference != null ? GatewayUtil.isHttpAPIReferenceArtifact(externalReference) : httpAPIType;
+    }
+
+    private void releaseRestAPIClients() {
+        if (clientLease != null) {
+            clientLease.close();
+            clientLease = null;
+            apiGatewayClient = null;
+        }
+        if (asyncClientLease != null) {
+            asyncClientLease.close();
+            asyncClientLease = null;
+            asyncAPIUtil = null;
+        }
+    }
+
+    /**
+     * Initializes the deployment of REST APIs if it is not initialized yet, which is the case in environments of the
+     * HTTP API type that still manage REST APIs deployed before the type was changed.
+     */
+    private synchronized void ensureRestAPIDeployment() throws APIManagementException {
+        if (apiGatewayClient == null && asyncAPIUtil == null) {
+            initRestAPIDeployment();
+        }
+    }
+
+    private void initRestAPIDeployment() throws APIManagementException {
+        try {
+            this.stageVariableEndpoint = AWSConstants.ENDPOINT_MODE_STAGE_VARIABLE.equalsIgnoreCase(
+                    environment.getAdditionalProperties().get(AWSConstants.AWS_ENDPOINT_MODE));
+            this.deploymentSettings = new DeploymentSettings(environment.getAdditionalProperties());
+            this.dryRun = Boolean.parseBoolean(environment.getAdditionalProperties().get(AWSConstants.AWS_DRY_RUN));
+            this.taskExecutor = DeploymentTaskExecutor.getInstance(environment.getName(),
+                    GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_DEPLOY_CONCURRENCY, AWSConstants.DEFAULT_DEPLOY_CONCURRENCY));
+            this.checkpoints = DeploymentCheckpointStore.getInstance(environment.getName(),
+                    environment.getAdditionalProperties().get(AWSConstants.AWS_CHECKPOINT_DIRECTORY),
+                    GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_MAX_DEPLOY_ATTEMPTS, AWSConstants.DEFAULT_MAX_DEPLOY_ATTEMPTS),
+                    Boolean.parseBoolean(environment.getAdditionalProperties()
+                            .get(AWSConstants.AWS_ROLLBACK_ON_FAILURE)));
+            this.deployRequestQueue = DeployRequestQueue.getInstance(environment.getName(),
+                    GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_MAX_CONCURRENT_DEPLOYMENTS,
+                            AWSConstants.DEFAULT_MAX_CONCURRENT_DEPLOYMENTS));
+            this.deployTimeout = GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                    AWSConstants.AWS_DEPLOY_TIMEOUT, AWSConstants.DEFAULT_DEPLOY_TIMEOUT);
+            this.deploymentPruner = DeploymentPruner.getInstance(environment,
+                    GatewayUtil.getNonNegativeIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_DEPLOYMENT_RETENTION, AWSConstants.DEFAULT_DEPLOYMENT_RETENTION));
+
+            // the new lease is acquired before the previous one is closed, so that a client whose connection
+            // settings did not change is shared instead of being rebuilt
+            if (!dryRun && AWSConstants.DEPLOY_MODE_ASYNC.equalsIgnoreCase(
+                    environment.getAdditionalProperties().get(AWSConstants.AWS_DEPLOY_MODE))) {
+                ApiGatewayClientRegistry.ClientLease<ApiGatewayAsyncClient> lease =
+                        ApiGatewayClientRegistry.acquireAsync(this, environment);
+                releaseRestAPIClients();
+                this.asyncClientLease = lease;
+                this.asyncAPIUtil = new AWSAsyncAPIUtil(asyncClientLease.getClient(), AdaptiveRateLimiter.getInstance(
+                        environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_ACCESS_KEY), region),
+                        stageVariableEndpoint, deploymentSettings, checkpoints, deploymentPruner);
+            } else {
+                ApiGatewayClientRegistry.ClientLease<ApiGatewayClient> lease =
+                        ApiGatewayClientRegistry.acquire(this, environment);
+                releaseRestAPIClients();
+                this.clientLease = lease;
+                this.apiGatewayClient = clientLease.getClient();
+            }
         } catch (Exception e) {
             throw new APIManagementException("Error occurred while initializing AWS Gateway Deployer", e);
         }
@@ -75,11 +187,40 @@ public class AWSGatewayDeployer implements GatewayDeployer {
 
     @Override
     public String deploy(API api, String externalReference) throws APIManagementException {
+        if (isHttpAPI(externalReference)) {
+            return getHttpAPIDeployer(false).deploy(api, externalReference);
+        }
+        ensureRestAPIDeployment();
+        // repeated saves of the same API collapse into a single redeployment with the latest state. A request that
+        // waited for the first deployment of the API redeploys the REST API created by it instead of importing again
+        String deploymentKey = GatewayUtil.getDeploymentKey(api, externalReference);
+        if (asyncAPIUtil != null) {
+            // a deployment that outlives the timeout keeps the API in the queue until it completes
+            AWSAsyncAPIUtil deploymentUtil = asyncAPIUtil;
+            return deployRequestQueue.submitAsync(deploymentKey, previousReference -> {
+                String reference = externalReference != null ? externalReference : previousReference;
+                return reference == null ? deploymentUtil.importRestAPI(api, region, stage)
+                        : deploymentUtil.reimportRestAPI(reference, api, region, stage);
+            }, deployTimeout);
+        }
+        return deployRequestQueue.submit(deploymentKey,
+                previousReference -> deployAPI(api, externalReference != null ? externalReference : previousReference));
+    }
+
+    private String deployAPI(API api, String externalReference) throws APIManagementException {
+        if (dryRun) {
+            GatewayUtil.reportDryRun(AWSAPIUtil.planDeployment(externalReference, api, apiGatewayClient, region,
+                    stage, stageVariableEndpoint, deploymentSettings));
+            // nothing was deployed, so the API keeps the reference it had
+            return externalReference;
+        }
         try {
             if (externalReference == null) {
-                return AWSAPIUtil.importRestAPI(api, apiGatewayClient, region, stage);
+                return AWSAPIUtil.importRestAPI(api, apiGatewayClient, region, stage, taskExecutor,
+                        stageVariableEndpoint, deploymentSettings, checkpoints);
             } else {
-                return AWSAPIUtil.reimportRestAPI(externalReference, api, apiGatewayClient, region, stage);
+                return AWSAPIUtil.reimportRestAPI(externalReference, api, apiGatewayClient, region, stage,
+                        taskExecutor, stageVariableEndpoint, deploymentSettings, checkpoints, deploymentPruner);
             }
         } catch (SdkException e) {
             throw new APIManagementException("Error occurred while deploying the API to AWS API Gateway", e);
@@ -88,15 +229,44 @@ public class AWSGatewayDeployer implements GatewayDeployer {
 
     @Override
     public boolean undeploy(String externalReference, boolean delete) throws APIManagementException {
+        if (isHttpAPI(externalReference)) {
+            return getHttpAPIDeployer(false).undeploy(externalReference, delete);
+        }
+        ensureRestAPIDeployment();
+        if (dryRun) {
+            GatewayUtil.reportDryRun(AWSAPIUtil.planUndeployment(externalReference, stage, delete));
+            return true;
+        }
+        // an undeployment waits for the deployments of the API that were requested before it
+        String awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(externalReference);
+        if (asyncAPIUtil != null) {
+            AWSAsyncAPIUtil deploymentUtil = asyncAPIUtil;
+            deployRequestQueue.submitAsyncUndeployment(awsApiId, previousReference -> {
+                checkpoints.removeByRestApiId(awsApiId);
+                return deploymentUtil.undeploy(externalReference, region, stage, delete)
+                        .thenApply(undeployed -> null);
+            }, deployTimeout);
+            return true;
+        }
+        deployRequestQueue.submitUndeployment(awsApiId,
+                previousReference -> {
+                    undeployAPI(externalReference, delete);
+                    return null;
+                });
+        return true;
+    }
+
+    private void undeployAPI(String externalReference, boolean delete) throws APIManagementException {
+        checkpoints.removeByRestApiId(GatewayUtil.getAWSApiIdFromReferenceArtifact(externalReference));
         try {
-            AWSAPIUtil.deleteDeployment(externalReference, apiGatewayClient, stage);
             if (delete) {
                 AWSAPIUtil.deleteAPI(externalReference, apiGatewayClient);
+            } else {
+                AWSAPIUtil.deleteDeployment(externalReference, apiGatewayClient, region, stage, deploymentPruner);
             }
         } catch (SdkException e) {
             throw new APIManagementException("Error occurred while undeploy the API to AWS API Gateway", e);
         }
-        return true;
     }
 
     @Override
@@ -106,21 +276,14 @@ public class AWSGatewayDeployer implements GatewayDeployer {
 
     @Override
     public GatewayAPIValidationResult validateApi(API api) throws APIManagementException {
-        List<String> errorList = new ArrayList<>();
-        // Endpoint validation
-        errorList.add(GatewayUtil.validateAWSAPIEndpoint(GatewayUtil.getEndpointURL(api)));
-        // Check for wildcard in the resources
-        errorList.add(GatewayUtil.validateResourceContexts(api));
-
-        GatewayAPIValidationResult result = new GatewayAPIValidationResult();
-        result.setValid(errorList.stream().allMatch(Objects::isNull));
-        result.setErrors(errorList.stream().filter(Objects::nonNull).collect(Collectors.toList()));
-
-        return result;
+        return GatewayUtil.validateAPI(api, httpAPIType, deploymentSettings);
     }
 
     @Override
     public String getAPIExecutionURL(String externalReference) throws APIManagementException {
+        if (isHttpAPI(externalReference)) {
+            return getHttpAPIDeployer(false).getAPIExecutionURL(externalReference);
+        }
         StringBuilder resolvedUrl = new StringBuilder(AWSConstants.AWS_API_EXECUTION_URL_TEMPLATE);
         String awsAPIId = GatewayUtil.getAWSApiIdFromReferenceArtifact(externalReference);
 
@@ -140,12 +303,7 @@ public class AWSGatewayDeployer implements GatewayDeployer {
 
     @Override
     public void transformAPI(API api) throws APIManagementException {
-        // change all /* resources to / in the resources list
-        for (URITemplate resource : api.getUriTemplates()) {
-            if (resource.getUriTemplate().endsWith("/*")) {
-                resource.setUriTemplate(resource.getUriTemplate().replace("/*", "/"));
-            }
-        }
+        GatewayUtil.transformAPI(api);
     }
 
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.util.ApiGatewayClientRegistry;
+import org.wso2.aws.client.util.DeploymentTaskExecutor;
+import org.wso2.aws.client.util.ExportedDefinition;
+import org.wso2.aws.client.util.GatewayUtil;
+import org.wso2.aws.client.util.HttpAPIUtil;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.FederatedAPIDiscovery;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.DiscoveredAPI;
+import org.wso2.carbon.apimgt.api.model.Environment;
+import software.amazon.awssdk.services.apigatewayv2.ApiGatewayV2Client;
+import software.amazon.awssdk.services.apigatewayv2.model.Api;
+import software.amazon.awssdk.services.apigatewayv2.model.GetStageResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Federated API discovery implementation for the HTTP APIs of AWS API Gateway. It is used by
+ * {@link AWSFederatedAPIDiscovery} for environments configured with the HTTP API type and discovers the HTTP APIs
+ * that have the stage of the environment.
+ */
+public class AWSHttpAPIDiscovery implements FederatedAPIDiscovery {
+
+    private static final Log log = LogFactory.getLog(AWSHttpAPIDiscovery.class);
+
+    private Environment environment;
+    private ApiGatewayClientRegistry.ClientLease<ApiGatewayV2Client> clientLease;
+    private ApiGatewayV2Client apiGatewayClient;
+    private String organization;
+    private String stage;
+    private DeploymentTaskExecutor taskExecutor;
+
+    @Override
+    public void init(Environment environment, String organization) throws APIManagementException {
+        try {
+            this.environment = environment;
+            this.organization = organization;
+            this.stage = environment.getAdditionalProperties().get(AWSConstants.AWS_API_STAGE);
+            this.taskExecutor = DeploymentTaskExecutor.getInstance(environment.getName() + "-discovery",
+                    GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_DISCOVERY_CONCURRENCY, AWSConstants.DEFAULT_DISCOVERY_CONCURRENCY));
+
+            ApiGatewayClientRegistry.ClientLease<ApiGatewayV2Client> previousLease = clientLease;
+            this.clientLease = ApiGatewayClientRegistry.acquireV2(this, environment);
+            if (previousLease != null) {
+                previousLease.close();
+            }
+            this.apiGatewayClient = clientLease.getClient();
+        } catch (Exception e) {
+            throw new APIManagementException("Error occurred while initializing AWS HTTP API discovery", e);
+        }
+    }
+
+    @Override
+    public List<DiscoveredAPI> discoverAPI() {
+        long startTime = System.currentTimeMillis();
+        List<Api> httpApis = HttpAPIUtil.getHttpApis(apiGatewayClient);
+
+        // fetch the details of the APIs concurrently, a failure only skips the API it belongs to
+        List<Callable<DiscoveredAPI>> tasks = new ArrayList<>(httpApis.size());
+        for (Api httpApi : httpApis) {
+            tasks.add(() -> discoverHttpApi(httpApi));
+        }
+        List<DiscoveredAPI> retrievedAPIs = new ArrayList<>();
+        try {
+            for (DiscoveredAPI discoveredAPI : taskExecutor.invokeAll(tasks)) {
+                if (discoveredAPI != null) {
+                    retrievedAPIs.add(discoveredAPI);
+                }
+            }
+        } catch (APIManagementException e) {
+            log.error("Error occurred while discovering APIs of environment: " + environment.getName(), e);
+            return retrievedAPIs;
+        }
+
+        log.info("Discovered " + retrievedAPIs.size() + " of " + httpApis.size() + " AWS HTTP APIs in environment "
+                + environment.getName() + " in " + (System.currentTimeMillis() - startTime) + " ms");
+        return retrievedAPIs;
+    }
+
+    private DiscoveredAPI discoverHttpApi(Api httpApi) {
+        try {
+            GetStageResponse apiStage = HttpAPIUtil.getStage(apiGatewayClient, httpApi.apiId(), stage);
+            if (apiStage == null) {
+                return null;
+            }
+            // the backend is read from the integrations of the export, so no integration calls are needed
+            ExportedDefinition exportedDefinition = ExportedDefinition.parse(
+                    HttpAPIUtil.getHttpApiDefinition(apiGatewayClient, httpApi.apiId(), stage));
+            String endpoint = exportedDefinition.getEndpoint(apiStage.stageVariables());
+
+            API api = HttpAPIUtil.httpAPItoAPI(httpApi, exportedDefinition.getDefinition(), organization,
+                    environment);
+            HttpAPIUtil.setEndpointConfig(api, httpApi, endpoint);
+            return new DiscoveredAPI(api, HttpAPIUtil.createReferenceArtifact(httpApi, stage, exportedDefinition,
+                    endpoint));
+        } catch (Exception e) {
+            log.error("Error occurred while discovering AWS HTTP API " + httpApi.name() + " (" + httpApi.apiId()
+                    + ")", e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isAPIUpdated(String existingReferenceArtifact, String newReferenceArtifact) {
+        return GatewayUtil.isReferenceArtifactUpdated(existingReferenceArtifact, newReferenceArtifact);
+    }
+
+    /**
+     * Releases the client of the discovery, e.g. when the environment no longer uses HTTP APIs.
+     */
+    void release() {
+        if (clientLease != null) {
+            clientLease.close();
+            clientLease = null;
+            apiGatewayClient = null;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.util.ApiGatewayClientRegistry;
+import org.wso2.aws.client.util.DeployRequestQueue;
+import org.wso2.aws.client.util.GatewayUtil;
+import org.wso2.aws.client.util.HttpAPIUtil;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.Environment;
+import org.wso2.carbon.apimgt.api.model.GatewayAPIValidationResult;
+import org.wso2.carbon.apimgt.api.model.GatewayDeployer;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.apigatewayv2.ApiGatewayV2Client;
+
+
+/**
+ * This class controls the API artifact deployments on the HTTP APIs of AWS API Gateway. It is used by
+ * {@link AWSGatewayDeployer} for environments configured with the HTTP API type.
+ */
+public class AWSHttpAPIGatewayDeployer implements GatewayDeployer {
+    private static final Log log = LogFactory.getLog(AWSHttpAPIGatewayDeployer.class);
+    private ApiGatewayClientRegistry.ClientLease<ApiGatewayV2Client> clientLease;
+    private ApiGatewayV2Client apiGatewayClient;
+    private String region;
+    private String stage;
+    private boolean stageVariableEndpoint;
+    private boolean dryRun;
+    private DeployRequestQueue deployRequestQueue;
+
+    @Override
+    public void init(Environment environment) throws APIManagementException {
+        try {
+            this.region = environment.getAdditionalProperties().get(AWSConstants.AWS_ENVIRONMENT_REGION);
+            this.stage = environment.getAdditionalProperties().get(AWSConstants.AWS_API_STAGE);
+            this.stageVariableEndpoint = AWSConstants.ENDPOINT_MODE_STAGE_VARIABLE.equalsIgnoreCase(
+                    environment.getAdditionalProperties().get(AWSConstants.AWS_ENDPOINT_MODE));
+            this.dryRun = Boolean.parseBoolean(environment.getAdditionalProperties().get(AWSConstants.AWS_DRY_RUN));
+            this.deployRequestQueue = DeployRequestQueue.getInstance(environment.getName(),
+                    GatewayUtil.getIntegerProperty(environment.getAdditionalProperties(),
+                            AWSConstants.AWS_MAX_CONCURRENT_DEPLOYMENTS,
+                            AWSConstants.DEFAULT_MAX_CONCURRENT_DEPLOYMENTS));
+
+            ApiGatewayClientRegistry.ClientLease<ApiGatewayV2Client> previousLease = clientLease;
+            this.clientLease = ApiGatewayClientRegistry.acquireV2(this, environment);
+            if (previousLease != null) {
+                previousLease.close();
+            }
+            this.apiGatewayClient = clientLease.getClient();
+        } catch (Exception e) {
+            throw new APIManagementException("Error occurred while initializing AWS HTTP API Gateway Deployer", e);
+        }
+    }
+
+    @Override
+    public String getType() {
+        return AWSConstants.AWS_TYPE;
+    }
+
+    @Override
+    public String deploy(API api, String externalReference) throws APIManagementException {
+        // repeated saves of the same API collapse into a single redeployment with the latest state
+        return deployRequestQueue.submit(GatewayUtil.getDeploymentKey(api, externalReference),
+                previousReference -> deployAPI(api, externalReference != null ? externalReference : previousReference));
+    }
+
+    private String deployAPI(API api, String externalReference) throws APIManagementException {
+        if (dryRun) {
+            GatewayUtil.reportDryRun(HttpAPIUtil.planDeployment(externalReference, api, stage));
+            // nothing was deployed, so the API keeps the reference it had
+            return externalReference;
+        }
+        if (externalReference == null) {
+            return HttpAPIUtil.importHttpAPI(api, apiGatewayClient, region, stage, stageVariableEndpoint);
+        }
+        return HttpAPIUtil.reimportHttpAPI(externalReference, api, apiGatewayClient, region, stage,
+                stageVariableEndpoint);
+    }
+
+    @Override
+    public boolean undeploy(String externalReference, boolean delete) throws APIManagementException {
+        if (dryRun) {
+            GatewayUtil.reportDryRun(HttpAPIUtil.planUndeployment(externalReference, stage, delete));
+            return true;
+        }
+        // an undeployment waits for the deployments of the API that were requested before it
+        deployRequestQueue.submitUndeployment(GatewayUtil.getAWSApiIdFromReferenceArtifact(externalReference),
+                previousReference -> {
+                    undeployAPI(externalReference, delete);
+                    return null;
+                });
+        return true;
+    }
+
+    private void undeployAPI(String externalReference, boolean delete) throws APIManagementException {
+        try {
+            if (delete) {
+                // deleting the HTTP API deletes its stages as well
+                HttpAPIUtil.deleteAPI(externalReference, apiGatewayClient);
+            } else {
+                HttpAPIUtil.deleteDeployment(externalReference, apiGatewayClient, stage);
+            }
+        } catch (SdkException e) {
+            throw new APIManagementException("Error occurred while undeploy the API to AWS API Gateway", e);
+        }
+    }
+
+    /**
+     * Releases the client of the deployer, e.g. when the environment no longer uses HTTP APIs.
+     */
+    void release() {
+        if (clientLease != null) {
+            clientLease.close();
+            clientLease = null;
+            apiGatewayClient = null;
+        }
+    }
+
+    @Override
+    public boolean undeploy(String externalReference) throws APIManagementException {
+        return true;
+    }
+
+    @Override
+    public GatewayAPIValidationResult validateApi(API api) throws APIManagementException {
+        return GatewayUtil.validateAPI(api, true, null);
+    }
+
+    @Override
+    public String getAPIExecutionURL(String externalReference) throws APIManagementException {
+        String awsAPIId = GatewayUtil.getAWSApiIdFromReferenceArtifact(externalReference);
+        return AWSConstants.AWS_API_EXECUTION_URL_TEMPLATE.replace("{apiId}", awsAPIId)
+                .replace("{region}", region) + "/" + stage;
+    }
+
+    @Override
+    public void transformAPI(API api) throws APIManagementException {
+        GatewayUtil.transformAPI(api);
+    }
+}
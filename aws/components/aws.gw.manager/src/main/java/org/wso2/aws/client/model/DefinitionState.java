@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Fingerprint of an enriched OpenAPI definition deployed to an AWS REST API. Each operation is hashed on its own,
+ * keyed by {@code <path> <method>} (the path level fields of a path item are keyed by the path alone), and everything
+ * outside of the paths (info, security schemes, gateway responses, etc.) is hashed as a whole, so that the resources
+ * affected by a redeployment can be determined without reading the REST API back from AWS. The fields of each
+ * operation are recorded as well, so that changes removing content from an operation can be told apart.
+ */
+public final class DefinitionState {
+
+    private final String globalHash;
+    private final Map<String, String> operationHashes;
+    private final Map<String, Set<String>> operationFields;
+    private final String deploymentId;
+
+    public static final String KEY_SEPARATOR = " ";
+
+    /**
+     * Creates the fingerprint of a definition.
+     *
+     * @param globalHash      Hash of everything outside of the paths
+     * @param operationHashes Hashes of the operations and path level fields, keyed by {@link #getKey(String, String)}
+     * @param operationFields Paths of the fields of the operations and path level fields, keyed the same way
+     * @param deploymentId    ID of the deployment created from the definition, or null if it is not deployed yet
+     */
+    public DefinitionState(String globalHash, Map<String, String> operationHashes,
+                           Map<String, Set<String>> operationFields, String deploymentId) {
+        this.globalHash = globalHash;
+        this.operationHashes = Collections.unmodifiableMap(new LinkedHashMap<>(operationHashes));
+        this.operationFields = Collections.unmodifiableMap(new LinkedHashMap<>(operationFields));
+        this.deploymentId = deploymentId;
+    }
+
+    public String getGlobalHash() {
+        return globalHash;
+    }
+
+    public Map<String, String> getOperationHashes() {
+        return operationHashes;
+    }
+
+    /**
+     * Returns the ID of the deployment created from the definition, or null if it has not been deployed yet.
+     */
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public DefinitionState withDeploymentId(String deploymentId) {
+        return new DefinitionState(globalHash, operationHashes, operationFields, deploymentId);
+    }
+
+    public boolean hasSameGlobals(DefinitionState previous) {
+        return globalHash.equals(previous.globalHash);
+    }
+
+    /**
+     * Returns the paths with operations that were added or modified since the given state.
+     */
+    public Set<String> getChangedPaths(DefinitionState previous) {
+        Set<String> changedPaths = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : operationHashes.entrySet()) {
+            if (!Objects.equals(entry.getValue(), previous.operationHashes.get(entry.getKey()))) {
+                changedPaths.add(getPath(entry.getKey()));
+            }
+        }
+        return changedPaths;
+    }
+
+    /**
+     * Returns the keys of the operations that existed in the given state but were removed since.
+     */
+    public Set<String> getRemovedOperations(DefinitionState previous) {
+        Set<String> removedOperations = new LinkedHashSet<>(previous.operationHashes.keySet());
+        removedOperations.removeAll(operationHashes.keySet());
+        return removedOperations;
+    }
+
+    /**
+     * Returns the keys of the operations that were modified since the given state and lost some of the fields they
+     * had, e.g. a parameter or their security requirement.
+     */
+    public Set<String> getReducedOperations(DefinitionState previous) {
+        Set<String> reducedOperations = new LinkedHashSet<>();
+        for (Map.Entry<String, Set<String>> entry : operationFields.entrySet()) {
+            Set<String> previousFields = previous.operationFields.get(entry.getKey());
+            if (previousFields != null && !entry.getValue().containsAll(previousFields)) {
+                reducedOperations.add(entry.getKey());
+            }
+        }
+        return reducedOperations;
+    }
+
+    public static String getKey(String path, String httpMethod) {
+        return httpMethod == null ? path : path + KEY_SEPARATOR + httpMethod;
+    }
+
+    private static String getPath(String key) {
+        int separator = key.lastIndexOf(KEY_SEPARATOR);
+        return separator == -1 ? key : key.substring(0, separator);
+    }
+}
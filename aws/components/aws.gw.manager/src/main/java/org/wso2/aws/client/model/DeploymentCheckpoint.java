@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+/**
+ * Progress of a deployment of an API to an AWS REST API, recorded after each completed phase so that a retry after
+ * a failure resumes against the same REST API instead of starting over. A checkpoint is updated by the deployment
+ * tasks running in parallel and read while it is written to disk, so all access is synchronized on it.
+ */
+public final class DeploymentCheckpoint {
+
+    /**
+     * Phases of a deployment in the order they are completed.
+     */
+    public enum Phase {
+        IMPORTED, CONFIGURED, DEPLOYED, STAGE_CONFIGURED
+    }
+
+    private String restApiId;
+    private String definitionFingerprint;
+    private boolean restApiCreated;
+    private Phase phase;
+    private String deploymentId;
+    private int failedAttempts;
+
+    public DeploymentCheckpoint(String restApiId, String definitionFingerprint, boolean restApiCreated) {
+        this.restApiId = restApiId;
+        this.definitionFingerprint = definitionFingerprint;
+        this.restApiCreated = restApiCreated;
+        this.phase = Phase.IMPORTED;
+    }
+
+    public synchronized String getRestApiId() {
+        return restApiId;
+    }
+
+    /**
+     * Returns the fingerprint of the definition imported to the REST API.
+     */
+    public synchronized String getDefinitionFingerprint() {
+        return definitionFingerprint;
+    }
+
+    /**
+     * Returns whether the REST API was created by the deployment, and is therefore deleted when it is rolled back.
+     */
+    public synchronized boolean isRestApiCreated() {
+        return restApiCreated;
+    }
+
+    public synchronized Phase getPhase() {
+        return phase;
+    }
+
+    public synchronized boolean isCompleted(Phase phase) {
+        return this.phase.compareTo(phase) >= 0;
+    }
+
+    public synchronized void complete(Phase phase) {
+        if (!isCompleted(phase)) {
+            this.phase = phase;
+        }
+    }
+
+    /**
+     * Returns the deployment created for the stage, or null if the stage has not been deployed yet.
+     */
+    public synchronized String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public synchronized void deployed(String deploymentId) {
+        this.deploymentId = deploymentId;
+        complete(Phase.DEPLOYED);
+    }
+
+    /**
+     * Records that a different definition was imported over the REST API, which invalidates the later phases.
+     */
+    public synchronized void reimported(String definitionFingerprint) {
+        this.definitionFingerprint = definitionFingerprint;
+        this.phase = Phase.IMPORTED;
+        this.deploymentId = null;
+    }
+
+    public synchronized int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    /**
+     * Records a failed attempt of the deployment.
+     *
+     * @return Number of failed attempts so far
+     */
+    public synchronized int failed() {
+        return ++failedAttempts;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.AWSConstants;
+
+import java.util.Map;
+
+/**
+ * Settings of a gateway environment that shape how every API of the environment is deployed, such as the integration
+ * type of its methods and the configuration of its stage.
+ */
+public final class DeploymentSettings {
+
+    private static final Log log = LogFactory.getLog(DeploymentSettings.class);
+
+    private final String cacheClusterSize;
+    private final boolean httpProxyIntegration;
+    private final Integer minimumCompressionSize;
+
+    public DeploymentSettings(Map<String, String> properties) {
+        this.cacheClusterSize = StringUtils.defaultIfBlank(properties.get(AWSConstants.AWS_CACHE_CLUSTER_SIZE),
+                AWSConstants.DEFAULT_CACHE_CLUSTER_SIZE);
+        this.httpProxyIntegration = AWSConstants.INTEGRATION_MODE_HTTP_PROXY.equalsIgnoreCase(
+                properties.get(AWSConstants.AWS_INTEGRATION_MODE));
+        this.minimumCompressionSize = parseMinimumCompressionSize(
+                properties.get(AWSConstants.AWS_MINIMUM_COMPRESSION_SIZE));
+    }
+
+    private static Integer parseMinimumCompressionSize(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            int size = Integer.parseInt(value.trim());
+            if (size >= 0 && size <= AWSConstants.MAX_MINIMUM_COMPRESSION_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        log.warn("Invalid value '" + value + "' for property " + AWSConstants.AWS_MINIMUM_COMPRESSION_SIZE
+                + ". Payload compression is disabled by default");
+        return null;
+    }
+
+    /**
+     * Returns the size of the stage cache cluster provisioned for APIs with response caching enabled.
+     */
+    public String getCacheClusterSize() {
+        return cacheClusterSize;
+    }
+
+    /**
+     * Returns whether methods are integrated with the backend through HTTP_PROXY integrations, which pass requests
+     * and responses through as they are, instead of HTTP integrations with mapped parameters and responses.
+     */
+    public boolean isHttpProxyIntegration() {
+        return httpProxyIntegration;
+    }
+
+    /**
+     * Returns the default minimum size in bytes of the responses that are compressed, or null if compression is
+     * disabled unless an API enables it.
+     */
+    public Integer getMinimumCompressionSize() {
+        return minimumCompressionSize;
+    }
+}
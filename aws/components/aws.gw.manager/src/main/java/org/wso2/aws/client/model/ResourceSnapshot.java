@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+import software.amazon.awssdk.services.apigateway.model.Method;
+import software.amazon.awssdk.services.apigateway.model.Resource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of the resources of an AWS REST API together with their embedded methods, loaded through
+ * paginated GetResources calls so that method level details can be read without per-method GetMethod calls.
+ */
+public final class ResourceSnapshot {
+
+    private final String restApiId;
+    private final Map<String, Resource> resourcesByPath = new LinkedHashMap<>();
+
+    public ResourceSnapshot(String restApiId) {
+        this.restApiId = restApiId;
+    }
+
+    public String getRestApiId() {
+        return restApiId;
+    }
+
+    public void addResource(Resource resource) {
+        resourcesByPath.put(resource.path(), resource);
+    }
+
+    public Collection<Resource> getResources() {
+        return Collections.unmodifiableCollection(resourcesByPath.values());
+    }
+
+    public Resource getResource(String path) {
+        return resourcesByPath.get(path);
+    }
+
+    /**
+     * Returns the methods of the resource at the given path keyed by HTTP method.
+     */
+    public Map<String, Method> getMethods(String path) {
+        Resource resource = resourcesByPath.get(path);
+        if (resource == null || resource.resourceMethods() == null) {
+            return Collections.emptyMap();
+        }
+        return resource.resourceMethods();
+    }
+
+    public Method getMethod(String path, String httpMethod) {
+        return getMethods(path).get(httpMethod.toUpperCase());
+    }
+
+    /**
+     * Returns the method request parameters (e.g. method.request.path.id) of the given method.
+     */
+    public Map<String, Boolean> getRequestParameters(String path, String httpMethod) {
+        Method method = getMethod(path, httpMethod);
+        if (method == null || method.requestParameters() == null) {
+            return Collections.emptyMap();
+        }
+        return method.requestParameters();
+    }
+
+    /**
+     * Returns the status codes of the method responses defined for the given method.
+     */
+    public Set<String> getMethodResponseCodes(String path, String httpMethod) {
+        Method method = getMethod(path, httpMethod);
+        if (method == null || method.methodResponses() == null) {
+            return Collections.emptySet();
+        }
+        return method.methodResponses().keySet();
+    }
+
+    public int getMethodCount() {
+        int count = 0;
+        for (Resource resource : resourcesByPath.values()) {
+            if (resource.resourceMethods() != null) {
+                count += resource.resourceMethods().size();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+import org.wso2.aws.client.AWSConstants;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limit of a WSO2 throttling tier translated to the terms of AWS API Gateway: a steady state request rate with the
+ * burst of one second's worth of requests.
+ */
+public final class ThrottlingLimit {
+
+    // names of the default tiers, e.g. 10KPerMin or 500PerSec
+    private static final Pattern TIER_NAME_PATTERN = Pattern.compile("(\\d+)([KM]?)Per(Sec|Min|Hour)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Double rateLimit;
+    private final Integer burstLimit;
+
+    private ThrottlingLimit(Double rateLimit, Integer burstLimit) {
+        this.rateLimit = rateLimit;
+        this.burstLimit = burstLimit;
+    }
+
+    /**
+     * Resolves the limit of a tier from its name, which only succeeds for names that spell out a limit per second,
+     * minute or hour.
+     *
+     * @param tierName Name of the tier
+     * @return Limit of the tier, or null if the tier is unlimited or its limit is unknown
+     */
+    public static ThrottlingLimit fromTierName(String tierName) {
+        if (tierName == null || AWSConstants.UNLIMITED_TIER.equalsIgnoreCase(tierName)) {
+            return null;
+        }
+        Matcher matcher = TIER_NAME_PATTERN.matcher(tierName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        long requestCount = Long.parseLong(matcher.group(1));
+        if ("K".equalsIgnoreCase(matcher.group(2))) {
+            requestCount *= 1000;
+        } else if ("M".equalsIgnoreCase(matcher.group(2))) {
+            requestCount *= 1000000;
+        }
+        return of(requestCount, matcher.group(3));
+    }
+
+    private static ThrottlingLimit of(long requestCount, String timeUnit) {
+        String unit = timeUnit.toLowerCase(Locale.ROOT);
+        long seconds;
+        if (unit.startsWith("sec")) {
+            seconds = 1;
+        } else if (unit.startsWith("min")) {
+            seconds = 60;
+        } else if (unit.startsWith("hour")) {
+            seconds = 3600;
+        } else {
+            return null;
+        }
+        double rate = (double) requestCount / seconds;
+        return new ThrottlingLimit(rate, (int) Math.max(1, Math.ceil(rate)));
+    }
+
+    /**
+     * Returns the steady state rate in requests per second.
+     */
+    public Double getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Returns the number of requests allowed at once.
+     */
+    public Integer getBurstLimit() {
+        return burstLimit;
+    }
+}
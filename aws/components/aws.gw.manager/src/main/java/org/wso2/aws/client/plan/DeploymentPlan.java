@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.plan;
+
+import org.wso2.aws.client.util.DeploymentTaskExecutor;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import software.amazon.awssdk.services.apigateway.ApiGatewayAsyncClient;
+import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
+import software.amazon.awssdk.services.apigateway.model.ApiGatewayRequest;
+import software.amazon.awssdk.services.apigateway.model.PutIntegrationRequest;
+import software.amazon.awssdk.services.apigateway.model.PutIntegrationResponseRequest;
+import software.amazon.awssdk.services.apigateway.model.UpdateStageRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Ordered plan of the AWS API Gateway calls that configure an imported REST API, compiled by
+ * {@link DeploymentPlanCompiler}. Steps are executed one after the other and the nodes of a step concurrently.
+ */
+public final class DeploymentPlan {
+
+    private final List<Step> steps = new ArrayList<>();
+
+    void addStep(String name, List<PlanOperation> operations) {
+        if (!operations.isEmpty()) {
+            steps.add(new Step(name, operations));
+        }
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Returns the number of AWS API Gateway calls the plan issues.
+     */
+    public int getCallCount() {
+        int callCount = 0;
+        for (Step step : steps) {
+            for (PlanOperation operation : step.operations) {
+                callCount += operation.getCalls().size();
+            }
+        }
+        return callCount;
+    }
+
+    /**
+     * Returns a human readable description of the plan, one line per step and node.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            description.append(i + 1).append(". ").append(step.name).append('\n');
+            for (PlanOperation operation : step.operations) {
+                description.append("   - ").append(operation.describe()).append('\n');
+            }
+        }
+        return description.append(getCallCount()).append(" calls").toString();
+    }
+
+    /**
+     * Executes the plan, running the nodes of each step on the given executor.
+     *
+     * @param client       APIGatewayClient object
+     * @param taskExecutor Executor that bounds the number of concurrent nodes
+     * @throws APIManagementException If any of the calls fail
+     */
+    public void execute(ApiGatewayClient client, DeploymentTaskExecutor taskExecutor)
+            throws APIManagementException {
+        for (Step step : steps) {
+            List<Callable<Void>> tasks = new ArrayList<>(step.operations.size());
+            for (PlanOperation operation : step.operations) {
+                tasks.add(() -> {
+                    for (ApiGatewayRequest call : operation.getCalls()) {
+                        invoke(client, call);
+                    }
+                    return null;
+                });
+            }
+            taskExecutor.invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Executes the plan without blocking, issuing each call through the given dispatcher.
+     *
+     * @param dispatcher Function that issues a call, e.g. paced on an asynchronous client
+     * @return Future completed once all calls have completed
+     */
+    public CompletableFuture<Void> executeAsync(Function<ApiGatewayRequest, CompletableFuture<?>> dispatcher) {
+        CompletableFuture<Void> execution = CompletableFuture.completedFuture(null);
+        for (Step step : steps) {
+            execution = execution.thenCompose(previous -> {
+                List<CompletableFuture<?>> operations = new ArrayList<>(step.operations.size());
+                for (PlanOperation operation : step.operations) {
+                    CompletableFuture<?> calls = CompletableFuture.completedFuture(null);
+                    for (ApiGatewayRequest call : operation.getCalls()) {
+                        calls = calls.thenCompose(result -> dispatcher.apply(call));
+                    }
+                    operations.add(calls);
+                }
+                return CompletableFuture.allOf(operations.toArray(new CompletableFuture[0]));
+            });
+        }
+        return execution;
+    }
+
+    /**
+     * Issues a call of a plan on the given client.
+     */
+    public static void invoke(ApiGatewayClient client, ApiGatewayRequest call) {
+        if (call instanceof PutIntegrationRequest) {
+            client.putIntegration((PutIntegrationRequest) call);
+        } else if (call instanceof PutIntegrationResponseRequest) {
+            client.putIntegrationResponse((PutIntegrationResponseRequest) call);
+        } else if (call instanceof UpdateStageRequest) {
+            client.updateStage((UpdateStageRequest) call);
+        } else {
+            throw new IllegalArgumentException("Unsupported plan call: " + call.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Issues a call of a plan on the given asynchronous client.
+     */
+    public static CompletableFuture<?> invoke(ApiGatewayAsyncClient client, ApiGatewayRequest call) {
+        if (call instanceof PutIntegrationRequest) {
+            return client.putIntegration((PutIntegrationRequest) call);
+        } else if (call instanceof PutIntegrationResponseRequest) {
+            return client.putIntegrationResponse((PutIntegrationResponseRequest) call);
+        } else if (call instanceof UpdateStageRequest) {
+            return client.updateStage((UpdateStageRequest) call);
+        }
+        return CompletableFuture.failedFuture(
+                new IllegalArgumentException("Unsupported plan call: " + call.getClass().getSimpleName()));
+    }
+
+    /**
+     * Named group of independent plan nodes.
+     */
+    public static final class Step {
+
+        private final String name;
+        private final List<PlanOperation> operations;
+
+        private Step(String name, List<PlanOperation> operations) {
+            this.name = name;
+            this.operations = Collections.unmodifiableList(operations);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<PlanOperation> getOperations() {
+            return operations;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.plan;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.model.ResourceSnapshot;
+import software.amazon.awssdk.services.apigateway.model.ApiGatewayRequest;
+import software.amazon.awssdk.services.apigateway.model.IntegrationType;
+import software.amazon.awssdk.services.apigateway.model.Method;
+import software.amazon.awssdk.services.apigateway.model.MethodSetting;
+import software.amazon.awssdk.services.apigateway.model.Op;
+import software.amazon.awssdk.services.apigateway.model.PatchOperation;
+import software.amazon.awssdk.services.apigateway.model.PutIntegrationRequest;
+import software.amazon.awssdk.services.apigateway.model.PutIntegrationResponseRequest;
+import software.amazon.awssdk.services.apigateway.model.Resource;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+import software.amazon.awssdk.services.apigateway.model.UpdateStageRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.wso2.aws.client.AWSConstants.JSON_PAYLOAD_TYPE;
+
+/**
+ * Compiles the configuration of an imported REST API into a {@link DeploymentPlan}. Patch operations on the stage
+ * are coalesced into a single call, later patches of the same path replace earlier ones, and patches that would not
+ * change the current state of the stage are dropped.
+ */
+public class DeploymentPlanCompiler {
+
+    private static final Log log = LogFactory.getLog(DeploymentPlanCompiler.class);
+
+    private final ResourceSnapshot snapshot;
+    private final String stageName;
+    private final Stage currentStage;
+    private final Map<Resource, List<ApiGatewayRequest>> integrationCalls = new LinkedHashMap<>();
+    private final Map<String, PatchOperation> stagePatches = new LinkedHashMap<>();
+
+    /**
+     * Creates a compiler for the REST API of the given snapshot.
+     *
+     * @param snapshot     Resources of the REST API as imported
+     * @param stageName    Stage the REST API is deployed to
+     * @param currentStage Current state of the stage, or null if it is unknown or does not exist yet. Its method
+     *                     settings must be keyed the way they are patched, e.g. ~1pets/GET
+     */
+    public DeploymentPlanCompiler(ResourceSnapshot snapshot, String stageName, Stage currentStage) {
+        this.snapshot = snapshot;
+        this.stageName = stageName;
+        this.currentStage = currentStage;
+    }
+
+    /**
+     * Adds an HTTP integration to the methods that were imported without one, which can happen when the integration
+     * extension of an operation is dropped with a warning during the import. Only the resources of the given paths
+     * are checked, or all of them if the paths are null.
+     *
+     * @param productionEndpoint   Endpoint the integrations should point to
+     * @param httpProxyIntegration Whether an HTTP_PROXY integration should be added instead of an HTTP integration
+     * @param paths                Paths of the resources to be checked
+     * @return This compiler
+     */
+    public DeploymentPlanCompiler repairIntegrations(String productionEndpoint, boolean httpProxyIntegration,
+                                                     Set<String> paths) {
+        for (Resource resource : snapshot.getResources()) {
+            if (paths != null && !paths.contains(resource.path())) {
+                continue;
+            }
+            for (Map.Entry<String, Method> entry : snapshot.getMethods(resource.path()).entrySet()) {
+                if (entry.getValue().methodIntegration() != null) {
+                    continue;
+                }
+                log.warn("Integration not found for the method " + entry.getKey() + " " + resource.path()
+                        + " of AWS API " + snapshot.getRestApiId() + ". Configuring the default integration");
+                List<ApiGatewayRequest> calls = integrationCalls.computeIfAbsent(resource, r -> new ArrayList<>());
+                calls.add(buildDefaultIntegrationRequest(resource, entry.getKey(), productionEndpoint,
+                        httpProxyIntegration));
+                if (!httpProxyIntegration) {
+                    calls.add(buildDefaultIntegrationResponseRequest(resource, entry.getKey()));
+                }
+            }
+        }
+        return this;
+    }
+
+    public DeploymentPlanCompiler patchStage(PatchOperation patch) {
+        stagePatches.put(patch.path(), patch);
+        return this;
+    }
+
+    /**
+     * Compiles the calls to be issued before the REST API is deployed, i.e. the integration repairs. Authorizers,
+     * method responses and CORS are part of the imported definition, so no method updates are needed.
+     *
+     * @return Deployment plan
+     */
+    public DeploymentPlan compile() {
+        DeploymentPlan plan = new DeploymentPlan();
+        List<PlanOperation> integrationOperations = new ArrayList<>();
+        for (Map.Entry<Resource, List<ApiGatewayRequest>> entry : integrationCalls.entrySet()) {
+            integrationOperations.add(new PlanOperation(entry.getKey().path(), entry.getValue()));
+        }
+        plan.addStep("Configure missing integrations", integrationOperations);
+        return plan;
+    }
+
+    /**
+     * Compiles the calls to be issued on the stage once the REST API is deployed, coalesced into a single update.
+     *
+     * @return Deployment plan
+     */
+    public DeploymentPlan compileStage() {
+        DeploymentPlan plan = new DeploymentPlan();
+        List<PatchOperation> patches = dropNoOps(stagePatches, this::getCurrentStageValue);
+        if (!patches.isEmpty()) {
+            List<ApiGatewayRequest> calls = new ArrayList<>();
+            calls.add(UpdateStageRequest.builder()
+                    .restApiId(snapshot.getRestApiId())
+                    .stageName(stageName)
+                    .patchOperations(patches)
+                    .build());
+            plan.addStep("Update stage", Collections.singletonList(new PlanOperation("stage " + stageName, calls)));
+        }
+        return plan;
+    }
+
+    private PutIntegrationRequest buildDefaultIntegrationRequest(Resource resource, String httpMethod,
+                                                                 String productionEndpoint,
+                                                                 boolean httpProxyIntegration) {
+        Map<String, String> requestParametersToBeAddedInIntegration = new HashMap<>();
+        //check for request params and add required mapping in integration
+        for (String key : snapshot.getRequestParameters(resource.path(), httpMethod).keySet()) {
+            if (httpProxyIntegration && !key.startsWith("method.request.path.")) {
+                // proxy integrations pass query strings and headers through as they are
+                continue;
+            }
+            requestParametersToBeAddedInIntegration.put(key.replace("method.request.", "integration.request."), key);
+        }
+
+        return PutIntegrationRequest.builder()
+                .httpMethod(httpMethod)
+                .integrationHttpMethod(httpMethod)
+                .resourceId(resource.id())
+                .restApiId(snapshot.getRestApiId())
+                .type(httpProxyIntegration ? IntegrationType.HTTP_PROXY : IntegrationType.HTTP)
+                .requestParameters(requestParametersToBeAddedInIntegration)
+                .uri(productionEndpoint + resource.path())
+                .build();
+    }
+
+    private PutIntegrationResponseRequest buildDefaultIntegrationResponseRequest(Resource resource,
+                                                                                 String httpMethod) {
+        //Configure default output mapping
+        return PutIntegrationResponseRequest.builder()
+                .httpMethod(httpMethod)
+                .resourceId(resource.id())
+                .restApiId(snapshot.getRestApiId())
+                .statusCode("200")
+                .responseTemplates(Map.of(JSON_PAYLOAD_TYPE, ""))
+                .build();
+    }
+
+    /**
+     * Removes the patches that set a value the target already has. A current value of null means that it is
+     * unknown, in which case the patch is kept.
+     */
+    private static List<PatchOperation> dropNoOps(Map<String, PatchOperation> patches,
+                                                  Function<PatchOperation, String> currentValue) {
+        List<PatchOperation> effectivePatches = new ArrayList<>();
+        for (PatchOperation patch : patches.values()) {
+            if (patch.op() == Op.REPLACE || patch.op() == Op.ADD) {
+                String value = currentValue.apply(patch);
+                if (value != null && isSameValue(value, patch.value())) {
+                    continue;
+                }
+            }
+            effectivePatches.add(patch);
+        }
+        return effectivePatches;
+    }
+
+    private static boolean isSameValue(String currentValue, String value) {
+        if (Objects.equals(currentValue, value)) {
+            return true;
+        }
+        try {
+            return value != null && Double.parseDouble(currentValue) == Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String getCurrentStageValue(PatchOperation patch) {
+        if (currentStage == null) {
+            return null;
+        }
+        String path = patch.path();
+        if (path.startsWith("/variables/")) {
+            return currentStage.hasVariables() ? currentStage.variables().get(path.substring("/variables/".length()))
+                    : null;
+        }
+        if ("/cacheClusterEnabled".equals(path)) {
+            return currentStage.cacheClusterEnabled() != null ? currentStage.cacheClusterEnabled().toString() : null;
+        }
+        if ("/cacheClusterSize".equals(path)) {
+            return currentStage.cacheClusterSizeAsString();
+        }
+        // method settings are patched as /{resource_path}/{http_method}/{setting} with the resource path escaped
+        String[] segments = path.substring(1).split("/", 3);
+        if (segments.length < 3 || !currentStage.hasMethodSettings()) {
+            return null;
+        }
+        MethodSetting methodSetting = currentStage.methodSettings().get(segments[0] + "/" + segments[1]);
+        if (methodSetting == null) {
+            return null;
+        }
+        switch (segments[2]) {
+            case "caching/enabled":
+                return Objects.toString(methodSetting.cachingEnabled(), null);
+            case "caching/ttlInSeconds":
+                return Objects.toString(methodSetting.cacheTtlInSeconds(), null);
+            case "caching/dataEncrypted":
+                return Objects.toString(methodSetting.cacheDataEncrypted(), null);
+            case "throttling/rateLimit":
+                return Objects.toString(methodSetting.throttlingRateLimit(), null);
+            case "throttling/burstLimit":
+                return Objects.toString(methodSetting.throttlingBurstLimit(), null);
+            case "metrics/enabled":
+                return Objects.toString(methodSetting.metricsEnabled(), null);
+            default:
+                return null;
+        }
+    }
+}
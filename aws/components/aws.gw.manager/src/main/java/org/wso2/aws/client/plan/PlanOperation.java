@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.plan;
+
+import software.amazon.awssdk.services.apigateway.model.ApiGatewayRequest;
+import software.amazon.awssdk.services.apigateway.model.UpdateStageRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Node of a {@link DeploymentPlan}: the AWS API Gateway calls that configure a single target (a resource, a method
+ * or the stage). The calls of a node are issued in order, while the nodes of a plan step are independent of each
+ * other.
+ */
+public final class PlanOperation {
+
+    private final String target;
+    private final List<ApiGatewayRequest> calls;
+
+    public PlanOperation(String target, List<ApiGatewayRequest> calls) {
+        this.target = target;
+        this.calls = Collections.unmodifiableList(calls);
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public List<ApiGatewayRequest> getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns a one line description of the node, e.g. {@code GET /orders: PutIntegration, PutIntegrationResponse}.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder(target).append(':');
+        for (int i = 0; i < calls.size(); i++) {
+            description.append(i == 0 ? " " : ", ").append(describe(calls.get(i)));
+        }
+        return description.toString();
+    }
+
+    private static String describe(ApiGatewayRequest call) {
+        String name = call.getClass().getSimpleName().replaceFirst("Request$", "");
+        if (call instanceof UpdateStageRequest) {
+            return name + " (" + ((UpdateStageRequest) call).patchOperations().size() + " patches)";
+        }
+        return name;
+    }
+}
@@ -18,76 +18,90 @@
 
 package org.wso2.aws.client.util;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.wso2.aws.client.AWSConstants;
+import org.wso2.aws.client.model.DeploymentCheckpoint;
+import org.wso2.aws.client.model.DeploymentSettings;
+import org.wso2.aws.client.model.ResourceSnapshot;
+import org.wso2.aws.client.model.ThrottlingLimit;
+import org.wso2.aws.client.plan.DeploymentPlan;
+import org.wso2.aws.client.plan.DeploymentPlanCompiler;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.model.API;
 import org.wso2.carbon.apimgt.api.model.APIIdentifier;
 import org.wso2.carbon.apimgt.api.model.Environment;
-import org.wso2.carbon.apimgt.api.model.OperationPolicy;
 import org.wso2.carbon.apimgt.api.model.URITemplate;
 import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
-import software.amazon.awssdk.services.apigateway.model.Authorizer;
 import software.amazon.awssdk.services.apigateway.model.CreateDeploymentRequest;
 import software.amazon.awssdk.services.apigateway.model.CreateDeploymentResponse;
-import software.amazon.awssdk.services.apigateway.model.DeleteDeploymentRequest;
 import software.amazon.awssdk.services.apigateway.model.DeleteRestApiRequest;
 import software.amazon.awssdk.services.apigateway.model.DeleteStageRequest;
 import software.amazon.awssdk.services.apigateway.model.Deployment;
-import software.amazon.awssdk.services.apigateway.model.GetAuthorizersRequest;
-import software.amazon.awssdk.services.apigateway.model.GetDeploymentsRequest;
-import software.amazon.awssdk.services.apigateway.model.GetDeploymentsResponse;
 import software.amazon.awssdk.services.apigateway.model.GetExportRequest;
 import software.amazon.awssdk.services.apigateway.model.GetExportResponse;
-import software.amazon.awssdk.services.apigateway.model.GetIntegrationRequest;
-import software.amazon.awssdk.services.apigateway.model.GetIntegrationResponse;
-import software.amazon.awssdk.services.apigateway.model.GetMethodRequest;
-import software.amazon.awssdk.services.apigateway.model.GetMethodResponse;
 import software.amazon.awssdk.services.apigateway.model.GetResourcesRequest;
 import software.amazon.awssdk.services.apigateway.model.GetResourcesResponse;
 import software.amazon.awssdk.services.apigateway.model.GetRestApiRequest;
-import software.amazon.awssdk.services.apigateway.model.GetRestApiResponse;
 import software.amazon.awssdk.services.apigateway.model.GetRestApisRequest;
 import software.amazon.awssdk.services.apigateway.model.GetRestApisResponse;
+import software.amazon.awssdk.services.apigateway.model.GetStageRequest;
+import software.amazon.awssdk.services.apigateway.model.GetStageResponse;
 import software.amazon.awssdk.services.apigateway.model.GetStagesRequest;
 import software.amazon.awssdk.services.apigateway.model.GetStagesResponse;
+import software.amazon.awssdk.services.apigateway.model.GetTagsRequest;
+import software.amazon.awssdk.services.apigateway.model.GetTagsResponse;
 import software.amazon.awssdk.services.apigateway.model.ImportRestApiRequest;
 import software.amazon.awssdk.services.apigateway.model.ImportRestApiResponse;
-import software.amazon.awssdk.services.apigateway.model.IntegrationType;
-import software.amazon.awssdk.services.apigateway.model.Method;
+import software.amazon.awssdk.services.apigateway.model.MethodSetting;
+import software.amazon.awssdk.services.apigateway.model.NotFoundException;
 import software.amazon.awssdk.services.apigateway.model.Op;
 import software.amazon.awssdk.services.apigateway.model.PatchOperation;
-import software.amazon.awssdk.services.apigateway.model.PutIntegrationRequest;
-import software.amazon.awssdk.services.apigateway.model.PutIntegrationResponseRequest;
 import software.amazon.awssdk.services.apigateway.model.PutMode;
 import software.amazon.awssdk.services.apigateway.model.PutRestApiRequest;
 import software.amazon.awssdk.services.apigateway.model.PutRestApiResponse;
 import software.amazon.awssdk.services.apigateway.model.Resource;
 import software.amazon.awssdk.services.apigateway.model.RestApi;
-import software.amazon.awssdk.services.apigateway.model.UpdateMethodRequest;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+import software.amazon.awssdk.services.apigateway.model.TagResourceRequest;
+import software.amazon.awssdk.services.apigateway.model.UntagResourceRequest;
+import software.amazon.awssdk.services.apigateway.model.UpdateRestApiRequest;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeMap;
 
 import static org.wso2.aws.client.AWSConstants.DEFAULT_VERSION;
+import static org.wso2.aws.client.AWSConstants.EXPORT_EXTENSIONS_PARAMETER;
+import static org.wso2.aws.client.AWSConstants.EXPORT_INTEGRATIONS_EXTENSION;
 import static org.wso2.aws.client.AWSConstants.JSON_PAYLOAD_TYPE;
+import static org.wso2.aws.client.AWSConstants.MAX_PAGE_SIZE;
 import static org.wso2.aws.client.AWSConstants.OPEN_API_VERSION;
 import static org.wso2.aws.client.AWSConstants.PRODUCTION_ENDPOINTS;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_API_VERSION_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_FINGERPRINT_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_ID_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_NAME_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_STAGE_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_VERSION;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_VERSION_FIELD;
+import static org.wso2.aws.client.AWSConstants.RESOURCE_EMBED_METHODS;
 import static org.wso2.aws.client.AWSConstants.SANDBOX_ENDPOINTS;
 import static org.wso2.aws.client.AWSConstants.URL_PROP;
 
@@ -98,462 +112,833 @@ public class AWSAPIUtil {
     private static final Log log = LogFactory.getLog(AWSAPIUtil.class);
 
     public static String importRestAPI(API api, ApiGatewayClient apiGatewayClient, String region,
-                                       String stage) throws APIManagementException {
+                                       String stage, DeploymentTaskExecutor taskExecutor,
+                                       boolean stageVariableEndpoint, DeploymentSettings deploymentSettings,
+                                       DeploymentCheckpointStore checkpoints) throws APIManagementException {
 
-        String openAPI = api.getSwaggerDefinition();
+        String checkpointKey = checkpoints.getKey(api, stage);
+        DeploymentCheckpoint checkpoint = checkpoints.get(checkpointKey);
         String apiId = null;
-        Map<String, String> authorizers = new HashMap<>();
-        Map<String, String> pathToArnMapping = new HashMap<>();
-
         try {
-            ImportRestApiRequest importApiRequest = ImportRestApiRequest.builder()
-                    .body(SdkBytes.fromUtf8String(openAPI))
-                    .failOnWarnings(false)
-                    .build();
+            //enrich the openapi definition with integrations, authorizers and CORS configurations
+            String openAPI = new OpenAPIEnricher(api, region, stageVariableEndpoint, deploymentSettings).enrich();
+            String fingerprint = DigestUtils.sha256Hex(openAPI);
+            Integer compressionSize = GatewayUtil.getMinimumCompressionSize(api,
+                    deploymentSettings.getMinimumCompressionSize());
+
+            if (checkpoint == null) {
+                ImportRestApiRequest importApiRequest = ImportRestApiRequest.builder()
+                        .body(SdkBytes.fromUtf8String(openAPI))
+                        .failOnWarnings(false)
+                        .build();
 
-            //import rest API with the openapi definition
-            ImportRestApiResponse importApiResponse = apiGatewayClient.importRestApi(importApiRequest);
-            apiId = importApiResponse.id();
-
-            //add integrations for each resource
-            GetResourcesRequest getResourcesRequest = GetResourcesRequest.builder().restApiId(apiId).build();
-            GetResourcesResponse getResourcesResponse = apiGatewayClient.getResources(getResourcesRequest);
-
-            //configure authorizers
-            List<OperationPolicy> apiPolicies = api.getApiPolicies();
-            if (apiPolicies != null) {
-                for (OperationPolicy policy : apiPolicies) {
-                    if (policy.getPolicyName().equals(AWSConstants.AWS_OPERATION_POLICY_NAME)) {
-                        String lambdaArnAPI = policy.getParameters()
-                                .get(AWSConstants.OPERATION_POLICY_ARN_PARAMETER).toString();
-                        String invokeRoleArn = policy.getParameters()
-                                .get(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER).toString();
-
-                        String key = lambdaArnAPI + "|" + invokeRoleArn;
-                        pathToArnMapping.put(AWSConstants.OPERATION_POLICY_API, key);
-
-                        String name = lambdaArnAPI.substring(lambdaArnAPI.lastIndexOf(':') + 1) + "-" +
-                                invokeRoleArn.substring(invokeRoleArn.lastIndexOf('/') + 1);
-
-                        authorizers.put(key, GatewayUtil.getAuthorizer(apiId, name, lambdaArnAPI,
-                                invokeRoleArn, region, apiGatewayClient).id());
-                        break;
-                    }
+                //import rest API with the openapi definition
+                ImportRestApiResponse importApiResponse = apiGatewayClient.importRestApi(importApiRequest);
+                apiId = importApiResponse.id();
+                logImportWarnings(apiId, importApiResponse.warnings());
+                reconcileCompression(apiGatewayClient, apiId, importApiResponse.minimumCompressionSize(),
+                        compressionSize);
+                checkpoint = new DeploymentCheckpoint(apiId, fingerprint, true);
+                checkpoints.save(checkpointKey, checkpoint);
+            } else {
+                // resume the failed deployment against the REST API it already created
+                apiId = checkpoint.getRestApiId();
+                log.info("Resuming deployment of API " + api.getId() + " to AWS API " + apiId + " after phase "
+                        + checkpoint.getPhase());
+                if (!fingerprint.equals(checkpoint.getDefinitionFingerprint())) {
+                    PutRestApiResponse reimportApiResponse = apiGatewayClient.putRestApi(PutRestApiRequest.builder()
+                            .restApiId(apiId)
+                            .body(SdkBytes.fromUtf8String(openAPI))
+                            .failOnWarnings(false)
+                            .mode(PutMode.OVERWRITE)
+                            .build());
+                    logImportWarnings(apiId, reimportApiResponse.warnings());
+                    reconcileCompression(apiGatewayClient, apiId, reimportApiResponse.minimumCompressionSize(),
+                            compressionSize);
+                    checkpoint.reimported(fingerprint);
+                    checkpoints.save(checkpointKey, checkpoint);
                 }
             }
 
-            for (URITemplate resource : api.getUriTemplates()) {
-                for (OperationPolicy policy : resource.getOperationPolicies()) {
-                    if (policy.getPolicyName().equals(AWSConstants.AWS_OPERATION_POLICY_NAME)) {
-                        String resourceLambdaARN = policy.getParameters()
-                                .get(AWSConstants.OPERATION_POLICY_ARN_PARAMETER).toString();
-                        String invokeRoleArnResource = policy.getParameters()
-                                .get(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER).toString();
-
-                        String key = resourceLambdaARN + "|" + invokeRoleArnResource;
-                        pathToArnMapping.put(resource.getUriTemplate().toLowerCase()
-                                + "|" + resource.getHTTPVerb().toLowerCase(), key);
-                        if (!authorizers.containsKey(key)) {
-                            String name = resourceLambdaARN
-                                    .substring(resourceLambdaARN.lastIndexOf(':') + 1) + "-" +
-                                    invokeRoleArnResource
-                                            .substring(invokeRoleArnResource.lastIndexOf('/') + 1);
-                            authorizers.put(key, GatewayUtil.getAuthorizer(apiId, name, resourceLambdaARN,
-                                    invokeRoleArnResource, region, apiGatewayClient).id());
-                        }
-                        break;
-                    }
+            String deploymentId = configureAndDeploy(api, apiGatewayClient, apiId, stage, null, null, taskExecutor,
+                    stageVariableEndpoint, deploymentSettings, checkpoints, checkpointKey, checkpoint);
+            IncrementalReimportPlan.markImported(apiId, stage, openAPI, deploymentId);
+            checkpoints.remove(checkpointKey);
+            tagDeploymentHash(apiGatewayClient, region, apiId, stage, getDeploymentHash(api, openAPI,
+                    getStageVariables(api, stageVariableEndpoint), deploymentSettings));
+        } catch (Exception e) {
+            if (checkpoint == null) {
+                // nothing to resume from, so clean up whatever was created
+                try {
+                    GatewayUtil.rollbackDeployment(apiGatewayClient, apiId);
+                } catch (APIManagementException ex) {
+                    throw new APIManagementException("Error occurred while rolling back deployment: "
+                            + ex.getMessage(), ex);
+                }
+                throw new APIManagementException("Error occurred while importing API: " + e.getMessage(), e);
+            }
+            throw new APIManagementException("Error occurred while importing API: " + e.getMessage()
+                    + handleFailedDeployment(apiGatewayClient, checkpoints, checkpointKey, checkpoint), e);
+        }
+
+        GetRestApiRequest getRestApiRequest = GetRestApiRequest.builder().restApiId(apiId).build();
+
+        return apiGatewayClient.getRestApi(getRestApiRequest).toString();
+    }
+
+    public static String reimportRestAPI(String referenceArtifact, API api, ApiGatewayClient apiGatewayClient,
+                                         String region, String stage, DeploymentTaskExecutor taskExecutor,
+                                         boolean stageVariableEndpoint, DeploymentSettings deploymentSettings,
+                                         DeploymentCheckpointStore checkpoints, DeploymentPruner deploymentPruner)
+            throws APIManagementException {
+        String awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        String checkpointKey = checkpoints.getKey(api, stage);
+        DeploymentCheckpoint checkpoint = checkpoints.get(checkpointKey);
+        try {
+            //enrich the openapi definition with integrations, authorizers and CORS configurations
+            String openAPI = new OpenAPIEnricher(api, region, stageVariableEndpoint, deploymentSettings).enrich();
+            String fingerprint = DigestUtils.sha256Hex(openAPI);
+            Map<String, String> stageVariables = getStageVariables(api, stageVariableEndpoint);
+            String deploymentHash = getDeploymentHash(api, openAPI, stageVariables, deploymentSettings);
+            if (checkpoint == null
+                    && deploymentHash.equals(getDeployedHash(apiGatewayClient, region, awsApiId, stage))) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Deployment of AWS API " + awsApiId + " to stage " + stage
+                            + " is up to date. Skipping the deployment");
                 }
+                return referenceArtifact;
             }
 
-            String endpointConfig = api.getEndpointConfig();
-            JSONParser parser = new JSONParser();
-            JSONObject endpointConfigJson = (JSONObject) parser.parse(endpointConfig);
-            JSONObject prodEndpoints = (JSONObject) endpointConfigJson.get("production_endpoints");
-            String productionEndpoint = (String) prodEndpoints.get("url");
-
-            productionEndpoint = productionEndpoint.charAt(productionEndpoint.length() - 1) == '/' ?
-                    productionEndpoint.substring(0, productionEndpoint.length() - 1) : productionEndpoint;
-
-            List<Resource> resources = getResourcesResponse.items();
-            for (Resource resource : resources) {
-                Map<String, Method> resourceMethods = resource.resourceMethods();
-                if (!resourceMethods.isEmpty()) {
-                    //check and configure CORS
-                    GatewayUtil.configureOptionsCallForCORS(apiId, resource, apiGatewayClient);
-
-                    for (Map.Entry entry : resourceMethods.entrySet()) {
-                        GetMethodRequest getMethodRequest = GetMethodRequest.builder()
-                                .restApiId(apiId)
-                                .resourceId(resource.id())
-                                .httpMethod(entry.getKey().toString())
-                                .build();
-                        GetMethodResponse getMethodResponse = apiGatewayClient.getMethod(getMethodRequest);
-                        Map<String, Boolean> requestParamsFromMethod = getMethodResponse.requestParameters();
-
-                        Map<String, String> requestParametersToBeAddedInIntegration = new HashMap<>();
-
-                        //check for request params and add required mapping in integration
-                        for (Map.Entry<String, Boolean> paramEntry : requestParamsFromMethod.entrySet()) {
-                            String key = paramEntry.getKey();
-                            String paramName = key.substring(key.lastIndexOf(".") + 1);
-
-                            String prefix = "method.request.";
-                            int startIndex = key.indexOf(prefix) + prefix.length();
-                            int endIndex = key.indexOf('.', startIndex);
-                            String location = key.substring(startIndex, endIndex != -1 ? endIndex : key.length());
-
-                            requestParametersToBeAddedInIntegration.put(
-                                    "integration.request." + location + "." + paramName,
-                                    "method.request." + location + "." + paramName);
-                        }
-
-                        PutIntegrationRequest putIntegrationRequest = PutIntegrationRequest.builder()
-                                .httpMethod(entry.getKey().toString())
-                                .integrationHttpMethod(entry.getKey().toString())
-                                .resourceId(resource.id())
-                                .restApiId(apiId)
-                                .type(IntegrationType.HTTP)
-                                .requestParameters(requestParametersToBeAddedInIntegration)
-                                .uri(productionEndpoint + resource.path())
-                                .build();
-                        apiGatewayClient.putIntegration(putIntegrationRequest);
-
-                        //Configure default output mapping
-                        PutIntegrationResponseRequest putIntegrationResponseRequest =
-                                PutIntegrationResponseRequest.builder()
-                                        .httpMethod(entry.getKey().toString())
-                                        .resourceId(resource.id())
-                                        .restApiId(apiId)
-                                        .statusCode("200")
-                                        .responseTemplates(Map.of("application/json", ""))
-                                        .build();
-                        apiGatewayClient.putIntegrationResponse(putIntegrationResponseRequest);
-
-                        String key = resource.path().toLowerCase() + "|" + entry.getKey().toString().toLowerCase();
-                        boolean isAuthorizerFound = false;
-                        if (authorizers.containsKey(pathToArnMapping.get(key))) {
-                            isAuthorizerFound = true;
-                        } else {
-                            key = "API";
-                            if (authorizers.containsKey(pathToArnMapping.get(key))) {
-                                isAuthorizerFound = true;
-                            } else {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Authorizer not found for the resource: " + resource.path() + " at API " +
-                                            "or Resource levels");
-                                }
-                            }
-                        }
-                        if (isAuthorizerFound) {
-                            String authorizerId = authorizers.get(pathToArnMapping.get(key));
-
-                            //configure authorizer
-                            UpdateMethodRequest updateMethodRequest = UpdateMethodRequest.builder().restApiId(apiId)
-                                    .resourceId(resource.id()).httpMethod(entry.getKey().toString())
-                                    .patchOperations(PatchOperation.builder().op(Op.REPLACE).path("/authorizationType")
-                                                    .value("CUSTOM").build(),
-                                            PatchOperation.builder().op(Op.REPLACE).path("/authorizerId")
-                                                    .value(authorizerId).build()).build();
-                            apiGatewayClient.updateMethod(updateMethodRequest);
-                        }
-
-                        //configure CORS Headers at request Method level
-                        GatewayUtil.configureCORSHeadersAtMethodLevel(apiId, resource, entry.getKey().toString(),
-                                apiGatewayClient);
+            IncrementalReimportPlan plan;
+            Stage currentStage = null;
+            if (checkpoint != null && checkpoint.getRestApiId().equals(awsApiId)
+                    && fingerprint.equals(checkpoint.getDefinitionFingerprint())) {
+                // the same definition was already put by the failed attempt, so resume after it
+                log.info("Resuming re-import of API " + api.getId() + " to AWS API " + awsApiId + " after phase "
+                        + checkpoint.getPhase());
+                plan = IncrementalReimportPlan.overwrite(awsApiId, stage, openAPI);
+            } else {
+                if (checkpoint != null) {
+                    checkpoints.remove(checkpointKey);
+                    checkpoint = null;
+                }
+                //diff against the previously deployed definition to touch only the changed resources
+                plan = IncrementalReimportPlan.create(awsApiId, stage, openAPI);
+                currentStage = getCurrentStage(apiGatewayClient, awsApiId, stage);
+                if (plan.getMode() != IncrementalReimportPlan.Mode.OVERWRITE
+                        && !isActiveDeployment(currentStage, plan.getPreviousDeploymentId())) {
+                    // the stage was redeployed or undeployed elsewhere, so the known state is stale
+                    IncrementalReimportPlan.invalidate(awsApiId, stage);
+                    plan = IncrementalReimportPlan.create(awsApiId, stage, openAPI);
+                }
+                if (plan.getMode() == IncrementalReimportPlan.Mode.UNCHANGED) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Definition of AWS API " + awsApiId + " is unchanged. Skipping the re-import");
                     }
+                    // changes of the backend or stage settings are picked up by the stage without a new deployment
+                    DeploymentPlanCompiler planCompiler = createPlanCompiler(api, new ResourceSnapshot(awsApiId),
+                            Collections.emptySet(), stage, currentStage, stageVariableEndpoint, deploymentSettings);
+                    patchStageVariables(planCompiler, stageVariables);
+                    patchCacheCluster(planCompiler, api, deploymentSettings);
+                    executePlan(planCompiler.compileStage(), apiGatewayClient, taskExecutor, awsApiId);
+                    tagDeploymentHash(apiGatewayClient, region, awsApiId, stage, deploymentHash);
+                    GetRestApiRequest getRestApiRequest = GetRestApiRequest.builder().restApiId(awsApiId).build();
+                    return apiGatewayClient.getRestApi(getRestApiRequest).toString();
                 }
+
+                PutRestApiRequest reimportApiRequest = PutRestApiRequest.builder()
+                        .restApiId(awsApiId)
+                        .body(SdkBytes.fromUtf8String(plan.getBody()))
+                        .failOnWarnings(false)
+                        .mode(plan.getPutMode())
+                        .build();
+                PutRestApiResponse reimportApiResponse = apiGatewayClient.putRestApi(reimportApiRequest);
+
+                awsApiId = reimportApiResponse.id();
+                logImportWarnings(awsApiId, reimportApiResponse.warnings());
+                reconcileCompression(apiGatewayClient, awsApiId, reimportApiResponse.minimumCompressionSize(),
+                        GatewayUtil.getMinimumCompressionSize(api, deploymentSettings.getMinimumCompressionSize()));
+                checkpoint = new DeploymentCheckpoint(awsApiId, fingerprint, false);
+                checkpoints.save(checkpointKey, checkpoint);
             }
 
-            CreateDeploymentRequest createDeploymentRequest = CreateDeploymentRequest.builder().restApiId(apiId)
-                    .stageName(stage).build();
-            apiGatewayClient.createDeployment(createDeploymentRequest);
+            // re-deploy API
+            String deploymentId = configureAndDeploy(api, apiGatewayClient, awsApiId, stage, currentStage,
+                    plan.getChangedPaths(), taskExecutor, stageVariableEndpoint, deploymentSettings, checkpoints,
+                    checkpointKey, checkpoint);
+            plan.markDeployed(deploymentId);
+            checkpoints.remove(checkpointKey);
+            // the stage points at the new deployment, so the previous ones are deleted off the critical path
+            deploymentPruner.schedule(awsApiId);
+            tagDeploymentHash(apiGatewayClient, region, awsApiId, stage, deploymentHash);
+
+            GetRestApiRequest getRestApiRequest = GetRestApiRequest.builder().restApiId(awsApiId).build();
+            return apiGatewayClient.getRestApi(getRestApiRequest).toString();
         } catch (Exception e) {
+            IncrementalReimportPlan.invalidate(awsApiId, stage);
+            // the live state may be partially changed, so it must not be taken as up to date
+            untagDeploymentHash(apiGatewayClient, region, awsApiId, stage);
+            String recovery = checkpoint != null
+                    ? handleFailedDeployment(apiGatewayClient, checkpoints, checkpointKey, checkpoint) : "";
+            throw new APIManagementException("Error occurred while re-importing API: " + e.getMessage() + recovery,
+                    e);
+        }
+    }
+
+    /**
+     * Runs the phases of a deployment that follow the import and are not completed yet according to the
+     * checkpoint, recording each completed phase.
+     *
+     * @return ID of the deployment of the stage
+     */
+    private static String configureAndDeploy(API api, ApiGatewayClient apiGatewayClient, String apiId,
+                                             String stage, Stage currentStage, Set<String> paths,
+                                             DeploymentTaskExecutor taskExecutor, boolean stageVariableEndpoint,
+                                             DeploymentSettings deploymentSettings,
+                                             DeploymentCheckpointStore checkpoints, String checkpointKey,
+                                             DeploymentCheckpoint checkpoint)
+            throws APIManagementException {
+        boolean configured = checkpoint.isCompleted(DeploymentCheckpoint.Phase.CONFIGURED);
+        ResourceSnapshot snapshot = configured ? new ResourceSnapshot(apiId)
+                : loadResourceSnapshot(apiGatewayClient, apiId);
+        DeploymentPlanCompiler planCompiler = createPlanCompiler(api, snapshot, paths, stage, currentStage,
+                stageVariableEndpoint, deploymentSettings);
+        if (!configured) {
+            executePlan(planCompiler.compile(), apiGatewayClient, taskExecutor, apiId);
+            checkpoint.complete(DeploymentCheckpoint.Phase.CONFIGURED);
+            checkpoints.save(checkpointKey, checkpoint);
+        }
+        if (!checkpoint.isCompleted(DeploymentCheckpoint.Phase.DEPLOYED)) {
+            CreateDeploymentRequest createDeploymentRequest = buildCreateDeploymentRequest(api, apiId, stage,
+                    getStageVariables(api, stageVariableEndpoint), deploymentSettings);
+            CreateDeploymentResponse createDeploymentResponse =
+                    apiGatewayClient.createDeployment(createDeploymentRequest);
+            checkpoint.deployed(createDeploymentResponse.id());
+            checkpoints.save(checkpointKey, checkpoint);
+        }
+        if (!checkpoint.isCompleted(DeploymentCheckpoint.Phase.STAGE_CONFIGURED)) {
+            executePlan(planCompiler.compileStage(), apiGatewayClient, taskExecutor, apiId);
+            checkpoint.complete(DeploymentCheckpoint.Phase.STAGE_CONFIGURED);
+            checkpoints.save(checkpointKey, checkpoint);
+        }
+        return checkpoint.getDeploymentId();
+    }
+
+    /**
+     * Records a failed attempt of a checkpointed deployment and rolls it back if the checkpoint store requires so.
+     * Rolling back deletes the REST API if the deployment created it.
+     *
+     * @return Description of the recovery, appended to the error message
+     */
+    private static String handleFailedDeployment(ApiGatewayClient apiGatewayClient,
+                                                 DeploymentCheckpointStore checkpoints, String checkpointKey,
+                                                 DeploymentCheckpoint checkpoint)
+            throws APIManagementException {
+        boolean rollback = checkpoints.recordFailure(checkpointKey, checkpoint);
+        if (rollback && checkpoint.isRestApiCreated()) {
             try {
-                GatewayUtil.rollbackDeployment(apiGatewayClient, apiId);
-            } catch (APIManagementException ex) {
-                throw new APIManagementException("Error occurred while rolling back deployment: " + ex.getMessage());
+                GatewayUtil.rollbackDeployment(apiGatewayClient, checkpoint.getRestApiId());
+            } catch (Exception e) {
+                throw new APIManagementException("Error occurred while rolling back deployment: " + e.getMessage(),
+                        e);
             }
-            throw new APIManagementException("Error occurred while importing API: " + e.getMessage());
         }
+        return DeploymentCheckpointStore.describeRecovery(checkpoint, rollback);
+    }
 
-        GetRestApiRequest getRestApiRequest = GetRestApiRequest.builder().restApiId(apiId).build();
+    /**
+     * Describes the calls a deployment of the API would issue against AWS API Gateway without changing anything.
+     * Only read calls are issued to work out the plan.
+     *
+     * @param referenceArtifact     Reference artifact of the deployed Rest API, or null for a new deployment
+     * @param api                   API to be deployed
+     * @param apiGatewayClient      APIGatewayClient object
+     * @param region                AWS region
+     * @param stage                 Stage the API is deployed to
+     * @param stageVariableEndpoint Whether the integrations resolve the backend from the backend stage variable
+     * @param deploymentSettings    Deployment settings of the environment
+     * @return Description of the deployment plan
+     * @throws APIManagementException If the plan cannot be worked out
+     */
+    public static String planDeployment(String referenceArtifact, API api, ApiGatewayClient apiGatewayClient,
+                                        String region, String stage, boolean stageVariableEndpoint,
+                                        DeploymentSettings deploymentSettings) throws APIManagementException {
+        try {
+            String openAPI = new OpenAPIEnricher(api, region, stageVariableEndpoint, deploymentSettings).enrich();
+            Map<String, String> stageVariables = getStageVariables(api, stageVariableEndpoint);
+            StringBuilder description = new StringBuilder();
+            if (referenceArtifact == null) {
+                description.append("ImportRestApi of ").append(api.getId().getApiName())
+                        .append(" to stage ").append(stage)
+                        .append("\nConfiguration of missing integrations, determined after the import")
+                        .append("\nCreateDeployment");
+                DeploymentPlanCompiler planCompiler = createPlanCompiler(api, new ResourceSnapshot(null),
+                        Collections.emptySet(), stage, null, stageVariableEndpoint, deploymentSettings);
+                DeploymentPlan stagePlan = planCompiler.compileStage();
+                if (!stagePlan.isEmpty()) {
+                    description.append('\n').append(stagePlan.describe());
+                }
+                return description.append("\nTotal: at least ").append(2 + stagePlan.getCallCount()).append(" calls")
+                        .toString();
+            }
 
-        return apiGatewayClient.getRestApi(getRestApiRequest).toString();
+            String awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+            if (getDeploymentHash(api, openAPI, stageVariables, deploymentSettings).equals(
+                    getDeployedHash(apiGatewayClient, region, awsApiId, stage))) {
+                return description.append("Deployment of AWS API ").append(awsApiId).append(" to stage ")
+                        .append(stage).append(" is up to date\nTotal: 0 calls").toString();
+            }
+            IncrementalReimportPlan plan = IncrementalReimportPlan.create(awsApiId, stage, openAPI);
+            Stage currentStage = getCurrentStage(apiGatewayClient, awsApiId, stage);
+            if (plan.getMode() != IncrementalReimportPlan.Mode.OVERWRITE
+                    && !isActiveDeployment(currentStage, plan.getPreviousDeploymentId())) {
+                plan = IncrementalReimportPlan.overwrite(awsApiId, stage, openAPI);
+            }
+            if (plan.getMode() == IncrementalReimportPlan.Mode.UNCHANGED) {
+                DeploymentPlanCompiler planCompiler = createPlanCompiler(api, new ResourceSnapshot(awsApiId),
+                        Collections.emptySet(), stage, currentStage, stageVariableEndpoint, deploymentSettings);
+                patchStageVariables(planCompiler, stageVariables);
+                patchCacheCluster(planCompiler, api, deploymentSettings);
+                DeploymentPlan stagePlan = planCompiler.compileStage();
+                description.append("Definition of AWS API ").append(awsApiId).append(" is unchanged");
+                if (!stagePlan.isEmpty()) {
+                    description.append('\n').append(stagePlan.describe());
+                }
+                return description.append("\nTotal: ").append(stagePlan.getCallCount()).append(" calls")
+                        .toString();
+            }
+
+            // the current resources stand in for the re-imported ones, which are only known after the import
+            ResourceSnapshot snapshot = loadResourceSnapshot(apiGatewayClient, awsApiId);
+            DeploymentPlanCompiler planCompiler = createPlanCompiler(api, snapshot, plan.getChangedPaths(), stage,
+                    currentStage, stageVariableEndpoint, deploymentSettings);
+            DeploymentPlan configurationPlan = planCompiler.compile();
+            DeploymentPlan stagePlan = planCompiler.compileStage();
+
+            description.append("PutRestApi of AWS API ").append(awsApiId).append(" in ").append(plan.getPutMode())
+                    .append(" mode");
+            if (plan.getChangedPaths() != null) {
+                description.append(" touching paths ").append(plan.getChangedPaths());
+            }
+            if (!configurationPlan.isEmpty()) {
+                description.append('\n').append(configurationPlan.describe());
+            }
+            description.append("\nCreateDeployment to stage ").append(stage);
+            if (!stagePlan.isEmpty()) {
+                description.append('\n').append(stagePlan.describe());
+            }
+            description.append("\nPrevious deployments are pruned in the background");
+            int calls = 2 + configurationPlan.getCallCount() + stagePlan.getCallCount();
+            return description.append("\nTotal: ").append(calls).append(" calls").toString();
+        } catch (SdkException e) {
+            throw new APIManagementException("Error occurred while planning the deployment of the API: "
+                    + e.getMessage(), e);
+        }
     }
 
-    public static String reimportRestAPI(String referenceArtifact, API api, ApiGatewayClient apiGatewayClient,
-                                         String region, String stage) throws APIManagementException {
+    /**
+     * Describes the calls an undeployment of the API would issue against AWS API Gateway without changing anything.
+     *
+     * @param referenceArtifact Reference artifact of the deployed Rest API
+     * @param stage             Stage the API is undeployed from
+     * @param delete            Whether the Rest API is deleted as well
+     * @return Description of the undeployment plan
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static String planUndeployment(String referenceArtifact, String stage, boolean delete)
+            throws APIManagementException {
         String awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
-        List<String> currentARNs = new ArrayList<>();
-        Map<String, String> authorizers = new HashMap<>();
-        Map<String, String> pathToArnMapping = new HashMap<>();
+        StringBuilder description = new StringBuilder();
+        if (delete) {
+            return description.append("DeleteRestApi ").append(awsApiId).append("\nTotal: 1 call").toString();
+        }
+        return description.append("UntagResource ").append(getDeploymentHashTag(stage)).append(" of AWS API ")
+                .append(awsApiId).append("\nDeleteStage ").append(stage).append(" of AWS API ").append(awsApiId)
+                .append("\nDeployments are pruned in the background\nTotal: 2 calls").toString();
+    }
+
+    /**
+     * Returns the current state of the stage, or null if the stage does not exist.
+     */
+    private static Stage getCurrentStage(ApiGatewayClient apiGatewayClient, String apiId, String stage) {
         try {
-            String openAPI = api.getSwaggerDefinition();
+            GetStageRequest getStageRequest = GetStageRequest.builder().restApiId(apiId).stageName(stage).build();
+            return toStage(apiGatewayClient.getStage(getStageRequest));
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
 
-            PutRestApiRequest reimportApiRequest = PutRestApiRequest.builder()
-                    .restApiId(awsApiId)
-                    .body(SdkBytes.fromUtf8String(openAPI))
-                    .failOnWarnings(false)
-                    .mode(PutMode.OVERWRITE)
-                    .build();
-            PutRestApiResponse reimportApiResponse = apiGatewayClient.putRestApi(reimportApiRequest);
-
-            awsApiId = reimportApiResponse.id();
-
-            //configure authorizers
-            GetAuthorizersRequest getAuthorizersRequest = GetAuthorizersRequest.builder().restApiId(awsApiId).build();
-            List<Authorizer> existingAuthorizers = apiGatewayClient.getAuthorizers(getAuthorizersRequest).items();
-
-            for (Authorizer authorizer : existingAuthorizers) {
-                String regex = "arn:aws:apigateway:[^:]+:lambda:path/2015-03-31/functions/([^/]+)/invocations";
-                Pattern compiledPattern = Pattern.compile(regex);
-                Matcher matcher = compiledPattern.matcher(authorizer.authorizerUri());
-                String credentials = authorizer.authorizerCredentials();
-                String arn = null;
-                if (matcher.find()) {
-                    arn = matcher.group(1);
+    /**
+     * Returns whether the given deployment is still the active deployment of the stage, i.e. the Rest API has not
+     * been redeployed or undeployed by another node since this node deployed it.
+     */
+    static boolean isActiveDeployment(Stage currentStage, String deploymentId) {
+        return currentStage != null && deploymentId != null && deploymentId.equals(currentStage.deploymentId());
+    }
+
+    static Stage toStage(GetStageResponse getStageResponse) {
+        return Stage.builder()
+                .stageName(getStageResponse.stageName())
+                .deploymentId(getStageResponse.deploymentId())
+                .variables(getStageResponse.variables())
+                .cacheClusterEnabled(getStageResponse.cacheClusterEnabled())
+                .cacheClusterSize(getStageResponse.cacheClusterSizeAsString())
+                .methodSettings(getStageResponse.hasMethodSettings()
+                        ? normalizeMethodSettings(getStageResponse.methodSettings()) : null)
+                .build();
+    }
+
+    /**
+     * Re-keys the method settings of a stage by the keys the settings are patched with, so that the settings read
+     * from the stage can be matched with the patches regardless of how the resource paths in their keys are escaped.
+     */
+    private static Map<String, MethodSetting> normalizeMethodSettings(Map<String, MethodSetting> methodSettings) {
+        Map<String, MethodSetting> normalizedSettings = new LinkedHashMap<>();
+        methodSettings.forEach((key, methodSetting) -> normalizedSettings.put(normalizeMethodSettingKey(key),
+                methodSetting));
+        return normalizedSettings;
+    }
+
+    /**
+     * Converts a method setting key read from a stage, e.g. /pets/GET or ~1pets/GET, to the form returned by
+     * {@link #getMethodSettingKey(String, String)}.
+     */
+    static String normalizeMethodSettingKey(String key) {
+        int separator = key.lastIndexOf('/');
+        if (separator < 0 || AWSConstants.ALL_METHODS_SETTING_KEY.equals(key)) {
+            return key;
+        }
+        String resourcePath = key.substring(0, separator).replace("~1", "/");
+        return getMethodSettingKey(resourcePath.startsWith("/") ? resourcePath : "/" + resourcePath,
+                key.substring(separator + 1));
+    }
+
+    /**
+     * Returns the stage variables the integrations of the API depend on, or null if the backend is embedded in the
+     * integrations.
+     */
+    static Map<String, String> getStageVariables(API api, boolean stageVariableEndpoint)
+            throws APIManagementException {
+        if (!stageVariableEndpoint) {
+            return null;
+        }
+        String backend = GatewayUtil.getBackendStageVariable(GatewayUtil.getEndpointURL(api));
+        return backend != null ? Map.of(AWSConstants.BACKEND_STAGE_VARIABLE, backend) : null;
+    }
+
+    static void patchStageVariables(DeploymentPlanCompiler planCompiler, Map<String, String> stageVariables) {
+        if (stageVariables == null) {
+            return;
+        }
+        for (Map.Entry<String, String> variable : stageVariables.entrySet()) {
+            planCompiler.patchStage(PatchOperation.builder()
+                    .op(Op.REPLACE)
+                    .path("/variables/" + variable.getKey())
+                    .value(variable.getValue())
+                    .build());
+        }
+    }
+
+    /**
+     * Configures the cache cluster of a stage that is not redeployed. Deployments configure the cache cluster of
+     * the stage themselves.
+     */
+    static void patchCacheCluster(DeploymentPlanCompiler planCompiler, API api, DeploymentSettings deploymentSettings) {
+        boolean cachingEnabled = GatewayUtil.isResponseCachingEnabled(api);
+        planCompiler.patchStage(PatchOperation.builder()
+                .op(Op.REPLACE)
+                .path("/cacheClusterEnabled")
+                .value(String.valueOf(cachingEnabled))
+                .build());
+        if (cachingEnabled) {
+            planCompiler.patchStage(PatchOperation.builder()
+                    .op(Op.REPLACE)
+                    .path("/cacheClusterSize")
+                    .value(deploymentSettings.getCacheClusterSize())
+                    .build());
+        }
+    }
+
+    /**
+     * Enables caching of the GET methods of the API with the cache timeout of the API as their TTL, if response
+     * caching is enabled for the API. API Gateway does not cache the responses of other methods. Caching the API no
+     * longer requires, e.g. because response caching was turned off, is disabled in the method settings of the
+     * current stage.
+     */
+    static void patchMethodCaching(DeploymentPlanCompiler planCompiler, API api, Stage currentStage) {
+        Set<String> cachedMethods = new HashSet<>();
+        if (GatewayUtil.isResponseCachingEnabled(api) && api.getUriTemplates() != null) {
+            for (URITemplate uriTemplate : api.getUriTemplates()) {
+                if (!"GET".equalsIgnoreCase(uriTemplate.getHTTPVerb())) {
+                    continue;
                 }
-                authorizers.put(arn + "|" + credentials, authorizer.id());
-                currentARNs.add(arn + "|" + credentials);
+                String methodSettingKey = getMethodSettingKey(uriTemplate.getUriTemplate(), "GET");
+                cachedMethods.add(methodSettingKey);
+                planCompiler.patchStage(PatchOperation.builder()
+                        .op(Op.REPLACE)
+                        .path("/" + methodSettingKey + "/caching/enabled")
+                        .value("true")
+                        .build());
+                planCompiler.patchStage(PatchOperation.builder()
+                        .op(Op.REPLACE)
+                        .path("/" + methodSettingKey + "/caching/ttlInSeconds")
+                        .value(String.valueOf(api.getCacheTimeout()))
+                        .build());
             }
+        }
+        if (currentStage == null || !currentStage.hasMethodSettings()) {
+            return;
+        }
+        for (Map.Entry<String, MethodSetting> entry : currentStage.methodSettings().entrySet()) {
+            if (!cachedMethods.contains(entry.getKey())
+                    && Boolean.TRUE.equals(entry.getValue().cachingEnabled())) {
+                planCompiler.patchStage(PatchOperation.builder()
+                        .op(Op.REPLACE)
+                        .path("/" + entry.getKey() + "/caching/enabled")
+                        .value("false")
+                        .build());
+            }
+        }
+    }
 
-            List<OperationPolicy> apiPolicies = api.getApiPolicies();
-            if (apiPolicies != null) {
-                for (OperationPolicy policy : apiPolicies) {
-                    if (policy.getPolicyName().equals(AWSConstants.AWS_OPERATION_POLICY_NAME)) {
-                        String lambdaArnAPI = policy.getParameters()
-                                .get(AWSConstants.OPERATION_POLICY_ARN_PARAMETER).toString();
-                        String invokeRoleArn = policy.getParameters()
-                                .get(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER).toString();
-
-                        String key = lambdaArnAPI + "|" + invokeRoleArn;
-                        pathToArnMapping.put(AWSConstants.OPERATION_POLICY_API, key);
-
-                        if (!authorizers.containsKey(key)) {
-                            String name = lambdaArnAPI.substring(lambdaArnAPI.lastIndexOf(':') + 1) + "-" +
-                                    invokeRoleArn.substring(invokeRoleArn.lastIndexOf('/') + 1);
-
-                            authorizers.put(key, GatewayUtil.getAuthorizer(awsApiId, name, lambdaArnAPI,
-                                    invokeRoleArn, region, apiGatewayClient).id());
-                        }
-                        break;
-                    }
-                }
+    /**
+     * Throttles the methods of the stage with the limit of the API level throttling policy, or with the limits of
+     * the resource level policies if the API has none. Throttling the API no longer requires is removed from the
+     * method settings of the current stage.
+     */
+    static void patchMethodThrottling(DeploymentPlanCompiler planCompiler, API api, Stage currentStage) {
+        GatewayUtil.warnUnenforcedThrottlingPolicies(api);
+        Map<String, ThrottlingLimit> limits = getMethodThrottlingLimits(api);
+        for (Map.Entry<String, ThrottlingLimit> entry : limits.entrySet()) {
+            patchThrottling(planCompiler, entry.getKey(), String.valueOf(entry.getValue().getRateLimit()),
+                    String.valueOf(entry.getValue().getBurstLimit()));
+        }
+        if (currentStage == null || !currentStage.hasMethodSettings()) {
+            return;
+        }
+        for (Map.Entry<String, MethodSetting> entry : currentStage.methodSettings().entrySet()) {
+            MethodSetting methodSetting = entry.getValue();
+            if (!limits.containsKey(entry.getKey()) && (isThrottled(methodSetting.throttlingRateLimit())
+                    || isThrottled(methodSetting.throttlingBurstLimit()))) {
+                patchThrottling(planCompiler, entry.getKey(), AWSConstants.THROTTLING_DISABLED,
+                        AWSConstants.THROTTLING_DISABLED);
             }
+        }
+    }
 
-            Set<URITemplate> uriTemplates = api.getUriTemplates();
-            if (uriTemplates != null) {
-                for (URITemplate resource : uriTemplates) {
-                    List<OperationPolicy> resourcePolicies = resource.getOperationPolicies();
-                    if (resourcePolicies != null) {
-                        for (OperationPolicy policy : resourcePolicies) {
-                            if (policy.getPolicyName().equals(AWSConstants.AWS_OPERATION_POLICY_NAME)) {
-                                String resourceLambdaARN = policy.getParameters()
-                                        .get(AWSConstants.OPERATION_POLICY_ARN_PARAMETER).toString();
-                                String invokeRoleArnResource = policy.getParameters()
-                                        .get(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER).toString();
-
-                                String key = resourceLambdaARN + "|" + invokeRoleArnResource;
-                                pathToArnMapping.put(resource.getUriTemplate().toLowerCase()
-                                        + "|" + resource.getHTTPVerb().toLowerCase(), key);
-                                if (!authorizers.containsKey(key)) {
-                                    String name = resourceLambdaARN
-                                            .substring(resourceLambdaARN.lastIndexOf(':') + 1) + "-" +
-                                            invokeRoleArnResource
-                                                    .substring(invokeRoleArnResource.lastIndexOf('/') + 1);
-                                    authorizers.put(key, GatewayUtil.getAuthorizer(awsApiId, name, resourceLambdaARN,
-                                            invokeRoleArnResource, region, apiGatewayClient).id());
-                                }
-                                break;
-                            }
-                        }
-                    }
-                }
+    /**
+     * Returns the rate limits of the methods of the API keyed by their method setting key. Policies whose rate
+     * limit cannot be resolved from their name are not enforced by the stage.
+     */
+    static Map<String, ThrottlingLimit> getMethodThrottlingLimits(API api) {
+        Map<String, ThrottlingLimit> limits = new TreeMap<>();
+        if (StringUtils.isNotEmpty(api.getApiLevelPolicy())) {
+            addRateLimit(limits, AWSConstants.ALL_METHODS_SETTING_KEY, api.getApiLevelPolicy());
+            return limits;
+        }
+        if (api.getUriTemplates() != null) {
+            for (URITemplate uriTemplate : api.getUriTemplates()) {
+                addRateLimit(limits, getMethodSettingKey(uriTemplate.getUriTemplate(), uriTemplate.getHTTPVerb()),
+                        uriTemplate.getThrottlingTier());
             }
+        }
+        return limits;
+    }
 
-            //remove unused authorizers
-            for (String arn : currentARNs) {
-                if (!authorizers.containsKey(arn)) {
-                    GatewayUtil.deleteAuthorizer(awsApiId, authorizers.get(arn), apiGatewayClient);
-                    authorizers.remove(arn);
-                }
+    private static void addRateLimit(Map<String, ThrottlingLimit> limits, String methodSettingKey, String policy) {
+        ThrottlingLimit limit = ThrottlingLimit.fromTierName(policy);
+        if (limit != null) {
+            limits.put(methodSettingKey, limit);
+        }
+    }
+
+    private static void patchThrottling(DeploymentPlanCompiler planCompiler, String methodSettingKey,
+                                        String rateLimit, String burstLimit) {
+        planCompiler.patchStage(PatchOperation.builder()
+                .op(Op.REPLACE)
+                .path("/" + methodSettingKey + "/throttling/rateLimit")
+                .value(rateLimit)
+                .build());
+        planCompiler.patchStage(PatchOperation.builder()
+                .op(Op.REPLACE)
+                .path("/" + methodSettingKey + "/throttling/burstLimit")
+                .value(burstLimit)
+                .build());
+    }
+
+    private static boolean isThrottled(Number limit) {
+        return limit != null && limit.doubleValue() >= 0;
+    }
+
+    /**
+     * Returns the key of the settings of a method of the stage, which addresses the method by its resource path
+     * with the slashes escaped.
+     */
+    static String getMethodSettingKey(String resourcePath, String httpMethod) {
+        return resourcePath.replace("/", "~1") + "/" + httpMethod.toUpperCase();
+    }
+
+    static CreateDeploymentRequest buildCreateDeploymentRequest(API api, String apiId, String stage,
+                                                                Map<String, String> stageVariables,
+                                                                DeploymentSettings deploymentSettings) {
+        boolean cachingEnabled = GatewayUtil.isResponseCachingEnabled(api);
+        return CreateDeploymentRequest.builder()
+                .restApiId(apiId)
+                .stageName(stage)
+                .variables(stageVariables)
+                .cacheClusterEnabled(cachingEnabled)
+                .cacheClusterSize(cachingEnabled ? deploymentSettings.getCacheClusterSize() : null)
+                .build();
+    }
+
+    /**
+     * Computes the canonical hash of everything a deployment of the API sends to AWS API Gateway, which is recorded
+     * as a tag of the Rest API once the deployment completes.
+     *
+     * @param api                API being deployed
+     * @param openAPI            Enriched OpenAPI definition
+     * @param stageVariables     Stage variables of the deployment
+     * @param deploymentSettings Deployment settings of the environment
+     * @return Deployment hash
+     */
+    static String getDeploymentHash(API api, String openAPI, Map<String, String> stageVariables,
+                                    DeploymentSettings deploymentSettings) {
+        JsonObject throttling = new JsonObject();
+        getMethodThrottlingLimits(api).forEach((methodSettingKey, limit) -> throttling.addProperty(methodSettingKey,
+                limit.getRateLimit() + "/" + limit.getBurstLimit()));
+        JsonObject variables = new JsonObject();
+        if (stageVariables != null) {
+            stageVariables.forEach(variables::addProperty);
+        }
+        JsonObject caching = new JsonObject();
+        if (GatewayUtil.isResponseCachingEnabled(api)) {
+            caching.addProperty("clusterSize", deploymentSettings.getCacheClusterSize());
+            caching.addProperty("ttlInSeconds", api.getCacheTimeout());
+        }
+        return GatewayUtil.fingerprint(JsonParser.parseString(openAPI), variables, caching, throttling);
+    }
+
+    static String getRestApiArn(String region, String apiId) {
+        return String.format(AWSConstants.REST_API_ARN_TEMPLATE, GatewayUtil.getPartition(region), region, apiId);
+    }
+
+    static String getDeploymentHashTag(String stage) {
+        return AWSConstants.DEPLOYMENT_HASH_TAG_PREFIX + stage;
+    }
+
+    /**
+     * Returns the hash of the deployment that was last completed to the given stage, or null if it is unknown or
+     * the stage no longer exists.
+     */
+    private static String getDeployedHash(ApiGatewayClient apiGatewayClient, String region, String apiId,
+                                          String stage) {
+        try {
+            GetTagsResponse getTagsResponse = apiGatewayClient.getTags(GetTagsRequest.builder()
+                    .resourceArn(getRestApiArn(region, apiId)).build());
+            String deployedHash = getTagsResponse.hasTags()
+                    ? getTagsResponse.tags().get(getDeploymentHashTag(stage)) : null;
+            // a tag left behind by a stage deleted outside of this deployer must not skip recreating the stage
+            if (deployedHash == null || getCurrentStage(apiGatewayClient, apiId, stage) == null) {
+                return null;
             }
+            return deployedHash;
+        } catch (SdkException e) {
+            // the deployment is applied in full instead of being skipped
+            log.warn("Error while reading the deployment hash of AWS API " + apiId, e);
+            return null;
+        }
+    }
 
-            //add integrations for each resource
-            GetResourcesRequest getResourcesRequest = GetResourcesRequest.builder()
-                    .restApiId(awsApiId)
-                    .build();
-            GetResourcesResponse getResourcesResponse = apiGatewayClient.getResources(getResourcesRequest);
-
-            String endpointConfig = api.getEndpointConfig();
-            JSONParser parser = new JSONParser();
-            JSONObject endpointConfigJson = (JSONObject) parser.parse(endpointConfig);
-            JSONObject prodEndpoints = (JSONObject) endpointConfigJson.get("production_endpoints");
-            String productionEndpoint = (String) prodEndpoints.get("url");
-
-            productionEndpoint = productionEndpoint.charAt(productionEndpoint.length() - 1) == '/' ?
-                    productionEndpoint.substring(0, productionEndpoint.length() - 1) : productionEndpoint;
-
-            List<Resource> resources = getResourcesResponse.items();
-            for (Resource resource : resources) {
-                Map<String, Method> resourceMethods = resource.resourceMethods();
-                if (!resourceMethods.isEmpty()) {
-                    //check and configure CORS
-                    GatewayUtil.configureOptionsCallForCORS(awsApiId, resource, apiGatewayClient);
-
-                    for (Map.Entry entry : resourceMethods.entrySet()) {
-                        GetMethodRequest getMethodRequest = GetMethodRequest.builder()
-                                .restApiId(awsApiId)
-                                .resourceId(resource.id())
-                                .httpMethod(entry.getKey().toString())
-                                .build();
-                        GetMethodResponse getMethodResponse = apiGatewayClient.getMethod(getMethodRequest);
-                        Map<String, Boolean> requestParamsFromMethod = getMethodResponse.requestParameters();
-
-                        Map<String, String> requestParametersToBeAddedInIntegration = new HashMap<>();
-
-                        //check for request params and add required mapping in integration
-                        for (Map.Entry<String, Boolean> paramEntry : requestParamsFromMethod.entrySet()) {
-                            String key = paramEntry.getKey();
-                            String paramName = key.substring(key.lastIndexOf(".") + 1);
-
-                            String prefix = "method.request.";
-                            int startIndex = key.indexOf(prefix) + prefix.length();
-                            int endIndex = key.indexOf('.', startIndex);
-                            String location = key.substring(startIndex, endIndex != -1 ? endIndex : key.length());
-
-                            requestParametersToBeAddedInIntegration.put(
-                                    "integration.request." + location + "." + paramName,
-                                    "method.request." + location + "." + paramName);
-                        }
-
-                        PutIntegrationRequest putIntegrationRequest = PutIntegrationRequest.builder()
-                                .httpMethod(entry.getKey().toString())
-                                .integrationHttpMethod(entry.getKey().toString())
-                                .resourceId(resource.id())
-                                .restApiId(awsApiId)
-                                .requestParameters(requestParametersToBeAddedInIntegration)
-                                .type(IntegrationType.HTTP)
-                                .uri(productionEndpoint + resource.path())
-                                .build();
-                        apiGatewayClient.putIntegration(putIntegrationRequest);
-
-                        //Configure default output mapping
-                        PutIntegrationResponseRequest putIntegrationResponseRequest =
-                                PutIntegrationResponseRequest.builder()
-                                        .httpMethod(entry.getKey().toString())
-                                        .resourceId(resource.id())
-                                        .restApiId(awsApiId)
-                                        .statusCode("200")
-                                        .responseTemplates(Map.of(JSON_PAYLOAD_TYPE, ""))
-                                        .build();
-                        apiGatewayClient.putIntegrationResponse(putIntegrationResponseRequest);
-
-                        String key = resource.path().toLowerCase() + "|" + entry.getKey().toString().toLowerCase();
-                        boolean isAuthorizerFound = false;
-                        if (authorizers.containsKey(pathToArnMapping.get(key))) {
-                            isAuthorizerFound = true;
-                        } else {
-                            key = "API";
-                            if (authorizers.containsKey(pathToArnMapping.get(key))) {
-                                isAuthorizerFound = true;
-                            } else {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Authorizer not found for the resource: " + resource.path() + " at API " +
-                                            "or Resource levels");
-                                }
-                            }
-                        }
-
-                        if (isAuthorizerFound) {
-                            String authorizerId = authorizers.get(pathToArnMapping.get(key));
-
-                            UpdateMethodRequest updateMethodRequest = UpdateMethodRequest.builder().restApiId(awsApiId)
-                                    .resourceId(resource.id()).httpMethod(entry.getKey().toString())
-                                    .patchOperations(PatchOperation.builder().op(Op.REPLACE).path("/authorizationType")
-                                                    .value("CUSTOM").build(),
-                                            PatchOperation.builder().op(Op.REPLACE).path("/authorizerId")
-                                                    .value(authorizerId).build()).build();
-                            apiGatewayClient.updateMethod(updateMethodRequest);
-                        }
-
-                        //configure CORS Headers at request Method level
-                        GatewayUtil.configureCORSHeadersAtMethodLevel(awsApiId, resource, entry.getKey().toString(),
-                                apiGatewayClient);
-                    }
-                }
+    private static void tagDeploymentHash(ApiGatewayClient apiGatewayClient, String region, String apiId,
+                                          String stage, String deploymentHash) {
+        try {
+            apiGatewayClient.tagResource(TagResourceRequest.builder().resourceArn(getRestApiArn(region, apiId))
+                    .tags(Map.of(getDeploymentHashTag(stage), deploymentHash)).build());
+        } catch (SdkException e) {
+            // the next deployment of the API is applied in full instead of being skipped
+            log.warn("Error while tagging AWS API " + apiId + " with its deployment hash", e);
+        }
+    }
+
+    private static void untagDeploymentHash(ApiGatewayClient apiGatewayClient, String region, String apiId,
+                                            String stage) {
+        try {
+            apiGatewayClient.untagResource(UntagResourceRequest.builder().resourceArn(getRestApiArn(region, apiId))
+                    .tagKeys(getDeploymentHashTag(stage)).build());
+        } catch (SdkException e) {
+            log.warn("Error while removing the deployment hash tag of AWS API " + apiId, e);
+        }
+    }
+
+    /**
+     * Loads all resources of a Rest API along with their methods, paging through GetResources with the methods
+     * embedded so that no per-method GetMethod call is required.
+     *
+     * @param client APIGatewayClient object
+     * @param apiId  ID of the Rest API
+     * @return Snapshot of the resources and methods of the Rest API
+     */
+    public static ResourceSnapshot loadResourceSnapshot(ApiGatewayClient client, String apiId) {
+        ResourceSnapshot snapshot = new ResourceSnapshot(apiId);
+        String position = null;
+        do {
+            GetResourcesResponse getResourcesResponse = client.getResources(buildGetResourcesRequest(apiId, position));
+            for (Resource resource : getResourcesResponse.items()) {
+                snapshot.addResource(resource);
             }
+            position = getResourcesResponse.position();
+        } while (position != null);
+        return snapshot;
+    }
 
-            // re-deploy API
-            CreateDeploymentRequest createDeploymentRequest = CreateDeploymentRequest.builder().restApiId(awsApiId)
-                    .stageName(stage).build();
-            CreateDeploymentResponse createDeploymentResponse =
-                    apiGatewayClient.createDeployment(createDeploymentRequest);
-            String deploymentId = createDeploymentResponse.id();
-
-            GetDeploymentsRequest getDeploymentsRequest = GetDeploymentsRequest.builder().restApiId(awsApiId).build();
-            GetDeploymentsResponse getDeploymentsResponse = apiGatewayClient.getDeployments(getDeploymentsRequest);
-            List<Deployment> deployments = getDeploymentsResponse.items();
-            for (Deployment deployment : deployments) {
-                if (!deployment.id().equals(deploymentId)) {
-                    DeleteDeploymentRequest deleteDeploymentRequest = DeleteDeploymentRequest.builder()
-                            .deploymentId(deployment.id())
-                            .restApiId(awsApiId)
-                            .build();
-                    apiGatewayClient.deleteDeployment(deleteDeploymentRequest);
-                }
+    static GetResourcesRequest buildGetResourcesRequest(String apiId, String position) {
+        return GetResourcesRequest.builder()
+                .restApiId(apiId)
+                .embed(RESOURCE_EMBED_METHODS)
+                .limit(MAX_PAGE_SIZE)
+                .position(position)
+                .build();
+    }
+
+    /**
+     * Creates the plan compiler of the configuration applied to an imported Rest API on top of its OpenAPI
+     * definition. Only the resources of the given paths are considered, or all of them if the paths are null.
+     *
+     * @param api                   API being deployed
+     * @param snapshot              Resources of the Rest API as imported
+     * @param paths                 Paths of the resources touched by the import
+     * @param stage                 Stage the API is deployed to
+     * @param currentStage          Current state of the stage, or null if it is unknown
+     * @param stageVariableEndpoint Whether the integrations resolve the backend from the backend stage variable
+     * @param deploymentSettings    Deployment settings of the environment
+     * @return Plan compiler
+     * @throws APIManagementException If the endpoint configuration of the API cannot be read
+     */
+    static DeploymentPlanCompiler createPlanCompiler(API api, ResourceSnapshot snapshot, Set<String> paths,
+                                                     String stage, Stage currentStage, boolean stageVariableEndpoint,
+                                                     DeploymentSettings deploymentSettings)
+            throws APIManagementException {
+        String productionEndpoint = GatewayUtil.getIntegrationEndpoint(GatewayUtil.getEndpointURL(api),
+                stageVariableEndpoint);
+        DeploymentPlanCompiler planCompiler = new DeploymentPlanCompiler(snapshot, stage, currentStage)
+                .repairIntegrations(productionEndpoint, deploymentSettings.isHttpProxyIntegration(), paths);
+        patchMethodCaching(planCompiler, api, currentStage);
+        patchMethodThrottling(planCompiler, api, currentStage);
+        return planCompiler;
+    }
+
+    private static void executePlan(DeploymentPlan plan, ApiGatewayClient apiGatewayClient,
+                                    DeploymentTaskExecutor taskExecutor, String apiId)
+            throws APIManagementException {
+        if (plan.isEmpty()) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Executing deployment plan of AWS API " + apiId + ":\n" + plan.describe());
+        }
+        plan.execute(apiGatewayClient, taskExecutor);
+    }
+
+    static void logImportWarnings(String apiId, List<String> warnings) {
+        if (warnings != null) {
+            for (String warning : warnings) {
+                log.warn("Warning while importing the OpenAPI definition of AWS API " + apiId + ": " + warning);
             }
+        }
+    }
 
-            GetRestApiRequest getRestApiRequest = GetRestApiRequest.builder().restApiId(awsApiId).build();
-            return apiGatewayClient.getRestApi(getRestApiRequest).toString();
-        } catch (Exception e) {
-            throw new APIManagementException("Error occurred while re-importing API: " + e.getMessage());
+    /**
+     * Builds the update that sets the minimum compression size of the Rest API to the desired one. Imports only
+     * apply the compression extension of the definition when it is present, so compression that was disabled since
+     * the last deployment has to be cleared explicitly.
+     *
+     * @param apiId   ID of the Rest API
+     * @param current Current minimum compression size, or null if compression is disabled
+     * @param desired Desired minimum compression size, or null to disable compression
+     * @return Update request, or null if the Rest API already has the desired setting
+     */
+    static UpdateRestApiRequest buildCompressionUpdate(String apiId, Integer current, Integer desired) {
+        if (Objects.equals(current, desired)) {
+            return null;
+        }
+        return UpdateRestApiRequest.builder()
+                .restApiId(apiId)
+                .patchOperations(PatchOperation.builder()
+                        .op(Op.REPLACE)
+                        .path("/minimumCompressionSize")
+                        .value(desired != null ? String.valueOf(desired) : "")
+                        .build())
+                .build();
+    }
+
+    private static void reconcileCompression(ApiGatewayClient apiGatewayClient, String apiId, Integer current,
+                                             Integer desired) {
+        UpdateRestApiRequest updateRequest = buildCompressionUpdate(apiId, current, desired);
+        if (updateRequest != null) {
+            apiGatewayClient.updateRestApi(updateRequest);
         }
     }
 
-    public static void deleteDeployment(String referenceArtifact, ApiGatewayClient apiGatewayClient, String stage)
+    /**
+     * Deletes the stage of the Rest API along with its deployment hash tag. Deleting the deployments the stage
+     * pointed at is left to the given pruner.
+     *
+     * @param referenceArtifact Reference artifact of the deployed Rest API
+     * @param apiGatewayClient  APIGatewayClient object
+     * @param region            AWS region
+     * @param stage             Stage to be deleted
+     * @param deploymentPruner  Pruner that deletes the unused deployments in the background
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static void deleteDeployment(String referenceArtifact, ApiGatewayClient apiGatewayClient, String region,
+                                        String stage, DeploymentPruner deploymentPruner)
             throws APIManagementException {
         String awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
-        GetStagesRequest getStagesRequest = GetStagesRequest.builder().restApiId(awsApiId).build();
-        GetStagesResponse getStagesResponse = apiGatewayClient.getStages(getStagesRequest);
-        if (getStagesResponse.item() != null && !getStagesResponse.item().isEmpty()) {
-            // Delete the stage before deleting the deployment
-            DeleteStageRequest deleteStageRequest = DeleteStageRequest.builder()
+        IncrementalReimportPlan.invalidate(awsApiId, stage);
+        // the tag is removed first, so that a failed deletion cannot leave the stage looking up to date. It is not
+        // left to the background, where it could remove the tag of a deployment of the stage that follows
+        untagDeploymentHash(apiGatewayClient, region, awsApiId, stage);
+        try {
+            apiGatewayClient.deleteStage(DeleteStageRequest.builder()
                     .restApiId(awsApiId)
                     .stageName(stage)
-                    .build();
-            apiGatewayClient.deleteStage(deleteStageRequest);
-
-            GetDeploymentsRequest getDeploymentsRequest = GetDeploymentsRequest.builder().restApiId(awsApiId).build();
-            GetDeploymentsResponse getDeploymentsResponse = apiGatewayClient.getDeployments(getDeploymentsRequest);
-            List<Deployment> deployments = getDeploymentsResponse.items();
-            for (Deployment deployment : deployments) {
-                DeleteDeploymentRequest deleteDeploymentRequest = DeleteDeploymentRequest.builder()
-                        .deploymentId(deployment.id())
-                        .restApiId(awsApiId)
-                        .build();
-                apiGatewayClient.deleteDeployment(deleteDeploymentRequest);
+                    .build());
+        } catch (NotFoundException e) {
+            // already undeployed, e.g. by another node
+            if (log.isDebugEnabled()) {
+                log.debug("Stage " + stage + " of AWS API " + awsApiId + " does not exist");
             }
         }
+        deploymentPruner.schedule(awsApiId);
     }
 
     /**
-     * This method is used to get Rest APIs from AWS API Gateway.
+     * This method is used to get all Rest APIs from AWS API Gateway, following the pagination of GetRestApis.
      *
      * @param client APIGatewayClient object
      * @return List of RestApi objects
      */
     public static List<RestApi> getRestApis(ApiGatewayClient client) {
 
-        GetRestApisRequest restApisRequest = GetRestApisRequest.builder().build();
-        GetRestApisResponse restApisResponse = client.getRestApis(restApisRequest);
-        return restApisResponse.items();
+        List<RestApi> restApis = new ArrayList<>();
+        String position = null;
+        do {
+            GetRestApisRequest restApisRequest = GetRestApisRequest.builder()
+                    .limit(MAX_PAGE_SIZE)
+                    .position(position)
+                    .build();
+            GetRestApisResponse restApisResponse = client.getRestApis(restApisRequest);
+            restApis.addAll(restApisResponse.items());
+            position = restApisResponse.position();
+        } while (position != null);
+        return restApis;
     }
 
 
     /**
-     * This method is used to get the API definition from AWS API Gateway.
+     * This method is used to get the API definition from AWS API Gateway. The definition is exported with the
+     * integration extensions so that the backend of the API can be read from it without further calls.
      *
      * @param client APIGatewayClient object
      * @param apiId  ID of the Rest API
@@ -565,6 +950,7 @@ public class AWSAPIUtil {
                 .stageName(stage) // Assuming a default stage or make it configurable
                 .exportType(OPEN_API_VERSION) // Or "oas30" for OpenAPI 3.0
                 .accepts(JSON_PAYLOAD_TYPE)
+                .parameters(Map.of(EXPORT_EXTENSIONS_PARAMETER, EXPORT_INTEGRATIONS_EXTENSION))
                 .build();
         GetExportResponse getExportResponse = client.getExport(getExportRequest);
         return getExportResponse.body().asUtf8String();
@@ -578,12 +964,24 @@ public class AWSAPIUtil {
      * @return Stage name or null if no stages are found
      */
     public static String getStageNames(ApiGatewayClient client, String apiId) {
+        Stage stage = getStage(client, apiId);
+        return stage != null ? stage.stageName() : null;
+    }
+
+    /**
+     * This method retrieves the first stage of a given API ID along with its stage variables.
+     *
+     * @param client APIGatewayClient object
+     * @param apiId  ID of the Rest API
+     * @return Stage or null if no stages are found
+     */
+    public static Stage getStage(ApiGatewayClient client, String apiId) {
         GetStagesRequest request = GetStagesRequest.builder().restApiId(apiId).build();
         GetStagesResponse result = client.getStages(request);
         if (result.item().isEmpty()) {
             return null;
         }
-        return result.item().get(0).stageName();
+        return result.item().get(0);
     }
 
     /**
@@ -615,19 +1013,25 @@ public class AWSAPIUtil {
         api.setGatewayVendor("external");
         api.setEnableSubscriberVerification(false);
         api.setGatewayType(environment.getGatewayType());
+        if (restApi.minimumCompressionSize() != null) {
+            api.addProperty(AWSConstants.API_PROPERTY_MINIMUM_COMPRESSION_SIZE,
+                    String.valueOf(restApi.minimumCompressionSize()));
+        }
         return api;
     }
 
     /**
-     * Sets the endpoint configuration for the API based on the provided RestApi.
+     * Sets the endpoint configuration for the API based on the backend derived from its exported definition.
      *
-     * @param api     The API object to set the endpoint configuration for.
-     * @param restApi The RestApi object containing endpoint information.
-     * @param client  The ApiGatewayClient to interact with AWS API Gateway.
+     * @param api          The API object to set the endpoint configuration for.
+     * @param restApi      The RestApi object the API was discovered from.
+     * @param endpointUrls Backend endpoint of the API.
      */
-    public static void setEndpointConfig(API api, RestApi restApi, ApiGatewayClient client) {
-        String restApiId = restApi.id();
-        String endpointUrls = getEndpointUrls(restApiId, client);
+    public static void setEndpointConfig(API api, RestApi restApi, String endpointUrls) {
+        setEndpointConfig(api, restApi.name(), endpointUrls);
+    }
+
+    static void setEndpointConfig(API api, String apiName, String endpointUrls) {
         if (endpointUrls != null) {
             JsonObject endpointConfig = new JsonObject();
             endpointConfig.addProperty("endpoint_type", "http");
@@ -641,52 +1045,44 @@ public class AWSAPIUtil {
             endpointConfig.add(SANDBOX_ENDPOINTS, sand);
             api.setEndpointConfig(endpointConfig.toString());
         } else {
-            log.warn("No endpoint URLs found for API: " + restApi.name());
-        }
-    }
-
-    private static String getEndpointUrls(String restApiId, ApiGatewayClient client) {
-        GetResourcesResponse resources = client.getResources(GetResourcesRequest.builder()
-                .restApiId(restApiId)
-                .build());
-
-        if (resources.hasItems() && resources.items().get(0).resourceMethods() != null
-                && !resources.items().get(0).resourceMethods().isEmpty()) {
-            String httpMethod = resources.items().get(0).resourceMethods()
-                    .keySet()
-                    .iterator()
-                    .next()
-                    .toString();
-            GetIntegrationRequest request = GetIntegrationRequest.builder()
-                    .restApiId(restApiId)
-                    .resourceId(resources.items().get(0).id())
-                    .httpMethod(httpMethod)
-                    .build();
-
-            GetIntegrationResponse response = client.getIntegration(request);
-            return response.uri();
-        } else {
-            return null;
+            log.warn("No endpoint URLs found for API: " + apiName);
         }
     }
 
     /**
-     * Creates a reference artifact by combining a given RestApi object and its Swagger definition in JSON format.
+     * Creates a compact, versioned reference artifact of a discovered API. Instead of the definition itself, it
+     * holds the identifying fields of the RestApi and a fingerprint of the definition and the fields that the
+     * discovered API is built from, so that changes can be detected by comparing fingerprints.
      *
-     * @param restApi               The RestApi object containing API details.
-     * @param swaggerDefinitionJson The Swagger/OpenAPI definition of the API in JSON format.
-     * @return A JSON string that represents the combined reference artifact.
+     * @param restApi            The RestApi object containing API details.
+     * @param stage              The stage the definition was exported from.
+     * @param exportedDefinition The definition exported from the stage.
+     * @param endpoint           The backend endpoint derived from the definition, or null if there is none.
+     * @return A JSON string that represents the reference artifact.
      */
-    public static String createReferenceArtifact(RestApi restApi, String swaggerDefinitionJson) {
-        Gson G = new Gson();
-        JsonArray arr = new JsonArray();
-        arr.add(G.toJsonTree(restApi));
-        arr.add(JsonParser.parseString(swaggerDefinitionJson));
-        return G.toJson(arr);
+    public static String createReferenceArtifact(RestApi restApi, String stage,
+                                                 ExportedDefinition exportedDefinition, String endpoint) {
+        JsonObject referenceArtifact = new JsonObject();
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_VERSION_FIELD, REFERENCE_ARTIFACT_VERSION);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_ID_FIELD, restApi.id());
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_NAME_FIELD, restApi.name());
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_API_VERSION_FIELD, restApi.version());
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_STAGE_FIELD, stage);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_FINGERPRINT_FIELD, GatewayUtil.fingerprint(
+                new JsonPrimitive(exportedDefinition.getFingerprint()), toJson(restApi.name()),
+                toJson(restApi.description()), toJson(restApi.version()), toJson(endpoint),
+                restApi.minimumCompressionSize() != null ? new JsonPrimitive(restApi.minimumCompressionSize())
+                        : JsonNull.INSTANCE));
+        return referenceArtifact.toString();
+    }
+
+    private static JsonElement toJson(String value) {
+        return value != null ? new JsonPrimitive(value) : JsonNull.INSTANCE;
     }
 
     /**
-     * Deletes a Rest API from AWS API Gateway using its external reference (API ID).
+     * Deletes a Rest API from AWS API Gateway using its external reference (API ID). The deletion cascades to its
+     * stages, deployments and tags, so no other call is required.
      *
      * @param externalReference The external reference (API ID) of the Rest API to be deleted.
      * @param apiGatewayClient  The ApiGatewayClient instance used to interact with AWS API Gateway.
@@ -694,10 +1090,14 @@ public class AWSAPIUtil {
     public static void deleteAPI(String externalReference, ApiGatewayClient apiGatewayClient)
             throws APIManagementException {
         String referenceArtifact = GatewayUtil.getAWSApiIdFromReferenceArtifact(externalReference);
-        GetRestApiRequest getRestApiRequest = GetRestApiRequest.builder().restApiId(referenceArtifact).build();
-        GetRestApiResponse restApi = apiGatewayClient.getRestApi(getRestApiRequest);
-        if (restApi != null) {
+        IncrementalReimportPlan.invalidate(referenceArtifact);
+        try {
             apiGatewayClient.deleteRestApi(DeleteRestApiRequest.builder().restApiId(referenceArtifact).build());
+        } catch (NotFoundException e) {
+            // already deleted, e.g. by another node
+            if (log.isDebugEnabled()) {
+                log.debug("AWS API " + referenceArtifact + " does not exist");
+            }
         }
     }
 }
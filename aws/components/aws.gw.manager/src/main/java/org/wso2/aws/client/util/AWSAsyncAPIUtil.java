@@ -0,0 +1,620 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.model.DeploymentCheckpoint;
+import org.wso2.aws.client.model.DeploymentSettings;
+import org.wso2.aws.client.model.ResourceSnapshot;
+import org.wso2.aws.client.plan.DeploymentPlan;
+import org.wso2.aws.client.plan.DeploymentPlanCompiler;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.apigateway.ApiGatewayAsyncClient;
+import software.amazon.awssdk.services.apigateway.model.DeleteRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.DeleteStageRequest;
+import software.amazon.awssdk.services.apigateway.model.Deployment;
+import software.amazon.awssdk.services.apigateway.model.GetRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.GetStageRequest;
+import software.amazon.awssdk.services.apigateway.model.GetTagsRequest;
+import software.amazon.awssdk.services.apigateway.model.ImportRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.NotFoundException;
+import software.amazon.awssdk.services.apigateway.model.PutMode;
+import software.amazon.awssdk.services.apigateway.model.PutRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.Resource;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+import software.amazon.awssdk.services.apigateway.model.TagResourceRequest;
+import software.amazon.awssdk.services.apigateway.model.UntagResourceRequest;
+import software.amazon.awssdk.services.apigateway.model.UpdateRestApiRequest;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link AWSAPIUtil} built on {@link ApiGatewayAsyncClient}. Each operation is composed
+ * of {@link CompletableFuture} stages (import, resource fan-out, deployment), so no thread is held while waiting for
+ * AWS API Gateway. Calls and their retries are paced through the shared {@link AdaptiveRateLimiter} by delaying
+ * their submission.
+ */
+public class AWSAsyncAPIUtil {
+
+    private static final Log log = LogFactory.getLog(AWSAsyncAPIUtil.class);
+    private static final int MAX_RETRIES = 3;
+
+    private final ApiGatewayAsyncClient client;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final boolean stageVariableEndpoint;
+    private final DeploymentSettings deploymentSettings;
+    private final DeploymentCheckpointStore checkpoints;
+    private final DeploymentPruner deploymentPruner;
+
+    public AWSAsyncAPIUtil(ApiGatewayAsyncClient client, AdaptiveRateLimiter rateLimiter,
+                           boolean stageVariableEndpoint, DeploymentSettings deploymentSettings,
+                           DeploymentCheckpointStore checkpoints, DeploymentPruner deploymentPruner) {
+        this.client = client;
+        this.rateLimiter = rateLimiter;
+        this.stageVariableEndpoint = stageVariableEndpoint;
+        this.deploymentSettings = deploymentSettings;
+        this.checkpoints = checkpoints;
+        this.deploymentPruner = deploymentPruner;
+    }
+
+    /**
+     * Imports the API as a new Rest API and deploys it to the given stage. If a previous attempt failed, the
+     * deployment resumes against the Rest API created by it.
+     *
+     * @return Future completed with the reference artifact of the deployed Rest API
+     */
+    public CompletableFuture<String> importRestAPI(API api, String region, String stage) {
+        String openAPI;
+        Map<String, String> stageVariables;
+        try {
+            openAPI = new OpenAPIEnricher(api, region, stageVariableEndpoint, deploymentSettings).enrich();
+            stageVariables = AWSAPIUtil.getStageVariables(api, stageVariableEndpoint);
+        } catch (APIManagementException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String fingerprint = DigestUtils.sha256Hex(openAPI);
+        String checkpointKey = checkpoints.getKey(api, stage);
+        DeploymentCheckpoint previousCheckpoint = checkpoints.get(checkpointKey);
+
+        CompletableFuture<DeploymentCheckpoint> imported;
+        if (previousCheckpoint == null) {
+            ImportRestApiRequest importApiRequest = ImportRestApiRequest.builder()
+                    .body(SdkBytes.fromUtf8String(openAPI))
+                    .failOnWarnings(false)
+                    .build();
+            imported = paced(() -> client.importRestApi(importApiRequest)).thenCompose(importApiResponse -> {
+                AWSAPIUtil.logImportWarnings(importApiResponse.id(), importApiResponse.warnings());
+                return reconcileCompression(api, importApiResponse.id(), importApiResponse.minimumCompressionSize())
+                        .<CompletableFuture<DeploymentCheckpoint>>handle((reconciled, throwable) -> {
+                            if (throwable != null) {
+                                // nothing to resume from, so clean up the Rest API that was imported
+                                return rollbackImport(importApiResponse.id(), throwable);
+                            }
+                            DeploymentCheckpoint checkpoint = new DeploymentCheckpoint(importApiResponse.id(),
+                                    fingerprint, true);
+                            checkpoints.save(checkpointKey, checkpoint);
+                            return CompletableFuture.completedFuture(checkpoint);
+                        }).thenCompose(future -> future);
+            });
+        } else {
+            log.info("Resuming deployment of API " + api.getId() + " to AWS API "
+                    + previousCheckpoint.getRestApiId() + " after phase " + previousCheckpoint.getPhase());
+            imported = resumeImport(api, previousCheckpoint, checkpointKey, openAPI, fingerprint);
+        }
+
+        return imported.<String>thenCompose(checkpoint -> {
+            String apiId = checkpoint.getRestApiId();
+            return configureAndDeploy(apiId, api, stage, null, stageVariables, null, checkpointKey, checkpoint)
+                    .thenCompose(deploymentId -> {
+                        IncrementalReimportPlan.markImported(apiId, stage, openAPI, deploymentId);
+                        checkpoints.remove(checkpointKey);
+                        return tagDeploymentHash(region, apiId, stage,
+                                AWSAPIUtil.getDeploymentHash(api, openAPI, stageVariables, deploymentSettings))
+                                .thenCompose(tagged -> getReferenceArtifact(apiId));
+                    })
+                    .handle((referenceArtifact, throwable) -> throwable == null
+                            ? CompletableFuture.completedFuture(referenceArtifact)
+                            : recover(checkpointKey, checkpoint, throwable))
+                    .thenCompose(future -> future);
+        }).exceptionally(throwable -> {
+            Throwable cause = unwrap(throwable);
+            throw new CompletionException(new APIManagementException("Error occurred while importing API: "
+                    + cause.getMessage(), cause));
+        });
+    }
+
+    private CompletableFuture<DeploymentCheckpoint> resumeImport(API api, DeploymentCheckpoint checkpoint,
+                                                                 String checkpointKey, String openAPI,
+                                                                 String fingerprint) {
+        if (fingerprint.equals(checkpoint.getDefinitionFingerprint())) {
+            return CompletableFuture.completedFuture(checkpoint);
+        }
+        PutRestApiRequest reimportApiRequest = PutRestApiRequest.builder()
+                .restApiId(checkpoint.getRestApiId())
+                .body(SdkBytes.fromUtf8String(openAPI))
+                .failOnWarnings(false)
+                .mode(PutMode.OVERWRITE)
+                .build();
+        return paced(() -> client.putRestApi(reimportApiRequest)).thenCompose(reimportApiResponse -> {
+            AWSAPIUtil.logImportWarnings(reimportApiResponse.id(), reimportApiResponse.warnings());
+            return reconcileCompression(api, reimportApiResponse.id(), reimportApiResponse.minimumCompressionSize());
+        }).thenApply(reconciled -> {
+            checkpoint.reimported(fingerprint);
+            checkpoints.save(checkpointKey, checkpoint);
+            return checkpoint;
+        });
+    }
+
+    /**
+     * Sets the minimum compression size of the Rest API to the one resolved for the API, if it differs from the
+     * current one.
+     */
+    private CompletableFuture<Void> reconcileCompression(API api, String apiId, Integer current) {
+        UpdateRestApiRequest updateRequest;
+        try {
+            updateRequest = AWSAPIUtil.buildCompressionUpdate(apiId, current,
+                    GatewayUtil.getMinimumCompressionSize(api, deploymentSettings.getMinimumCompressionSize()));
+        } catch (APIManagementException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (updateRequest == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return paced(() -> client.updateRestApi(updateRequest)).thenAccept(updateResponse -> { });
+    }
+
+    /**
+     * Re-imports the API definition over the existing Rest API, re-deploys it to the given stage and removes the
+     * previous deployments.
+     *
+     * @return Future completed with the reference artifact of the deployed Rest API
+     */
+    public CompletableFuture<String> reimportRestAPI(String referenceArtifact, API api, String region,
+                                                     String stage) {
+        String awsApiId;
+        String openAPI;
+        Map<String, String> stageVariables;
+        try {
+            awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+            openAPI = new OpenAPIEnricher(api, region, stageVariableEndpoint, deploymentSettings).enrich();
+            stageVariables = AWSAPIUtil.getStageVariables(api, stageVariableEndpoint);
+        } catch (APIManagementException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        String fingerprint = DigestUtils.sha256Hex(openAPI);
+        String deploymentHash = AWSAPIUtil.getDeploymentHash(api, openAPI, stageVariables, deploymentSettings);
+        String checkpointKey = checkpoints.getKey(api, stage);
+        DeploymentCheckpoint checkpoint = checkpoints.get(checkpointKey);
+        CompletableFuture<String> deployment;
+        if (checkpoint != null && checkpoint.getRestApiId().equals(awsApiId)
+                && fingerprint.equals(checkpoint.getDefinitionFingerprint())) {
+            // the same definition was already put by the failed attempt, so resume after it
+            log.info("Resuming re-import of API " + api.getId() + " to AWS API " + awsApiId + " after phase "
+                    + checkpoint.getPhase());
+            deployment = tagged(reimport(awsApiId, api, IncrementalReimportPlan.overwrite(awsApiId, stage, openAPI),
+                    stage, null, stageVariables, fingerprint, checkpointKey, checkpoint), region, awsApiId, stage,
+                    deploymentHash);
+        } else {
+            if (checkpoint != null) {
+                checkpoints.remove(checkpointKey);
+            }
+            deployment = getDeployedHash(region, awsApiId, stage).thenCompose(deployedHash -> {
+                if (deploymentHash.equals(deployedHash)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Deployment of AWS API " + awsApiId + " to stage " + stage
+                                + " is up to date. Skipping the deployment");
+                    }
+                    return CompletableFuture.completedFuture(referenceArtifact);
+                }
+                return tagged(reimportChanged(awsApiId, api, openAPI, stage, stageVariables, fingerprint,
+                        checkpointKey), region, awsApiId, stage, deploymentHash);
+            });
+        }
+
+        return deployment.handle((deployedReference, throwable) -> {
+            if (throwable == null) {
+                return CompletableFuture.completedFuture(deployedReference);
+            }
+            IncrementalReimportPlan.invalidate(awsApiId, stage);
+            // the live state may be partially changed, so it must not be taken as up to date
+            Throwable cause = unwrap(throwable);
+            return untagDeploymentHash(region, awsApiId, stage).<String>thenApply(untagged -> {
+                throw new CompletionException(new APIManagementException("Error occurred while re-importing API: "
+                        + cause.getMessage(), cause));
+            });
+        }).thenCompose(future -> future);
+    }
+
+    /**
+     * Re-imports a definition that differs from the one last deployed by this deployment, touching only the
+     * changed resources if the previously deployed definition is known.
+     */
+    private CompletableFuture<String> reimportChanged(String awsApiId, API api, String openAPI, String stage,
+                                                      Map<String, String> stageVariables, String fingerprint,
+                                                      String checkpointKey) {
+        //diff against the previously deployed definition to touch only the changed resources
+        IncrementalReimportPlan initialPlan = IncrementalReimportPlan.create(awsApiId, stage, openAPI);
+        CompletableFuture<Stage> stageState = paced(() -> client.getStage(GetStageRequest.builder()
+                .restApiId(awsApiId).stageName(stage).build()))
+                .handle((getStageResponse, throwable) -> throwable == null
+                        ? AWSAPIUtil.toStage(getStageResponse) : null);
+
+        return stageState.thenCompose(currentStage -> {
+            IncrementalReimportPlan plan = initialPlan;
+            if (plan.getMode() != IncrementalReimportPlan.Mode.OVERWRITE
+                    && !AWSAPIUtil.isActiveDeployment(currentStage, plan.getPreviousDeploymentId())) {
+                // the stage was redeployed or undeployed elsewhere, so the known state is stale
+                IncrementalReimportPlan.invalidate(awsApiId, stage);
+                plan = IncrementalReimportPlan.create(awsApiId, stage, openAPI);
+            }
+            if (plan.getMode() == IncrementalReimportPlan.Mode.UNCHANGED) {
+                // changes of the backend or stage settings are picked up by the stage without a new deployment
+                return compilePlan(api, new ResourceSnapshot(awsApiId), Collections.emptySet(), stage,
+                        currentStage).thenCompose(planCompiler -> {
+                            AWSAPIUtil.patchStageVariables(planCompiler, stageVariables);
+                            AWSAPIUtil.patchCacheCluster(planCompiler, api, deploymentSettings);
+                            return executePlan(planCompiler.compileStage());
+                        }).thenCompose(updated -> getReferenceArtifact(awsApiId));
+            }
+            return reimport(awsApiId, api, plan, stage, currentStage, stageVariables, fingerprint,
+                    checkpointKey, null);
+        });
+    }
+
+    /**
+     * Puts the definition of the plan over the Rest API, unless the given checkpoint of a failed attempt shows it
+     * was already put, and runs the remaining phases of the deployment.
+     */
+    private CompletableFuture<String> reimport(String awsApiId, API api, IncrementalReimportPlan plan,
+                                               String stage, Stage currentStage, Map<String, String> stageVariables,
+                                               String fingerprint, String checkpointKey,
+                                               DeploymentCheckpoint resumedCheckpoint) {
+        CompletableFuture<DeploymentCheckpoint> put;
+        if (resumedCheckpoint != null) {
+            put = CompletableFuture.completedFuture(resumedCheckpoint);
+        } else {
+            PutRestApiRequest reimportApiRequest = PutRestApiRequest.builder()
+                    .restApiId(awsApiId)
+                    .body(SdkBytes.fromUtf8String(plan.getBody()))
+                    .failOnWarnings(false)
+                    .mode(plan.getPutMode())
+                    .build();
+            put = paced(() -> client.putRestApi(reimportApiRequest)).thenCompose(reimportApiResponse -> {
+                AWSAPIUtil.logImportWarnings(reimportApiResponse.id(), reimportApiResponse.warnings());
+                return reconcileCompression(api, reimportApiResponse.id(),
+                        reimportApiResponse.minimumCompressionSize()).thenApply(reconciled -> {
+                            DeploymentCheckpoint checkpoint = new DeploymentCheckpoint(reimportApiResponse.id(),
+                                    fingerprint, false);
+                            checkpoints.save(checkpointKey, checkpoint);
+                            return checkpoint;
+                        });
+            });
+        }
+        return put.<String>thenCompose(checkpoint -> {
+            String apiId = checkpoint.getRestApiId();
+            return configureAndDeploy(apiId, api, stage, currentStage, stageVariables, plan.getChangedPaths(),
+                    checkpointKey, checkpoint)
+                    .thenCompose(deploymentId -> {
+                        plan.markDeployed(deploymentId);
+                        checkpoints.remove(checkpointKey);
+                        // the stage points at the new deployment, so the previous ones are deleted off the
+                        // critical path
+                        deploymentPruner.schedule(apiId);
+                        return getReferenceArtifact(apiId);
+                    })
+                    .handle((referenceArtifact, throwable) -> throwable == null
+                            ? CompletableFuture.completedFuture(referenceArtifact)
+                            : recover(checkpointKey, checkpoint, throwable))
+                    .thenCompose(future -> future);
+        });
+    }
+
+    /**
+     * Deletes the stage of the Rest API, or the Rest API itself along with all of its stages. Once the stage is
+     * deleted, its deployment hash tag and the deployments it pointed at are cleaned up in the background.
+     */
+    public CompletableFuture<Void> undeploy(String referenceArtifact, String region, String stage,
+                                            boolean delete) {
+        String awsApiId;
+        try {
+            awsApiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        } catch (APIManagementException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (delete) {
+            IncrementalReimportPlan.invalidate(awsApiId);
+        } else {
+            IncrementalReimportPlan.invalidate(awsApiId, stage);
+        }
+        if (delete) {
+            // the deletion cascades to the stages, deployments and tags of the Rest API
+            return paced(() -> client.deleteRestApi(DeleteRestApiRequest.builder().restApiId(awsApiId).build()))
+                    .handle(ignoreNotFound());
+        }
+        // the tag is removed before the stage, so that it cannot outlive the undeployment
+        return untagDeploymentHash(region, awsApiId, stage).thenCompose(untagged -> paced(() -> client.deleteStage(
+                DeleteStageRequest.builder().restApiId(awsApiId).stageName(stage).build())))
+                .handle(ignoreNotFound()).thenRun(() -> deploymentPruner.schedule(awsApiId));
+    }
+
+    /**
+     * Returns a handler that completes normally if the resource to delete does not exist, e.g. because it was
+     * already deleted by another node, and rethrows any other failure.
+     */
+    private static <T> BiFunction<T, Throwable, Void> ignoreNotFound() {
+        return (deleted, throwable) -> {
+            if (throwable != null && !(unwrap(throwable) instanceof NotFoundException)) {
+                throw new CompletionException(unwrap(throwable));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Runs the phases of a deployment that follow the import and are not completed yet according to the
+     * checkpoint, recording each completed phase.
+     */
+    private CompletableFuture<String> configureAndDeploy(String apiId, API api, String stage, Stage currentStage,
+                                                         Map<String, String> stageVariables, Set<String> paths,
+                                                         String checkpointKey, DeploymentCheckpoint checkpoint) {
+        boolean configured = checkpoint.isCompleted(DeploymentCheckpoint.Phase.CONFIGURED);
+        CompletableFuture<ResourceSnapshot> snapshot = configured
+                ? CompletableFuture.completedFuture(new ResourceSnapshot(apiId)) : loadResourceSnapshot(apiId);
+        return snapshot
+                .thenCompose(resources -> compilePlan(api, resources, paths, stage, currentStage))
+                .thenCompose(planCompiler -> runPhase(checkpointKey, checkpoint, DeploymentCheckpoint.Phase.CONFIGURED,
+                        () -> executePlan(planCompiler.compile()))
+                        .thenCompose(previous -> runPhase(checkpointKey, checkpoint,
+                                DeploymentCheckpoint.Phase.DEPLOYED, () -> paced(() -> client.createDeployment(
+                                        AWSAPIUtil.buildCreateDeploymentRequest(api, apiId, stage, stageVariables,
+                                                deploymentSettings)))
+                                        .thenAccept(createDeploymentResponse ->
+                                                checkpoint.deployed(createDeploymentResponse.id()))))
+                        .thenCompose(previous -> runPhase(checkpointKey, checkpoint,
+                                DeploymentCheckpoint.Phase.STAGE_CONFIGURED,
+                                () -> executePlan(planCompiler.compileStage()))))
+                .thenApply(completed -> checkpoint.getDeploymentId());
+    }
+
+    /**
+     * Runs a phase of a deployment unless the checkpoint shows it was completed by a previous attempt.
+     */
+    private CompletableFuture<Void> runPhase(String checkpointKey, DeploymentCheckpoint checkpoint,
+                                             DeploymentCheckpoint.Phase phase,
+                                             Supplier<CompletableFuture<?>> work) {
+        if (checkpoint.isCompleted(phase)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return work.get().thenRun(() -> {
+            checkpoint.complete(phase);
+            checkpoints.save(checkpointKey, checkpoint);
+        });
+    }
+
+    /**
+     * Records the failed attempt of a checkpointed deployment and rolls it back if the checkpoint store requires
+     * so, failing with the original error.
+     */
+    private <T> CompletableFuture<T> recover(String checkpointKey, DeploymentCheckpoint checkpoint,
+                                             Throwable throwable) {
+        boolean rollback = checkpoints.recordFailure(checkpointKey, checkpoint);
+        Throwable cause = unwrap(throwable);
+        APIManagementException failure = new APIManagementException(cause.getMessage()
+                + DeploymentCheckpointStore.describeRecovery(checkpoint, rollback), cause);
+        if (!rollback || !checkpoint.isRestApiCreated()) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        //delete the API if an error occurred
+        return paced(() -> client.deleteRestApi(DeleteRestApiRequest.builder()
+                .restApiId(checkpoint.getRestApiId()).build()))
+                .handle((deleted, deleteFailure) -> {
+                    throw new CompletionException(failure);
+                });
+    }
+
+    /**
+     * Deletes a Rest API imported by a deployment that failed before it was checkpointed, failing with the original
+     * error.
+     */
+    private <T> CompletableFuture<T> rollbackImport(String apiId, Throwable throwable) {
+        Throwable failure = unwrap(throwable);
+        return paced(() -> client.deleteRestApi(DeleteRestApiRequest.builder().restApiId(apiId).build()))
+                .handle((deleted, deleteFailure) -> {
+                    if (deleteFailure != null) {
+                        log.error("Error occurred while rolling back the import of AWS API " + apiId,
+                                unwrap(deleteFailure));
+                    }
+                    throw new CompletionException(failure);
+                });
+    }
+
+    private CompletableFuture<DeploymentPlanCompiler> compilePlan(API api, ResourceSnapshot snapshot,
+                                                                  Set<String> paths, String stage,
+                                                                  Stage currentStage) {
+        try {
+            return CompletableFuture.completedFuture(AWSAPIUtil.createPlanCompiler(api, snapshot, paths, stage,
+                    currentStage, stageVariableEndpoint, deploymentSettings));
+        } catch (APIManagementException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Executes the steps of the plan one after the other, with the calls of each step issued concurrently.
+     */
+    private CompletableFuture<Void> executePlan(DeploymentPlan plan) {
+        if (log.isDebugEnabled() && !plan.isEmpty()) {
+            log.debug("Executing deployment plan:\n" + plan.describe());
+        }
+        return plan.executeAsync(call -> paced(() -> DeploymentPlan.invoke(client, call)));
+    }
+
+    private CompletableFuture<ResourceSnapshot> loadResourceSnapshot(String apiId) {
+        ResourceSnapshot snapshot = new ResourceSnapshot(apiId);
+        return loadResourcePage(snapshot, null).thenApply(loaded -> snapshot);
+    }
+
+    private CompletableFuture<Void> loadResourcePage(ResourceSnapshot snapshot, String position) {
+        return paced(() -> client.getResources(AWSAPIUtil.buildGetResourcesRequest(snapshot.getRestApiId(),
+                position))).thenCompose(getResourcesResponse -> {
+            for (Resource resource : getResourcesResponse.items()) {
+                snapshot.addResource(resource);
+            }
+            if (getResourcesResponse.position() == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return loadResourcePage(snapshot, getResourcesResponse.position());
+        });
+    }
+
+    /**
+     * Returns the hash of the deployment that was last completed to the given stage, or null if it is unknown or
+     * the stage no longer exists.
+     */
+    private CompletableFuture<String> getDeployedHash(String region, String apiId, String stage) {
+        return paced(() -> client.getTags(GetTagsRequest.builder()
+                .resourceArn(AWSAPIUtil.getRestApiArn(region, apiId)).build()))
+                .thenCompose(getTagsResponse -> {
+                    String deployedHash = getTagsResponse.hasTags()
+                            ? getTagsResponse.tags().get(AWSAPIUtil.getDeploymentHashTag(stage)) : null;
+                    if (deployedHash == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    // a tag left behind by a stage deleted outside of this deployer must not skip recreating it
+                    return paced(() -> client.getStage(GetStageRequest.builder().restApiId(apiId).stageName(stage)
+                            .build())).thenApply(getStageResponse -> deployedHash);
+                })
+                .handle((deployedHash, throwable) -> {
+                    if (throwable != null) {
+                        if (!(unwrap(throwable) instanceof NotFoundException)) {
+                            // the deployment is applied in full instead of being skipped
+                            log.warn("Error while reading the deployment hash of AWS API " + apiId,
+                                    unwrap(throwable));
+                        }
+                        return null;
+                    }
+                    return deployedHash;
+                });
+    }
+
+    private CompletableFuture<String> tagged(CompletableFuture<String> deployment, String region, String apiId,
+                                             String stage, String deploymentHash) {
+        return deployment.thenCompose(referenceArtifact -> tagDeploymentHash(region, apiId, stage, deploymentHash)
+                .thenApply(tagged -> referenceArtifact));
+    }
+
+    private CompletableFuture<Void> tagDeploymentHash(String region, String apiId, String stage,
+                                                      String deploymentHash) {
+        return paced(() -> client.tagResource(TagResourceRequest.builder()
+                .resourceArn(AWSAPIUtil.getRestApiArn(region, apiId))
+                .tags(Map.of(AWSAPIUtil.getDeploymentHashTag(stage), deploymentHash)).build()))
+                .handle((tagged, throwable) -> {
+                    if (throwable != null) {
+                        // the next deployment of the API is applied in full instead of being skipped
+                        log.warn("Error while tagging AWS API " + apiId + " with its deployment hash",
+                                unwrap(throwable));
+                    }
+                    return null;
+                });
+    }
+
+    private CompletableFuture<Void> untagDeploymentHash(String region, String apiId, String stage) {
+        return paced(() -> client.untagResource(UntagResourceRequest.builder()
+                .resourceArn(AWSAPIUtil.getRestApiArn(region, apiId))
+                .tagKeys(AWSAPIUtil.getDeploymentHashTag(stage)).build()))
+                .handle((untagged, throwable) -> {
+                    if (throwable != null) {
+                        log.warn("Error while removing the deployment hash tag of AWS API " + apiId,
+                                unwrap(throwable));
+                    }
+                    return null;
+                });
+    }
+
+    private CompletableFuture<String> getReferenceArtifact(String apiId) {
+        return paced(() -> client.getRestApi(GetRestApiRequest.builder().restApiId(apiId).build()))
+                .thenApply(Object::toString);
+    }
+
+    /**
+     * Submits the call once the rate limiter permits it, without blocking the calling thread.
+     */
+    private <T> CompletableFuture<T> paced(Supplier<CompletableFuture<T>> call) {
+        return paced(call, 0);
+    }
+
+    /**
+     * Submits the call once a permit is available and retries it the same way if it fails with a retryable error,
+     * e.g. because it was throttled. The asynchronous client does not retry by itself, so that every attempt is paced
+     * without blocking.
+     */
+    private <T> CompletableFuture<T> paced(Supplier<CompletableFuture<T>> call, int retries) {
+        long waitNanos = rateLimiter.reserve();
+        CompletableFuture<T> attempt;
+        if (waitNanos <= 0) {
+            attempt = call.get();
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug("Delaying AWS API Gateway call by " + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms");
+            }
+            attempt = CompletableFuture.supplyAsync(call, CompletableFuture.delayedExecutor(waitNanos,
+                    TimeUnit.NANOSECONDS)).thenCompose(future -> future);
+        }
+        return attempt.handle((response, throwable) -> {
+            if (throwable == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            if (retries < MAX_RETRIES && isRetryable(unwrap(throwable))) {
+                return paced(call, retries + 1);
+            }
+            return CompletableFuture.<T>failedFuture(unwrap(throwable));
+        }).thenCompose(future -> future);
+    }
+
+    private static boolean isRetryable(Throwable throwable) {
+        if (throwable instanceof AwsServiceException && ((AwsServiceException) throwable).isThrottlingException()) {
+            return true;
+        }
+        return throwable instanceof SdkException && ((SdkException) throwable).retryable();
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
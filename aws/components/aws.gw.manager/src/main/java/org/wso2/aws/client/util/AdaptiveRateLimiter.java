@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) rate limiter for AWS API Gateway control plane calls. A single
+ * limiter is shared by all clients that use the same account and region, since API Gateway enforces its management
+ * API limits per account and region. The permitted rate grows on every successful call and is halved whenever
+ * API Gateway responds with 429 Too Many Requests. The permitted rate of each limiter is registered as an MXBean
+ * keyed by the masked access key and the region.
+ */
+public class AdaptiveRateLimiter implements AdaptiveRateLimiterMXBean {
+
+    private static final Log log = LogFactory.getLog(AdaptiveRateLimiter.class);
+    private static final Map<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+    private static final String OBJECT_NAME_PREFIX = "org.wso2.aws.client:type=AdaptiveRateLimiter,key=";
+
+    private static final double INITIAL_RATE = 5.0;
+    private static final double MIN_RATE = 0.5;
+    private static final double MAX_RATE = 10.0;
+    private static final double ADDITIVE_INCREASE = 0.1;
+    private static final double MULTIPLICATIVE_DECREASE = 0.5;
+
+    private final String key;
+    private double permittedRate = INITIAL_RATE;
+    private long nextPermitNanos = System.nanoTime();
+
+    private AdaptiveRateLimiter(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the rate limiter shared by all clients of the given account and region.
+     *
+     * @param accessKey AWS access key identifying the account
+     * @param region    AWS region
+     * @return Shared rate limiter
+     */
+    public static AdaptiveRateLimiter getInstance(String accessKey, String region) {
+        return limiters.computeIfAbsent(accessKey + "|" + region, key -> {
+            AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(key);
+            registerMXBean(limiter);
+            return limiter;
+        });
+    }
+
+    /**
+     * Blocks until a call is permitted under the current rate.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting, in which case the call must not be
+     *                              made
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves the next permit and returns how long the caller has to wait before using it.
+     *
+     * @return Wait time in nanoseconds
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        long permitNanos = Math.max(now, nextPermitNanos);
+        nextPermitNanos = permitNanos + (long) (TimeUnit.SECONDS.toNanos(1) / permittedRate);
+        return permitNanos - now;
+    }
+
+    /**
+     * Increases the permitted rate additively after a successful call.
+     */
+    public synchronized void onSuccess() {
+        permittedRate = Math.min(MAX_RATE, permittedRate + ADDITIVE_INCREASE);
+    }
+
+    /**
+     * Decreases the permitted rate multiplicatively after a throttled call.
+     */
+    public synchronized void onThrottle() {
+        permittedRate = Math.max(MIN_RATE, permittedRate * MULTIPLICATIVE_DECREASE);
+        // push back the next permit so that the calls already queued do not immediately hit the limit again
+        nextPermitNanos = Math.max(nextPermitNanos, System.nanoTime())
+                + (long) (TimeUnit.SECONDS.toNanos(1) / permittedRate);
+        if (log.isDebugEnabled()) {
+            log.debug("AWS API Gateway throttled the calls of " + maskedKey() + ". Permitted rate reduced to "
+                    + permittedRate + " calls per second");
+        }
+    }
+
+    @Override
+    public synchronized double getPermittedRate() {
+        return permittedRate;
+    }
+
+    private static void registerMXBean(AdaptiveRateLimiter limiter) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(limiter.maskedKey()));
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(limiter, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering the rate limiter of " + limiter.maskedKey(), e);
+        }
+    }
+
+    private String maskedKey() {
+        int separator = key.indexOf('|');
+        String accessKey = key.substring(0, separator);
+        String masked = accessKey.length() > 4 ? "****" + accessKey.substring(accessKey.length() - 4) : "****";
+        return masked + key.substring(separator);
+    }
+}
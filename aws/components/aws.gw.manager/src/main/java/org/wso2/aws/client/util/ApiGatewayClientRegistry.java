@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.Environment;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.apigateway.ApiGatewayAsyncClient;
+import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
+import software.amazon.awssdk.services.apigatewayv2.ApiGatewayV2Client;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.lang.ref.Cleaner;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reference counted registry of API Gateway clients. Deployers and discovery instances of environments that use
+ * the same region, credentials and transport settings share a single client and its connection pool instead of
+ * creating one each. The client and its HTTP transport are closed when the last lease is released.
+ */
+public final class ApiGatewayClientRegistry {
+
+    private static final Log log = LogFactory.getLog(ApiGatewayClientRegistry.class);
+    private static final Map<String, RegisteredClient> clients = new HashMap<>();
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private ApiGatewayClientRegistry() {
+    }
+
+    /**
+     * Acquires a lease on the client matching the connection configuration of the given environment, creating the
+     * client if no other lease holds it. Since deployers and discovery instances have no shutdown callback, the
+     * lease is also released once its owner becomes unreachable.
+     *
+     * @param owner       Object that uses the client
+     * @param environment Gateway environment
+     * @return Lease on the shared client
+     * @throws APIManagementException If the required AWS configurations are missing
+     */
+    public static ClientLease<ApiGatewayClient> acquire(Object owner, Environment environment)
+            throws APIManagementException {
+        ConnectionSettings settings = new ConnectionSettings(environment);
+        return acquire(owner, settings.getKey("sync"), () -> {
+            SdkHttpClient httpClient = buildHttpClient(settings);
+            ApiGatewayClient apiGatewayClient = ApiGatewayClient.builder()
+                    .region(Region.of(settings.region))
+                    .httpClient(httpClient)
+                    .credentialsProvider(settings.getCredentialsProvider())
+                    .overrideConfiguration(ClientOverrideConfiguration.builder()
+                            .addExecutionInterceptor(new ThrottlingInterceptor(settings.getRateLimiter()))
+                            .build())
+                    .build();
+            return new RegisteredClient(apiGatewayClient, httpClient);
+        });
+    }
+
+    /**
+     * Acquires a lease on the asynchronous client matching the connection configuration of the given environment.
+     * Calls of asynchronous clients are not paced or retried by the client itself, since pacing would block the event
+     * loop, so callers have to pace and retry them through {@link AdaptiveRateLimiter#reserve()}.
+     *
+     * @param owner       Object that uses the client
+     * @param environment Gateway environment
+     * @return Lease on the shared asynchronous client
+     * @throws APIManagementException If the required AWS configurations are missing
+     */
+    public static ClientLease<ApiGatewayAsyncClient> acquireAsync(Object owner, Environment environment)
+            throws APIManagementException {
+        ConnectionSettings settings = new ConnectionSettings(environment);
+        return acquire(owner, settings.getKey("async"), () -> {
+            SdkAsyncHttpClient httpClient = buildAsyncHttpClient(settings);
+            ApiGatewayAsyncClient apiGatewayClient = ApiGatewayAsyncClient.builder()
+                    .region(Region.of(settings.region))
+                    .httpClient(httpClient)
+                    .credentialsProvider(settings.getCredentialsProvider())
+                    .overrideConfiguration(ClientOverrideConfiguration.builder()
+                            .addExecutionInterceptor(new ThrottlingFeedbackInterceptor(settings.getRateLimiter()))
+                            // retries are paced and issued by the caller, see AWSAsyncAPIUtil
+                            .retryStrategy(AwsRetryStrategy.doNotRetry())
+                            .build())
+                    .build();
+            return new RegisteredClient(apiGatewayClient, httpClient);
+        });
+    }
+
+    /**
+     * Acquires a lease on the client of HTTP APIs matching the connection configuration of the given environment.
+     * Its calls are paced by the same rate limiter as the calls of the REST API clients of the account and region.
+     *
+     * @param owner       Object that uses the client
+     * @param environment Gateway environment
+     * @return Lease on the shared HTTP API client
+     * @throws APIManagementException If the required AWS configurations are missing
+     */
+    public static ClientLease<ApiGatewayV2Client> acquireV2(Object owner, Environment environment)
+            throws APIManagementException {
+        ConnectionSettings settings = new ConnectionSettings(environment);
+        return acquire(owner, settings.getKey("v2"), () -> {
+            SdkHttpClient httpClient = buildHttpClient(settings);
+            ApiGatewayV2Client apiGatewayClient = ApiGatewayV2Client.builder()
+                    .region(Region.of(settings.region))
+                    .httpClient(httpClient)
+                    .credentialsProvider(settings.getCredentialsProvider())
+                    .overrideConfiguration(ClientOverrideConfiguration.builder()
+                            .addExecutionInterceptor(new ThrottlingInterceptor(settings.getRateLimiter()))
+                            .build())
+                    .build();
+            return new RegisteredClient(apiGatewayClient, httpClient);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends SdkClient> ClientLease<T> acquire(Object owner, String key,
+                                                                Supplier<RegisteredClient> clientFactory) {
+        synchronized (clients) {
+            RegisteredClient registeredClient = clients.get(key);
+            if (registeredClient == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Creating AWS API Gateway client: " + key.substring(0, key.indexOf('|')));
+                }
+                registeredClient = clientFactory.get();
+                clients.put(key, registeredClient);
+            }
+            registeredClient.references++;
+            ClientLease<T> lease = new ClientLease<>(key, (T) registeredClient.client);
+            // the lease keeps its registration, so that closing it also unregisters it from the owner
+            lease.cleanable = cleaner.register(owner, lease::release);
+            return lease;
+        }
+    }
+
+    private static SdkHttpClient buildHttpClient(ConnectionSettings settings) {
+        return buildHttpClient(settings.transport, settings.maxConnections, settings.idleTimeout);
+    }
+
+    static SdkHttpClient buildHttpClient(String transport, int maxConnections, Duration idleTimeout) {
+        if (AWSConstants.HTTP_TRANSPORT_CRT.equals(transport)) {
+            return AwsCrtHttpClient.builder()
+                    .maxConcurrency(maxConnections)
+                    .connectionMaxIdleTime(idleTimeout)
+                    .build();
+        }
+        return ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionMaxIdleTime(idleTimeout)
+                .useIdleConnectionReaper(true)
+                .build();
+    }
+
+    private static SdkAsyncHttpClient buildAsyncHttpClient(ConnectionSettings settings) {
+        if (AWSConstants.HTTP_TRANSPORT_CRT.equals(settings.transport)) {
+            return AwsCrtAsyncHttpClient.builder()
+                    .maxConcurrency(settings.maxConnections)
+                    .connectionMaxIdleTime(settings.idleTimeout)
+                    .build();
+        }
+        return NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(settings.maxConnections)
+                .connectionMaxIdleTime(settings.idleTimeout)
+                .useIdleConnectionReaper(true)
+                .build();
+    }
+
+    private static void release(String key) {
+        synchronized (clients) {
+            RegisteredClient registeredClient = clients.get(key);
+            if (registeredClient == null || --registeredClient.references > 0) {
+                return;
+            }
+            clients.remove(key);
+            registeredClient.client.close();
+            registeredClient.httpClient.close();
+        }
+    }
+
+    /**
+     * A lease on a shared API Gateway client. Closing the lease more than once has no effect.
+     *
+     * @param <T> Type of the client
+     */
+    public static final class ClientLease<T extends SdkClient> implements AutoCloseable {
+
+        private final String key;
+        private final T client;
+        private Cleaner.Cleanable cleanable;
+
+        private ClientLease(String key, T client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        public T getClient() {
+            return client;
+        }
+
+        /**
+         * Returns whether the lease is on the client the given environment would acquire now, i.e. whether the
+         * connection configuration of the environment is unchanged since the lease was acquired.
+         *
+         * @param environment Gateway environment
+         * @return Whether the client matches the connection configuration of the environment
+         * @throws APIManagementException If the required AWS configurations are missing
+         */
+        public boolean matches(Environment environment) throws APIManagementException {
+            // keys start with the client mode, e.g. sync:apache@us-east-1
+            return key.equals(new ConnectionSettings(environment).getKey(key.substring(0, key.indexOf(':'))));
+        }
+
+        @Override
+        public void close() {
+            // runs the release at most once, whether the lease is closed or its owner is collected
+            cleanable.clean();
+        }
+
+        private void release() {
+            ApiGatewayClientRegistry.release(key);
+        }
+    }
+
+    private static final class RegisteredClient {
+
+        private final SdkClient client;
+        private final SdkAutoCloseable httpClient;
+        private int references;
+
+        private RegisteredClient(SdkClient client, SdkAutoCloseable httpClient) {
+            this.client = client;
+            this.httpClient = httpClient;
+        }
+    }
+
+    /**
+     * Connection configuration of an environment.
+     */
+    private static final class ConnectionSettings {
+
+        private final String region;
+        private final String accessKey;
+        private final String secretKey;
+        private final String transport;
+        private final int maxConnections;
+        private final Duration idleTimeout;
+
+        private ConnectionSettings(Environment environment) throws APIManagementException {
+            Map<String, String> properties = environment.getAdditionalProperties();
+            this.region = properties.get(AWSConstants.AWS_ENVIRONMENT_REGION);
+            this.accessKey = properties.get(AWSConstants.AWS_ENVIRONMENT_ACCESS_KEY);
+            this.secretKey = properties.get(AWSConstants.AWS_ENVIRONMENT_SECRET_KEY);
+            if (region == null || accessKey == null || secretKey == null) {
+                throw new APIManagementException("Missing required AWS environment configurations");
+            }
+            this.transport = AWSConstants.HTTP_TRANSPORT_CRT.equalsIgnoreCase(
+                    properties.get(AWSConstants.AWS_HTTP_TRANSPORT)) ? AWSConstants.HTTP_TRANSPORT_CRT
+                    : AWSConstants.HTTP_TRANSPORT_APACHE;
+            this.maxConnections = GatewayUtil.getIntegerProperty(properties, AWSConstants.AWS_MAX_CONNECTIONS,
+                    AWSConstants.DEFAULT_MAX_CONNECTIONS);
+            this.idleTimeout = Duration.ofSeconds(GatewayUtil.getIntegerProperty(properties,
+                    AWSConstants.AWS_CONNECTION_IDLE_TIMEOUT, AWSConstants.DEFAULT_CONNECTION_IDLE_TIMEOUT));
+        }
+
+        private String getKey(String mode) {
+            return String.join("|", mode + ":" + transport + "@" + region, accessKey,
+                    DigestUtils.sha256Hex(secretKey), String.valueOf(maxConnections),
+                    String.valueOf(idleTimeout.getSeconds()));
+        }
+
+        private StaticCredentialsProvider getCredentialsProvider() {
+            return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        }
+
+        private AdaptiveRateLimiter getRateLimiter() {
+            return AdaptiveRateLimiter.getInstance(accessKey, region);
+        }
+    }
+}
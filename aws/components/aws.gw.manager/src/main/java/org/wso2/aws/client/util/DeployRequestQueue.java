@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Serializes the deployments and undeployments of each API of an environment and collapses bursts of deploy
+ * requests. While a request of an API is running, further requests for the same API wait for it in arrival order.
+ * Consecutive waiting deploy requests collapse into a single redeployment with the latest request, whose result is
+ * returned to all of the collapsed callers, while undeploy requests are never collapsed. Requests of different APIs
+ * run in parallel up to a limit that can be changed while requests are running. A request keeps the API until its
+ * deployment completes, even if its caller stopped waiting for it. The metrics of the queue are registered as an
+ * MXBean.
+ */
+public class DeployRequestQueue implements DeployRequestQueueMXBean {
+
+    private static final Log log = LogFactory.getLog(DeployRequestQueue.class);
+    private static final Map<String, DeployRequestQueue> queues = new ConcurrentHashMap<>();
+    private static final String OBJECT_NAME_PREFIX = "org.wso2.aws.client:type=DeployRequestQueue,environment=";
+
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final ResizableSemaphore permits;
+    private int concurrency;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private DeployRequestQueue(int concurrency) {
+        this.concurrency = concurrency;
+        this.permits = new ResizableSemaphore(concurrency);
+    }
+
+    /**
+     * Returns the queue of the given environment, applying the given concurrency limit to it. A changed limit is
+     * applied in place, so requests that are already waiting or running stay serialized with the new ones.
+     *
+     * @param environmentName Name of the gateway environment
+     * @param concurrency     Maximum number of APIs deployed concurrently in the environment
+     * @return Deploy request queue of the environment
+     */
+    public static DeployRequestQueue getInstance(String environmentName, int concurrency) {
+        int limit = Math.max(1, concurrency);
+        return queues.compute(environmentName, (name, existing) -> {
+            if (existing != null) {
+                existing.resize(limit);
+                return existing;
+            }
+            DeployRequestQueue queue = new DeployRequestQueue(limit);
+            registerMXBean(name, queue);
+            return queue;
+        });
+    }
+
+    /**
+     * Changes the number of requests allowed to run concurrently. Running requests are not interrupted when the
+     * limit is lowered, new requests wait until the running ones drop below it.
+     */
+    private synchronized void resize(int limit) {
+        int delta = limit - concurrency;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+        concurrency = limit;
+    }
+
+    /**
+     * Runs the deployment of the given API once no earlier deployment of the API is running. If further requests
+     * for the API arrive while waiting, only the latest of them is run and its result is returned to all of them.
+     *
+     * @param apiKey     Key of the API being deployed
+     * @param deployment Deployment to run, given the result of the deployment of the API that ran right before it
+     *                   if this request waited for it
+     * @return Result of the deployment that was run for this request
+     * @throws APIManagementException If the deployment fails or the caller is interrupted
+     */
+    public String submit(String apiKey, Deployment deployment) throws APIManagementException {
+        return submit(apiKey, completed(deployment), true, 0);
+    }
+
+    /**
+     * Runs the non-blocking deployment of the given API like {@link #submit(String, Deployment)}, waiting at most
+     * the given time for its result. A deployment that is still running when the caller stops waiting keeps the API
+     * until it completes, so later requests of the API never run concurrently with it.
+     *
+     * @param apiKey         Key of the API being deployed
+     * @param deployment     Deployment to run
+     * @param timeoutSeconds Maximum time to wait for the deployment once it runs, in seconds
+     * @return Result of the deployment that was run for this request
+     * @throws APIManagementException If the deployment fails or does not complete in time, or the caller is
+     *                                interrupted
+     */
+    public String submitAsync(String apiKey, AsyncDeployment deployment, long timeoutSeconds)
+            throws APIManagementException {
+        return submit(apiKey, deployment, true, timeoutSeconds);
+    }
+
+    /**
+     * Runs the undeployment of the given API once no earlier request of the API is running. Undeployments are not
+     * collapsed with other requests, so deployments that were requested before it still run before it, and the
+     * ones requested after it start from a removed API.
+     *
+     * @param apiKey       Key of the API being undeployed
+     * @param undeployment Undeployment to run
+     * @throws APIManagementException If the undeployment fails or the caller is interrupted
+     */
+    public void submitUndeployment(String apiKey, Deployment undeployment) throws APIManagementException {
+        submit(apiKey, completed(undeployment), false, 0);
+    }
+
+    /**
+     * Runs the non-blocking undeployment of the given API like {@link #submitUndeployment(String, Deployment)},
+     * waiting at most the given time for it to complete.
+     *
+     * @param apiKey         Key of the API being undeployed
+     * @param undeployment   Undeployment to run
+     * @param timeoutSeconds Maximum time to wait for the undeployment once it runs, in seconds
+     * @throws APIManagementException If the undeployment fails or does not complete in time, or the caller is
+     *                                interrupted
+     */
+    public void submitAsyncUndeployment(String apiKey, AsyncDeployment undeployment, long timeoutSeconds)
+            throws APIManagementException {
+        submit(apiKey, undeployment, false, timeoutSeconds);
+    }
+
+    private String submit(String apiKey, AsyncDeployment deployment, boolean collapsible, long timeoutSeconds)
+            throws APIManagementException {
+        long enqueuedAt = System.nanoTime();
+        queueDepth.incrementAndGet();
+        Pending pending;
+        synchronized (slots) {
+            Slot slot = slots.get(apiKey);
+            if (slot == null) {
+                slots.put(apiKey, new Slot());
+                pending = null;
+            } else if (collapsible && slot.waiting.peekLast() != null && slot.waiting.peekLast().collapsible) {
+                // latest wins, the waiting callers get the result of this request
+                pending = slot.waiting.peekLast();
+                pending.deployment = deployment;
+                pending.waiters++;
+                coalescedCount.incrementAndGet();
+                queueDepth.decrementAndGet();
+            } else {
+                pending = new Pending(deployment, enqueuedAt, collapsible);
+                slot.waiting.addLast(pending);
+            }
+        }
+
+        if (pending == null) {
+            return await(start(apiKey, deployment, null, enqueuedAt), timeoutSeconds);
+        }
+        try {
+            await(pending.turn, 0);
+        } catch (APIManagementException e) {
+            abandon(apiKey, pending);
+            throw e;
+        }
+        if (pending.claimed.compareAndSet(false, true)) {
+            AsyncDeployment latestDeployment;
+            synchronized (slots) {
+                latestDeployment = pending.deployment;
+            }
+            try {
+                start(apiKey, latestDeployment, pending.previousResult, pending.enqueuedAt)
+                        .whenComplete((result, throwable) -> {
+                            if (throwable == null) {
+                                pending.result.complete(result);
+                            } else {
+                                pending.result.completeExceptionally(throwable);
+                            }
+                        });
+            } catch (APIManagementException | RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+        return await(pending.result, timeoutSeconds);
+    }
+
+    /**
+     * Runs the deployment and hands the API over to the next waiting request once the deployment completes.
+     */
+    private CompletableFuture<String> start(String apiKey, AsyncDeployment deployment, String previousResult,
+                                            long enqueuedAt) throws APIManagementException {
+        CompletableFuture<String> result;
+        try {
+            result = run(deployment, previousResult, enqueuedAt);
+        } catch (APIManagementException | RuntimeException | Error e) {
+            handOver(apiKey, null);
+            throw e;
+        }
+        return result.whenComplete((deployed, throwable) -> handOver(apiKey, throwable == null ? deployed : null));
+    }
+
+    /**
+     * Withdraws an interrupted caller from the waiting request, making sure the API is not left blocked by a
+     * request that nobody runs.
+     */
+    private void abandon(String apiKey, Pending pending) {
+        synchronized (slots) {
+            pending.waiters--;
+            if (pending.waiters > 0) {
+                return;
+            }
+            Slot slot = slots.get(apiKey);
+            if (!pending.turn.isDone()) {
+                if (slot.waiting.remove(pending)) {
+                    queueDepth.decrementAndGet();
+                }
+                return;
+            }
+        }
+        if (pending.claimed.compareAndSet(false, true)) {
+            queueDepth.decrementAndGet();
+            pending.result.completeExceptionally(new APIManagementException(
+                    "Deployment of the API was abandoned by the interrupted caller"));
+            handOver(apiKey, pending.previousResult);
+        }
+    }
+
+    private CompletableFuture<String> run(AsyncDeployment deployment, String previousResult, long enqueuedAt)
+            throws APIManagementException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            queueDepth.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new APIManagementException("Interrupted while waiting to deploy the API", e);
+        }
+        long waitNanos = System.nanoTime() - enqueuedAt;
+        queueDepth.decrementAndGet();
+        inFlight.incrementAndGet();
+        executedCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        if (log.isDebugEnabled()) {
+            log.debug("Deploying API after waiting " + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms. Queue depth: "
+                    + queueDepth.get() + ", in flight: " + inFlight.get());
+        }
+        CompletableFuture<String> result;
+        try {
+            result = deployment.deploy(previousResult);
+        } catch (RuntimeException | Error e) {
+            finish();
+            throw e;
+        }
+        return result.whenComplete((deployed, throwable) -> finish());
+    }
+
+    private void finish() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    /**
+     * Lets the earliest waiting request of the API run next, or frees the API if no request is waiting.
+     */
+    private void handOver(String apiKey, String result) {
+        synchronized (slots) {
+            Slot slot = slots.get(apiKey);
+            Pending next = slot.waiting.pollFirst();
+            if (next == null) {
+                slots.remove(apiKey);
+                return;
+            }
+            next.previousResult = result;
+            next.turn.complete(null);
+        }
+    }
+
+    /**
+     * Waits for the given future, at most the given time if it is positive.
+     */
+    private static <T> T await(CompletableFuture<T> future, long timeoutSeconds) throws APIManagementException {
+        try {
+            return timeoutSeconds > 0 ? future.get(timeoutSeconds, TimeUnit.SECONDS) : future.get();
+        } catch (TimeoutException e) {
+            throw new APIManagementException("Deployment of the API did not complete within " + timeoutSeconds
+                    + " seconds. Later requests of the API wait until it completes", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIManagementException("Interrupted while waiting for an earlier deployment of the API", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof APIManagementException) {
+                throw (APIManagementException) e.getCause();
+            }
+            throw new APIManagementException("Error occurred while deploying the API", e.getCause());
+        }
+    }
+
+    /**
+     * Adapts a deployment that completes on the calling thread.
+     */
+    private static AsyncDeployment completed(Deployment deployment) {
+        return previousResult -> {
+            try {
+                return CompletableFuture.completedFuture(deployment.deploy(previousResult));
+            } catch (APIManagementException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        };
+    }
+
+    private static void registerMXBean(String environmentName, DeployRequestQueue queue) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(environmentName));
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(queue, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering the deploy request queue metrics of environment " + environmentName,
+                    e);
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    @Override
+    public long getAverageWaitMillis() {
+        long executed = executedCount.get();
+        return executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / executed);
+    }
+
+    @Override
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * Deployment of an API run by the queue.
+     */
+    @FunctionalInterface
+    public interface Deployment {
+
+        /**
+         * Deploys the API.
+         *
+         * @param previousResult Result of the deployment of the API that ran right before this one, or null
+         * @return Result of the deployment
+         * @throws APIManagementException If the deployment fails
+         */
+        String deploy(String previousResult) throws APIManagementException;
+    }
+
+    /**
+     * Non-blocking deployment of an API run by the queue. The API is kept until the returned future completes.
+     */
+    @FunctionalInterface
+    public interface AsyncDeployment {
+
+        /**
+         * Starts deploying the API.
+         *
+         * @param previousResult Result of the deployment of the API that ran right before this one, or null
+         * @return Future completed with the result of the deployment
+         */
+        CompletableFuture<String> deploy(String previousResult);
+    }
+
+    /**
+     * Deployment state of an API.
+     */
+    private static final class Slot {
+
+        private final Deque<Pending> waiting = new ArrayDeque<>();
+    }
+
+    /**
+     * Request waiting for the running request of the same API, shared by all of the requests collapsed into it.
+     */
+    private static final class Pending {
+
+        private AsyncDeployment deployment;
+        private int waiters = 1;
+        private String previousResult;
+        private final long enqueuedAt;
+        private final boolean collapsible;
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        private Pending(AsyncDeployment deployment, long enqueuedAt, boolean collapsible) {
+            this.deployment = deployment;
+            this.enqueuedAt = enqueuedAt;
+            this.collapsible = collapsible;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+/**
+ * Metrics of the deploy request queue of an environment, exposed over JMX.
+ */
+public interface DeployRequestQueueMXBean {
+
+    /**
+     * Returns the number of deploy requests waiting for an earlier deployment of the same API or for a free slot.
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of deployments currently running.
+     */
+    int getInFlight();
+
+    /**
+     * Returns the number of deployments run since the queue was created.
+     */
+    long getExecutedCount();
+
+    /**
+     * Returns the number of deploy requests collapsed into a later request of the same API.
+     */
+    long getCoalescedCount();
+
+    /**
+     * Returns the average time deployments waited before running, in milliseconds.
+     */
+    long getAverageWaitMillis();
+
+    /**
+     * Returns the longest time a deployment waited before running, in milliseconds.
+     */
+    long getMaxWaitMillis();
+}
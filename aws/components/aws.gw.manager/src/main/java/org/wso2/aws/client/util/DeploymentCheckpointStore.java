@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.model.DeploymentCheckpoint;
+import org.wso2.carbon.apimgt.api.model.API;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkpoints of the in-progress deployments of an environment, kept in memory and, if a directory is configured,
+ * written through to one file per deployment so that they survive a restart. Also holds the policy that decides
+ * when a failed deployment is rolled back instead of being resumed.
+ */
+public class DeploymentCheckpointStore {
+
+    private static final Log log = LogFactory.getLog(DeploymentCheckpointStore.class);
+    private static final Map<String, DeploymentCheckpointStore> stores = new ConcurrentHashMap<>();
+    private static final Gson GSON = new Gson();
+    private static final String FILE_SUFFIX = ".json";
+
+    private final Map<String, Entry> checkpoints = new ConcurrentHashMap<>();
+    private final String environmentName;
+    private final Path directory;
+    private final int maxAttempts;
+    private final boolean rollbackOnFailure;
+
+    private DeploymentCheckpointStore(String environmentName, Path directory, int maxAttempts,
+                                      boolean rollbackOnFailure) {
+        this.environmentName = environmentName;
+        this.directory = directory;
+        this.maxAttempts = maxAttempts;
+        this.rollbackOnFailure = rollbackOnFailure;
+        load();
+    }
+
+    /**
+     * Returns the checkpoint store of the given environment, recreating it if its configuration has changed.
+     *
+     * @param environmentName   Name of the gateway environment
+     * @param directory         Directory the checkpoints are written to, or empty to keep them in memory only
+     * @param maxAttempts       Number of failed attempts after which a deployment is rolled back
+     * @param rollbackOnFailure Whether a deployment is rolled back on its first failure
+     * @return Checkpoint store of the environment
+     */
+    public static DeploymentCheckpointStore getInstance(String environmentName, String directory, int maxAttempts,
+                                                        boolean rollbackOnFailure) {
+        Path path = StringUtils.isNotBlank(directory) ? Paths.get(directory) : null;
+        int attempts = Math.max(1, maxAttempts);
+        return stores.compute(environmentName, (name, existing) -> {
+            if (existing != null && Objects.equals(existing.directory, path) && existing.maxAttempts == attempts
+                    && existing.rollbackOnFailure == rollbackOnFailure) {
+                return existing;
+            }
+            return new DeploymentCheckpointStore(name, path, attempts, rollbackOnFailure);
+        });
+    }
+
+    /**
+     * Returns the key of the deployment of the given API to the given stage of this environment. The key includes
+     * the environment, so that environments sharing a checkpoint directory do not pick up each other's checkpoints.
+     */
+    public String getKey(API api, String stage) {
+        return getKeyPrefix() + api.getUuid() + "/" + stage;
+    }
+
+    private String getKeyPrefix() {
+        return environmentName + "/";
+    }
+
+    public DeploymentCheckpoint get(String key) {
+        Entry entry = checkpoints.get(key);
+        return entry != null ? entry.checkpoint : null;
+    }
+
+    /**
+     * Records the current progress of a deployment. Failing to write the checkpoint to disk does not fail the
+     * deployment, it only limits resuming to this node.
+     */
+    public void save(String key, DeploymentCheckpoint checkpoint) {
+        checkpoints.put(key, new Entry(key, checkpoint));
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path file = getFile(key);
+            String json;
+            synchronized (checkpoint) {
+                json = GSON.toJson(new Entry(key, checkpoint));
+            }
+            Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.writeString(temporaryFile, json, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Error while writing the deployment checkpoint of " + key + " to " + directory, e);
+        }
+    }
+
+    public void remove(String key) {
+        checkpoints.remove(key);
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(getFile(key));
+        } catch (IOException e) {
+            log.warn("Error while deleting the deployment checkpoint of " + key + " from " + directory, e);
+        }
+    }
+
+    /**
+     * Removes the checkpoints of deployments to the given REST API, e.g. once the REST API is undeployed.
+     */
+    public void removeByRestApiId(String restApiId) {
+        for (Entry entry : checkpoints.values()) {
+            if (restApiId.equals(entry.checkpoint.getRestApiId())) {
+                remove(entry.key);
+            }
+        }
+    }
+
+    /**
+     * Records a failed attempt of a deployment and decides whether it has to be rolled back instead of being
+     * resumed by the next attempt. The checkpoint of a deployment to be rolled back is removed.
+     *
+     * @param key        Key of the deployment
+     * @param checkpoint Checkpoint of the failed deployment
+     * @return Whether the deployment has to be rolled back
+     */
+    public boolean recordFailure(String key, DeploymentCheckpoint checkpoint) {
+        if (rollbackOnFailure || checkpoint.failed() >= maxAttempts) {
+            remove(key);
+            return true;
+        }
+        save(key, checkpoint);
+        return false;
+    }
+
+    /**
+     * Describes how a failed deployment is recovered, to be appended to the error message of the failure.
+     */
+    public static String describeRecovery(DeploymentCheckpoint checkpoint, boolean rolledBack) {
+        if (rolledBack) {
+            return ". The deployment was rolled back after " + checkpoint.getFailedAttempts() + " failed attempts";
+        }
+        return ". Attempt " + checkpoint.getFailedAttempts() + " failed after phase " + checkpoint.getPhase()
+                + ", the next attempt resumes from there";
+    }
+
+    private Path getFile(String key) {
+        return directory.resolve(DigestUtils.sha256Hex(key) + FILE_SUFFIX);
+    }
+
+    private void load() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    Entry entry = GSON.fromJson(reader, Entry.class);
+                    if (entry != null && entry.key != null && entry.checkpoint != null
+                            && entry.key.startsWith(getKeyPrefix())) {
+                        checkpoints.put(entry.key, entry);
+                    }
+                } catch (IOException | JsonParseException e) {
+                    log.warn("Ignoring unreadable deployment checkpoint " + file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error while loading the deployment checkpoints from " + directory, e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Loaded " + checkpoints.size() + " deployment checkpoints from " + directory);
+        }
+    }
+
+    /**
+     * Checkpoint together with the deployment it belongs to, as written to disk.
+     */
+    private static final class Entry {
+
+        private final String key;
+        private final DeploymentCheckpoint checkpoint;
+
+        private Entry(String key, DeploymentCheckpoint checkpoint) {
+            this.key = key;
+            this.checkpoint = checkpoint;
+        }
+    }
+}
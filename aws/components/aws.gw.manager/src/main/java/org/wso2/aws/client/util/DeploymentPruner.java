@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.Environment;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
+import software.amazon.awssdk.services.apigateway.model.DeleteDeploymentRequest;
+import software.amazon.awssdk.services.apigateway.model.Deployment;
+import software.amazon.awssdk.services.apigateway.model.GetDeploymentsRequest;
+import software.amazon.awssdk.services.apigateway.model.GetDeploymentsResponse;
+import software.amazon.awssdk.services.apigateway.model.GetStagesRequest;
+import software.amazon.awssdk.services.apigateway.model.NotFoundException;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.wso2.aws.client.AWSConstants.MAX_PAGE_SIZE;
+
+/**
+ * Deletes old deployments of the REST APIs of an environment in the background, so that deploy and undeploy
+ * return as soon as the stage points at the new deployment or is deleted. Deployments any stage points at are
+ * always kept, along with the most recent ones up to the retention, which stay available for an instant rollback
+ * of the stage.
+ * Requests for the same REST API are coalesced and processed in batches on a single thread, and every call goes
+ * through the shared client so that it is paced under the rate budget of the account.
+ */
+public class DeploymentPruner {
+
+    private static final Log log = LogFactory.getLog(DeploymentPruner.class);
+    private static final Map<String, DeploymentPruner> pruners = new ConcurrentHashMap<>();
+    private static final long BATCH_DELAY_SECONDS = 5;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private volatile ApiGatewayClientRegistry.ClientLease<ApiGatewayClient> clientLease;
+    private volatile int retention;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Set<String> pendingApiIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean batchScheduled = new AtomicBoolean(false);
+
+    private DeploymentPruner(Environment environment, int retention) throws APIManagementException {
+        this.retention = retention;
+        this.clientLease = ApiGatewayClientRegistry.acquire(this, environment);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "aws-deployment-pruner-" + environment.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // on shutdown, the pending work is drained right away instead of waiting for the batch delay
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Returns the pruner of the given environment. A changed retention is applied to the existing pruner, and a
+     * changed connection configuration switches it to the matching client, so that batches in progress are not
+     * interrupted.
+     *
+     * @param environment Gateway environment
+     * @param retention   Number of unused deployments kept per REST API
+     * @return Pruner of the environment
+     * @throws APIManagementException If the required AWS configurations are missing
+     */
+    public static DeploymentPruner getInstance(Environment environment, int retention)
+            throws APIManagementException {
+        int limit = Math.max(0, retention);
+        synchronized (pruners) {
+            DeploymentPruner existing = pruners.get(environment.getName());
+            if (existing != null) {
+                existing.retention = limit;
+                if (!existing.clientLease.matches(environment)) {
+                    existing.replaceClientLease(environment);
+                }
+                return existing;
+            }
+            DeploymentPruner pruner = new DeploymentPruner(environment, limit);
+            pruners.put(environment.getName(), pruner);
+            return pruner;
+        }
+    }
+
+    /**
+     * Shuts down the pruners of all environments, e.g. when the component is deactivated. The pending work is
+     * processed and the batch in progress is completed before the clients are released.
+     */
+    public static void shutdownAll() {
+        synchronized (pruners) {
+            for (DeploymentPruner pruner : pruners.values()) {
+                pruner.shutdown();
+            }
+            pruners.clear();
+        }
+    }
+
+    /**
+     * Switches to the client of the current connection configuration of the environment. The previous lease is
+     * released on the pruner thread, once the batch in progress no longer uses its client.
+     */
+    private void replaceClientLease(Environment environment) throws APIManagementException {
+        ApiGatewayClientRegistry.ClientLease<ApiGatewayClient> previousLease = clientLease;
+        clientLease = ApiGatewayClientRegistry.acquire(this, environment);
+        try {
+            scheduler.execute(previousLease::close);
+        } catch (RejectedExecutionException e) {
+            previousLease.close();
+        }
+    }
+
+    /**
+     * Schedules the old deployments of the given REST API to be deleted with the next batch.
+     */
+    public void schedule(String restApiId) {
+        pendingApiIds.add(restApiId);
+        if (batchScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.schedule(this::pruneBatch, BATCH_DELAY_SECONDS, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                // shut down, the deployments are pruned again with the next deployment of the API
+                if (log.isDebugEnabled()) {
+                    log.debug("Deployment pruner is shut down. Skipping the pruning of AWS API " + restApiId);
+                }
+            }
+        }
+    }
+
+    private void pruneBatch() {
+        batchScheduled.set(false);
+        Iterator<String> iterator = pendingApiIds.iterator();
+        while (iterator.hasNext()) {
+            String restApiId = iterator.next();
+            iterator.remove();
+            prune(restApiId);
+        }
+    }
+
+    private void prune(String restApiId) {
+        ApiGatewayClient client = clientLease.getClient();
+        try {
+            Set<String> deploymentsInUse = new HashSet<>();
+            for (Stage stage : client.getStages(GetStagesRequest.builder().restApiId(restApiId).build()).item()) {
+                deploymentsInUse.add(stage.deploymentId());
+            }
+
+            List<Deployment> deployments = new ArrayList<>();
+            String position = null;
+            do {
+                GetDeploymentsResponse getDeploymentsResponse = client.getDeployments(GetDeploymentsRequest.builder()
+                        .restApiId(restApiId).limit(MAX_PAGE_SIZE).position(position).build());
+                deployments.addAll(getDeploymentsResponse.items());
+                position = getDeploymentsResponse.position();
+            } while (position != null);
+            deployments.sort(Comparator.comparing(Deployment::createdDate,
+                    Comparator.nullsLast(Comparator.<Instant>reverseOrder())));
+
+            int retained = 0;
+            int deleted = 0;
+            for (Deployment deployment : deployments) {
+                if (deploymentsInUse.contains(deployment.id())) {
+                    continue;
+                }
+                if (retained < retention) {
+                    retained++;
+                    continue;
+                }
+                try {
+                    client.deleteDeployment(DeleteDeploymentRequest.builder().restApiId(restApiId)
+                            .deploymentId(deployment.id()).build());
+                    deleted++;
+                } catch (NotFoundException e) {
+                    // already deleted, e.g. by another node
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Deleted " + deleted + " of " + deployments.size() + " deployments of AWS API "
+                        + restApiId);
+            }
+        } catch (NotFoundException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("AWS API " + restApiId + " was deleted before its deployments were pruned");
+            }
+        } catch (SdkException e) {
+            // the deployments are pruned again with the next deployment of the API
+            log.warn("Error while deleting old deployments of AWS API " + restApiId, e);
+        }
+    }
+
+    private void shutdown() {
+        try {
+            scheduler.execute(this::pruneBatch);
+        } catch (RejectedExecutionException e) {
+            // already shut down
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Deployment pruner did not complete within " + SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        clientLease.close();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent AWS control plane tasks of a deployment (e.g. per-resource configuration) concurrently, with
+ * the number of in-flight tasks bounded per environment. Virtual threads are used when the runtime provides them.
+ */
+public class DeploymentTaskExecutor {
+
+    private static final Log log = LogFactory.getLog(DeploymentTaskExecutor.class);
+    private static final Map<String, DeploymentTaskExecutor> executors = new ConcurrentHashMap<>();
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final ExecutorService executorService;
+    private final ResizableSemaphore permits;
+    private volatile int concurrency;
+
+    private DeploymentTaskExecutor(String name, int concurrency) {
+        this.concurrency = concurrency;
+        this.permits = new ResizableSemaphore(concurrency);
+        this.executorService = createExecutorService(name, concurrency);
+    }
+
+    /**
+     * Returns the executor of the given environment, applying the given concurrency limit to it. A changed limit is
+     * applied in place, so tasks that are already running keep their executor.
+     *
+     * @param environmentName Name of the gateway environment
+     * @param concurrency     Maximum number of tasks that may run concurrently for the environment
+     * @return Executor of the environment
+     */
+    public static DeploymentTaskExecutor getInstance(String environmentName, int concurrency) {
+        int limit = Math.max(1, concurrency);
+        return executors.compute(environmentName, (name, existing) -> {
+            if (existing != null) {
+                existing.resize(limit);
+                return existing;
+            }
+            return new DeploymentTaskExecutor(name, limit);
+        });
+    }
+
+    /**
+     * Changes the number of tasks allowed to run concurrently. Running tasks are not interrupted when the limit is
+     * lowered, new tasks wait until the running ones drop below it.
+     */
+    private synchronized void resize(int limit) {
+        int delta = limit - concurrency;
+        if (delta == 0) {
+            return;
+        }
+        if (delta > 0) {
+            permits.release(delta);
+        } else {
+            permits.reducePermits(-delta);
+        }
+        if (executorService instanceof ThreadPoolExecutor) {
+            // the core pool size may never exceed the maximum pool size
+            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executorService;
+            if (delta > 0) {
+                threadPoolExecutor.setMaximumPoolSize(limit);
+                threadPoolExecutor.setCorePoolSize(limit);
+            } else {
+                threadPoolExecutor.setCorePoolSize(limit);
+                threadPoolExecutor.setMaximumPoolSize(limit);
+            }
+        }
+        concurrency = limit;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Runs the given tasks and waits for all of them to complete. If any task fails, the tasks that have not
+     * completed yet are cancelled and the failure is propagated to the caller.
+     *
+     * @param tasks Independent tasks to run
+     * @param <T>   Result type of the tasks
+     * @return Results of the tasks in the order of the given list
+     * @throws APIManagementException If any of the tasks fail or the caller is interrupted
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) throws APIManagementException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() <= 1 || concurrency == 1) {
+            // no point in handing off to another thread
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (APIManagementException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new APIManagementException("Error occurred while executing deployment task", e);
+                }
+            }
+            return results;
+        }
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executorService);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(completionService.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.call();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                completionService.take().get();
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof APIManagementException) {
+                throw (APIManagementException) cause;
+            }
+            throw new APIManagementException("Error occurred while executing deployment task: "
+                    + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new APIManagementException("Interrupted while waiting for deployment tasks to complete", e);
+        }
+    }
+
+    private static <T> void cancelAll(List<Future<T>> futures) {
+        for (Future<T> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static ExecutorService createExecutorService(String name, int concurrency) {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor() is only available from Java 21 onwards
+            java.lang.reflect.Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Virtual threads are not available. Using a platform thread pool for environment: "
+                        + name);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(concurrency, concurrency,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "aws-deployer-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import software.amazon.awssdk.services.apigateway.model.RestApi;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Least recently used cache of the details fetched while discovering AWS REST APIs. An entry stays valid as long as
+ * the REST API and the deployment of its stage are unchanged, which lets a discovery cycle skip the export of APIs
+ * that have not been redeployed since the previous cycle.
+ */
+public class DiscoveryCache {
+
+    private final Map<String, Entry> entries;
+
+    public DiscoveryCache(int maxSize) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached entry of the REST API if it was cached for the same REST API metadata and stage
+     * deployment, or null otherwise.
+     */
+    public synchronized Entry get(RestApi restApi, Stage stage) {
+        Entry entry = entries.get(restApi.id());
+        if (entry == null || !entry.matches(restApi, stage)) {
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void put(RestApi restApi, Stage stage, String apiDefinition, String endpoint,
+                                 String referenceArtifact) {
+        entries.put(restApi.id(), new Entry(restApi, stage.deploymentId(), stage.lastUpdatedDate(), apiDefinition,
+                endpoint, referenceArtifact));
+    }
+
+    /**
+     * Evicts the entries of REST APIs that no longer exist.
+     *
+     * @param restApis All REST APIs currently in the account
+     */
+    public synchronized void retainAll(Collection<RestApi> restApis) {
+        Set<String> restApiIds = new HashSet<>();
+        for (RestApi restApi : restApis) {
+            restApiIds.add(restApi.id());
+        }
+        entries.keySet().retainAll(restApiIds);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Details of a discovered REST API.
+     */
+    public static final class Entry {
+
+        private final RestApi restApi;
+        private final String deploymentId;
+        private final Instant lastUpdatedDate;
+        private final String apiDefinition;
+        private final String endpoint;
+        private final String referenceArtifact;
+
+        private Entry(RestApi restApi, String deploymentId, Instant lastUpdatedDate, String apiDefinition,
+                      String endpoint, String referenceArtifact) {
+            this.restApi = restApi;
+            this.deploymentId = deploymentId;
+            this.lastUpdatedDate = lastUpdatedDate;
+            this.apiDefinition = apiDefinition;
+            this.endpoint = endpoint;
+            this.referenceArtifact = referenceArtifact;
+        }
+
+        private boolean matches(RestApi restApi, Stage stage) {
+            return this.restApi.equals(restApi) && Objects.equals(deploymentId, stage.deploymentId())
+                    && Objects.equals(lastUpdatedDate, stage.lastUpdatedDate());
+        }
+
+        public String getApiDefinition() {
+            return apiDefinition;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public String getReferenceArtifact() {
+            return referenceArtifact;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.AWSConstants;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAPI definition exported from AWS API Gateway together with its integration and authorizer extensions. The
+ * backend of the API is derived from the HTTP integrations of the exported operations, and the definition without
+ * the AWS extensions is what is stored for the discovered API.
+ */
+public class ExportedDefinition {
+
+    private static final Log log = LogFactory.getLog(ExportedDefinition.class);
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String AWS_EXTENSION_PREFIX = "x-amazon-apigateway-";
+    private static final Pattern STAGE_VARIABLE_PATTERN = Pattern.compile("\\$\\{stageVariables\\.([^}]+)}");
+
+    private final String definition;
+    private final String fingerprint;
+    private final Map<String, String> integrationUris;
+
+    private ExportedDefinition(String definition, String fingerprint, Map<String, String> integrationUris) {
+        this.definition = definition;
+        this.fingerprint = fingerprint;
+        this.integrationUris = integrationUris;
+    }
+
+    /**
+     * Parses an exported OpenAPI definition.
+     *
+     * @param exportedDefinition OpenAPI definition exported with the integrations extension
+     * @return Parsed definition
+     */
+    public static ExportedDefinition parse(String exportedDefinition) {
+        JsonObject root = JsonParser.parseString(exportedDefinition).getAsJsonObject();
+        Map<String, String> integrationUris = new LinkedHashMap<>();
+        JsonObject paths = root.has("paths") ? root.getAsJsonObject("paths") : new JsonObject();
+        for (Map.Entry<String, JsonElement> pathEntry : paths.entrySet()) {
+            if (!pathEntry.getValue().isJsonObject()) {
+                continue;
+            }
+            for (Map.Entry<String, JsonElement> operation : pathEntry.getValue().getAsJsonObject().entrySet()) {
+                if (!operation.getValue().isJsonObject()) {
+                    continue;
+                }
+                JsonElement integration = operation.getValue().getAsJsonObject()
+                        .get(AWSConstants.OPENAPI_INTEGRATION_EXTENSION);
+                if (integration == null || !integration.isJsonObject()) {
+                    continue;
+                }
+                JsonObject integrationObject = integration.getAsJsonObject();
+                String type = integrationObject.has("type") ? integrationObject.get("type").getAsString() : "";
+                if (integrationObject.has("uri") && type.toLowerCase().startsWith("http")) {
+                    integrationUris.put(pathEntry.getKey() + " " + operation.getKey(),
+                            integrationObject.get("uri").getAsString());
+                }
+            }
+        }
+        removeAWSExtensions(root);
+        return new ExportedDefinition(GSON.toJson(root), GatewayUtil.fingerprint(root),
+                Collections.unmodifiableMap(integrationUris));
+    }
+
+    /**
+     * Returns the definition without the AWS API Gateway extensions.
+     */
+    public String getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Returns the SHA-256 fingerprint of the canonical form of the definition without the AWS extensions.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the URIs of the HTTP integrations keyed by {@code <path> <method>}.
+     */
+    public Map<String, String> getIntegrationUris() {
+        return integrationUris;
+    }
+
+    /**
+     * Derives the backend endpoint of the API. The resource path is removed from the integration URI of each
+     * operation and the base URL shared by most operations is returned, with stage variables resolved.
+     *
+     * @param stageVariables Variables of the stage the definition was exported from
+     * @return Backend endpoint, or null if the API has no HTTP integrations
+     */
+    public String getEndpoint(Map<String, String> stageVariables) {
+        Map<String, Integer> occurrences = new HashMap<>();
+        String endpoint = null;
+        int maxOccurrences = 0;
+        for (Map.Entry<String, String> entry : integrationUris.entrySet()) {
+            String path = entry.getKey().substring(0, entry.getKey().lastIndexOf(' '));
+            String baseUrl = resolveStageVariables(getBaseUrl(entry.getValue(), path), stageVariables);
+            int count = occurrences.merge(baseUrl, 1, Integer::sum);
+            if (count > maxOccurrences) {
+                maxOccurrences = count;
+                endpoint = baseUrl;
+            }
+        }
+        if (occurrences.size() > 1 && log.isDebugEnabled()) {
+            log.debug("Operations of the API use " + occurrences.size() + " backends. Using " + endpoint);
+        }
+        return endpoint;
+    }
+
+    private static String getBaseUrl(String uri, String path) {
+        if (uri.endsWith(path)) {
+            return uri.substring(0, uri.length() - path.length());
+        }
+        // integration URIs may use different names for the path parameters
+        String normalizedPath = path.replaceAll("\\{[^}]+}", "{}");
+        String normalizedUri = uri.replaceAll("\\{[^}]+}", "{}");
+        if (normalizedUri.endsWith(normalizedPath)) {
+            return normalizedUri.substring(0, normalizedUri.length() - normalizedPath.length());
+        }
+        return uri;
+    }
+
+    private static String resolveStageVariables(String uri, Map<String, String> stageVariables) {
+        if (stageVariables == null || stageVariables.isEmpty() || !uri.contains("${stageVariables.")) {
+            return uri;
+        }
+        Matcher matcher = STAGE_VARIABLE_PATTERN.matcher(uri);
+        StringBuffer resolved = new StringBuffer();
+        while (matcher.find()) {
+            String value = stageVariables.getOrDefault(matcher.group(1), matcher.group());
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static void removeAWSExtensions(JsonElement element) {
+        if (element.isJsonObject()) {
+            Iterator<Map.Entry<String, JsonElement>> iterator = element.getAsJsonObject().entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JsonElement> entry = iterator.next();
+                if (entry.getKey().startsWith(AWS_EXTENSION_PREFIX)) {
+                    iterator.remove();
+                } else {
+                    removeAWSExtensions(entry.getValue());
+                }
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                removeAWSExtensions(child);
+            }
+        }
+    }
+}
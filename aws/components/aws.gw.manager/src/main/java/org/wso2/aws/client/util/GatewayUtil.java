@@ -18,53 +18,66 @@
 
 package org.wso2.aws.client.util;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.aws.client.AWSConstants;
+import org.wso2.aws.client.model.DeploymentSettings;
+import org.wso2.aws.client.model.ThrottlingLimit;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.CORSConfiguration;
+import org.wso2.carbon.apimgt.api.model.GatewayAPIValidationResult;
+import org.wso2.carbon.apimgt.api.model.OperationPolicy;
 import org.wso2.carbon.apimgt.api.model.URITemplate;
 import software.amazon.awssdk.services.apigateway.ApiGatewayClient;
-import software.amazon.awssdk.services.apigateway.model.AuthorizerType;
-import software.amazon.awssdk.services.apigateway.model.CreateAuthorizerRequest;
-import software.amazon.awssdk.services.apigateway.model.CreateAuthorizerResponse;
-import software.amazon.awssdk.services.apigateway.model.DeleteAuthorizerRequest;
 import software.amazon.awssdk.services.apigateway.model.DeleteRestApiRequest;
-import software.amazon.awssdk.services.apigateway.model.GetMethodRequest;
-import software.amazon.awssdk.services.apigateway.model.GetMethodResponse;
-import software.amazon.awssdk.services.apigateway.model.IntegrationType;
-import software.amazon.awssdk.services.apigateway.model.MethodResponse;
-import software.amazon.awssdk.services.apigateway.model.Op;
-import software.amazon.awssdk.services.apigateway.model.PatchOperation;
-import software.amazon.awssdk.services.apigateway.model.PutIntegrationRequest;
-import software.amazon.awssdk.services.apigateway.model.PutIntegrationResponseRequest;
-import software.amazon.awssdk.services.apigateway.model.PutMethodRequest;
-import software.amazon.awssdk.services.apigateway.model.PutMethodResponseRequest;
-import software.amazon.awssdk.services.apigateway.model.Resource;
-import software.amazon.awssdk.services.apigateway.model.UpdateGatewayResponseRequest;
-import software.amazon.awssdk.services.apigateway.model.UpdateIntegrationResponseRequest;
-import software.amazon.awssdk.services.apigateway.model.UpdateMethodResponseRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 
 /**
  * This class contains utility methods for the AWS API Gateway
  */
 public class GatewayUtil {
+    private static final Log log = LogFactory.getLog(GatewayUtil.class);
 
     private static final Pattern VALID_PATH_PATTERN = Pattern.compile("^[a-zA-Z0-9-._~%!$&'()*+,;=:@/]*$");
+    private static final Pattern STAGE_VARIABLE_ENDPOINT_PATTERN =
+            Pattern.compile("^(https?)://([a-zA-Z0-9-._~:/?#&=,]+)$");
 
     public static String getAWSApiIdFromReferenceArtifact(String referenceArtifact) throws APIManagementException {
+        JsonObject compactArtifact = parseReferenceArtifact(referenceArtifact);
+        if (compactArtifact != null && compactArtifact.has(AWSConstants.REFERENCE_ARTIFACT_ID_FIELD)) {
+            return compactArtifact.get(AWSConstants.REFERENCE_ARTIFACT_ID_FIELD).getAsString();
+        }
         Pattern pattern = Pattern.compile(AWSConstants.AWS_ID_PATTERN);
         Matcher matcher = pattern.matcher(referenceArtifact);
 
@@ -75,6 +88,141 @@ public class GatewayUtil {
         }
     }
 
+    /**
+     * Returns the AWS partition of the given region, which the ARNs of the resources in the region are scoped to.
+     */
+    public static String getPartition(String region) {
+        if (region.startsWith("cn-")) {
+            return "aws-cn";
+        }
+        if (region.startsWith("us-gov-")) {
+            return "aws-us-gov";
+        }
+        return "aws";
+    }
+
+    /**
+     * Returns the key under which the requests of an API are serialized. Once an API is deployed, its requests are
+     * keyed by the AWS API ID, which is the only identifier known to undeploy requests. A first deployment has no
+     * AWS API yet and is keyed by the API UUID, which the requests that wait for it share.
+     *
+     * @param api               API being deployed
+     * @param externalReference Reference artifact of the deployed API, or null if it is not deployed
+     * @return Key of the API
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static String getDeploymentKey(API api, String externalReference) throws APIManagementException {
+        return externalReference != null ? getAWSApiIdFromReferenceArtifact(externalReference) : api.getUuid();
+    }
+
+    /**
+     * Returns whether the given reference artifact belongs to an HTTP API. Only the artifacts of HTTP APIs carry an
+     * API type, the others belong to REST APIs.
+     *
+     * @param referenceArtifact Reference artifact of the API
+     * @return true if the API is deployed as an HTTP API
+     */
+    public static boolean isHttpAPIReferenceArtifact(String referenceArtifact) {
+        JsonObject compactArtifact = parseReferenceArtifact(referenceArtifact);
+        return compactArtifact != null && compactArtifact.has(AWSConstants.REFERENCE_ARTIFACT_API_TYPE_FIELD)
+                && AWSConstants.API_TYPE_HTTP.equalsIgnoreCase(
+                compactArtifact.get(AWSConstants.REFERENCE_ARTIFACT_API_TYPE_FIELD).getAsString());
+    }
+
+    /**
+     * Returns whether a discovered API has changed, comparing the fingerprints of its reference artifacts. An API
+     * that is now of another API type, or whose artifacts predate fingerprints, is compared by the whole artifact.
+     *
+     * @param existingReferenceArtifact Reference artifact of the API as it was discovered before
+     * @param newReferenceArtifact      Reference artifact of the API as it is discovered now
+     * @return true if the API has changed
+     */
+    public static boolean isReferenceArtifactUpdated(String existingReferenceArtifact, String newReferenceArtifact) {
+        String existingFingerprint = getReferenceArtifactFingerprint(existingReferenceArtifact);
+        String newFingerprint = getReferenceArtifactFingerprint(newReferenceArtifact);
+        if (existingFingerprint == null || newFingerprint == null
+                || isHttpAPIReferenceArtifact(existingReferenceArtifact)
+                != isHttpAPIReferenceArtifact(newReferenceArtifact)) {
+            return !existingReferenceArtifact.equals(newReferenceArtifact);
+        }
+        return !existingFingerprint.equals(newFingerprint);
+    }
+
+    /**
+     * Returns the definition fingerprint of a versioned reference artifact, or null if the artifact is in a legacy
+     * format that does not carry one.
+     *
+     * @param referenceArtifact Reference artifact of the API
+     * @return Fingerprint of the API definition
+     */
+    public static String getReferenceArtifactFingerprint(String referenceArtifact) {
+        JsonObject compactArtifact = parseReferenceArtifact(referenceArtifact);
+        if (compactArtifact == null || !compactArtifact.has(AWSConstants.REFERENCE_ARTIFACT_FINGERPRINT_FIELD)) {
+            return null;
+        }
+        return compactArtifact.get(AWSConstants.REFERENCE_ARTIFACT_FINGERPRINT_FIELD).getAsString();
+    }
+
+    private static JsonObject parseReferenceArtifact(String referenceArtifact) {
+        if (referenceArtifact == null || !referenceArtifact.startsWith("{")) {
+            return null;
+        }
+        try {
+            JsonObject artifact = JsonParser.parseString(referenceArtifact).getAsJsonObject();
+            return artifact.has(AWSConstants.REFERENCE_ARTIFACT_VERSION_FIELD) ? artifact : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes a SHA-256 fingerprint over the canonical form of the given JSON values, i.e. with the members of all
+     * objects ordered by name. The canonical form is streamed into the digest without being materialized.
+     *
+     * @param values JSON values to be fingerprinted, in order
+     * @return Hex encoded SHA-256 digest
+     */
+    public static String fingerprint(JsonElement... values) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest), StandardCharsets.UTF_8))) {
+            writer.beginArray();
+            for (JsonElement value : values) {
+                writeCanonical(writer, value);
+            }
+            writer.endArray();
+        } catch (IOException e) {
+            // cannot happen as nothing is written to an actual stream
+            throw new IllegalStateException("Error while computing fingerprint", e);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private static void writeCanonical(JsonWriter writer, JsonElement value) throws IOException {
+        if (value == null || value.isJsonNull()) {
+            writer.nullValue();
+        } else if (value.isJsonObject()) {
+            Map<String, JsonElement> members = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> member : value.getAsJsonObject().entrySet()) {
+                members.put(member.getKey(), member.getValue());
+            }
+            writer.beginObject();
+            for (Map.Entry<String, JsonElement> member : members.entrySet()) {
+                writer.name(member.getKey());
+                writeCanonical(writer, member.getValue());
+            }
+            writer.endObject();
+        } else if (value.isJsonArray()) {
+            writer.beginArray();
+            for (JsonElement element : value.getAsJsonArray()) {
+                writeCanonical(writer, element);
+            }
+            writer.endArray();
+        } else {
+            writer.jsonValue(value.toString());
+        }
+    }
+
     public static void rollbackDeployment(ApiGatewayClient apiGatewayClient, String awsApiId)
             throws APIManagementException {
         if (apiGatewayClient != null && awsApiId != null) {
@@ -106,6 +254,42 @@ public class GatewayUtil {
         }
     }
 
+    /**
+     * Returns the value of the backend stage variable for the given endpoint, i.e. the endpoint without its scheme,
+     * or null if the endpoint contains characters that are not allowed in stage variable values.
+     *
+     * @param endpoint Production endpoint of the API
+     * @return Value of the backend stage variable
+     */
+    public static String getBackendStageVariable(String endpoint) {
+        if (StringUtils.isEmpty(endpoint)) {
+            return null;
+        }
+        Matcher matcher = STAGE_VARIABLE_ENDPOINT_PATTERN.matcher(endpoint);
+        return matcher.matches() ? matcher.group(2) : null;
+    }
+
+    /**
+     * Returns the endpoint the integrations of the API should refer to. When stage variable endpoints are used, the
+     * scheme stays in the integration URI and the rest of the endpoint is resolved from the backend stage variable,
+     * so that a change of the backend only requires updating the stage.
+     *
+     * @param endpoint              Production endpoint of the API
+     * @param stageVariableEndpoint Whether the endpoint should be resolved from the backend stage variable
+     * @return Endpoint to be used in the integration URIs
+     */
+    public static String getIntegrationEndpoint(String endpoint, boolean stageVariableEndpoint) {
+        if (!stageVariableEndpoint || endpoint == null) {
+            return endpoint;
+        }
+        Matcher matcher = STAGE_VARIABLE_ENDPOINT_PATTERN.matcher(endpoint);
+        if (!matcher.matches()) {
+            log.warn("Endpoint " + endpoint + " cannot be stored in a stage variable. Using it in the integrations");
+            return endpoint;
+        }
+        return matcher.group(1) + "://${stageVariables." + AWSConstants.BACKEND_STAGE_VARIABLE + "}";
+    }
+
     public static String validateAWSAPIEndpoint(String urlString) {
         try {
             if (StringUtils.isEmpty(urlString)) {
@@ -135,6 +319,67 @@ public class GatewayUtil {
         }
     }
 
+    /**
+     * Validates an API against the features of the AWS API type it is deployed as.
+     *
+     * @param api                API to be deployed
+     * @param httpAPI            Whether the API is deployed as an HTTP API
+     * @param deploymentSettings Deployment settings of the environment, or null if they do not apply
+     * @return Validation result
+     * @throws APIManagementException If the endpoint configuration of the API cannot be read
+     */
+    public static GatewayAPIValidationResult validateAPI(API api, boolean httpAPI,
+                                                         DeploymentSettings deploymentSettings)
+            throws APIManagementException {
+        List<String> errorList = new ArrayList<>();
+        // Endpoint validation
+        errorList.add(validateAWSAPIEndpoint(getEndpointURL(api)));
+        // Check for wildcard in the resources
+        errorList.add(validateResourceContexts(api));
+        // Check the result caching parameters of the authorizer policies
+        errorList.add(validateAuthorizerPolicies(api));
+        if (httpAPI) {
+            // Check for features that are not available with HTTP APIs
+            errorList.add(validateHttpAPI(api));
+        } else {
+            // Check the response caching settings against the limits of the stage cache
+            errorList.add(validateResponseCaching(api));
+            // Check the payload compression setting against the limits of AWS
+            errorList.add(validateCompression(api));
+            // Check for features that are not available with proxy integrations
+            if (deploymentSettings != null && deploymentSettings.isHttpProxyIntegration()) {
+                errorList.add(validateHttpProxyIntegration(api));
+            }
+        }
+
+        GatewayAPIValidationResult result = new GatewayAPIValidationResult();
+        result.setValid(errorList.stream().allMatch(Objects::isNull));
+        result.setErrors(errorList.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+        return result;
+    }
+
+    /**
+     * Changes all /* resources of the API to /, as AWS API Gateway does not accept wildcard resources.
+     *
+     * @param api API to be deployed
+     */
+    public static void transformAPI(API api) {
+        for (URITemplate resource : api.getUriTemplates()) {
+            if (resource.getUriTemplate().endsWith("/*")) {
+                resource.setUriTemplate(resource.getUriTemplate().replace("/*", "/"));
+            }
+        }
+    }
+
+    /**
+     * Logs the plan of a dry run. No changes are applied to AWS API Gateway.
+     *
+     * @param plan Description of the deployment plan
+     */
+    public static void reportDryRun(String plan) {
+        log.info("Dry run of AWS API Gateway deployment plan, no changes were applied:\n" + plan);
+    }
+
     public static String validateResourceContexts(API api) {
         Set<URITemplate> uriTemplates = api.getUriTemplates();
 
@@ -148,115 +393,312 @@ public class GatewayUtil {
         return null;
     }
 
-    public static void configureOptionsCallForCORS(String apiId, Resource resource, ApiGatewayClient apiGatewayClient) {
-        //configure CORS
-        PutMethodRequest putMethodRequest = PutMethodRequest.builder().restApiId(apiId)
-                .resourceId(resource.id()).httpMethod("OPTIONS").authorizationType("NONE")
-                .apiKeyRequired(false).build();
-        apiGatewayClient.putMethod(putMethodRequest);
-
-        PutMethodResponseRequest putMethodResponseRequest = PutMethodResponseRequest.builder()
-                .restApiId(apiId).resourceId(resource.id()).httpMethod("OPTIONS").statusCode("200")
-                .responseModels(new HashMap<>())
-                .build();
-        apiGatewayClient.putMethodResponse(putMethodResponseRequest);
-
-        PutIntegrationRequest putMethodIntegrationRequest = PutIntegrationRequest.builder()
-                .restApiId(apiId).resourceId(resource.id()).httpMethod("OPTIONS")
-                .integrationHttpMethod("OPTIONS").type(IntegrationType.MOCK)
-                .requestTemplates(Map.of("application/json", "{\"statusCode\": 200}"))
-                .build();
-        apiGatewayClient.putIntegration(putMethodIntegrationRequest);
-
-        PutIntegrationResponseRequest putIntegrationResponseRequest = PutIntegrationResponseRequest.builder()
-                .restApiId(apiId).resourceId(resource.id()).httpMethod("OPTIONS").statusCode("200")
-                .responseTemplates(Map.of("application/json", ""))
-                .build();
-        apiGatewayClient.putIntegrationResponse(putIntegrationResponseRequest);
-
-        UpdateMethodResponseRequest updateMethodResponseRequest = UpdateMethodResponseRequest.builder()
-                .restApiId(apiId).resourceId(resource.id()).httpMethod("OPTIONS").statusCode("200")
-                .patchOperations(PatchOperation.builder().op(Op.ADD).path("/responseParameters/method" +
-                                ".response.header.Access-Control-Allow-Origin").build(),
-                        PatchOperation.builder().op(Op.ADD).path("/responseParameters/method.response" +
-                                ".header.Access-Control-Allow-Methods").build(),
-                        PatchOperation.builder().op(Op.ADD).path("/responseParameters/method.response" +
-                                ".header.Access-Control-Allow-Headers").build()).build();
-        apiGatewayClient.updateMethodResponse(updateMethodResponseRequest);
-
-        UpdateIntegrationResponseRequest updateIntegrationResponseRequest = UpdateIntegrationResponseRequest.builder()
-                .restApiId(apiId).resourceId(resource.id()).httpMethod("OPTIONS").statusCode("200")
-                .patchOperations(PatchOperation.builder().op(Op.ADD).path("/responseParameters/method" +
-                                ".response.header.Access-Control-Allow-Origin").value("'*'").build(),
-                        PatchOperation.builder().op(Op.ADD).path("/responseParameters/method.response" +
-                                ".header.Access-Control-Allow-Methods").value("'GET,OPTIONS'").build(),
-                        PatchOperation.builder().op(Op.ADD).path("/responseParameters/method.response" +
-                                        ".header.Access-Control-Allow-Headers")
-                                .value("'Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token'").build())
-                .build();
-        apiGatewayClient.updateIntegrationResponse(updateIntegrationResponseRequest);
-
-        UpdateGatewayResponseRequest updateGatewayResponseRequest = UpdateGatewayResponseRequest.builder()
-                .restApiId(apiId).responseType("DEFAULT_4XX")
-                .patchOperations(PatchOperation.builder().op(Op.ADD).path("/responseParameters/" +
-                                "gatewayresponse.header.Access-Control-Allow-Origin").value("'*'").build(),
-                        PatchOperation.builder().op(Op.ADD).path("/responseParameters/gatewayresponse." +
-                                "header.Access-Control-Allow-Methods").value("'GET,OPTIONS'").build(),
-                        PatchOperation.builder().op(Op.ADD).path("/responseParameters/gatewayresponse." +
-                                        "header.Access-Control-Allow-Headers")
-                                .value("'Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token'").build())
-                .build();
-        apiGatewayClient.updateGatewayResponse(updateGatewayResponseRequest);
-    }
-
-    public static void configureCORSHeadersAtMethodLevel(String apiId, Resource resource, String httpMethod,
-                                                          ApiGatewayClient apiGatewayClient) {
-        GetMethodRequest getMethodRequest = GetMethodRequest.builder().restApiId(apiId).resourceId(resource.id())
-                .httpMethod(httpMethod).build();
-        GetMethodResponse getMethodResponse = apiGatewayClient.getMethod(getMethodRequest);
-
-        if (getMethodResponse.hasMethodResponses()) {
-            Map<String, MethodResponse> responses = getMethodResponse.methodResponses();
-            for (Map.Entry<String, MethodResponse> entry : responses.entrySet()) {
-                UpdateMethodResponseRequest updateMethodResponseRequest = UpdateMethodResponseRequest.builder()
-                        .restApiId(apiId).resourceId(resource.id()).httpMethod(httpMethod).statusCode(entry.getKey())
-                        .patchOperations(PatchOperation.builder().op(Op.ADD).path("/responseParameters/method" +
-                                ".response.header.Access-Control-Allow-Origin").build()).build();
-                apiGatewayClient.updateMethodResponse(updateMethodResponseRequest);
+    /**
+     * Returns whether response caching is enabled for the API.
+     *
+     * @param api API to be deployed
+     * @return true if the responses of the API should be cached by the stage
+     */
+    public static boolean isResponseCachingEnabled(API api) {
+        return AWSConstants.RESPONSE_CACHE_ENABLED.equalsIgnoreCase(api.getResponseCache());
+    }
+
+    /**
+     * Validates the cache timeout of an API with response caching enabled against the TTL range of the stage
+     * cache.
+     *
+     * @param api API to be deployed
+     * @return Validation error, or null if the settings are valid
+     */
+    public static String validateResponseCaching(API api) {
+        if (isResponseCachingEnabled(api)
+                && (api.getCacheTimeout() < 0 || api.getCacheTimeout() > AWSConstants.MAX_CACHE_TTL)) {
+            return "Response cache timeout must be between 0 and " + AWSConstants.MAX_CACHE_TTL
+                    + " seconds for AWS API Gateway: " + api.getCacheTimeout();
+        }
+        return null;
+    }
+
+    /**
+     * Validates that the API does not rely on features that HTTP_PROXY integrations cannot provide. Since proxy
+     * integrations have no integration responses, the CORS headers of actual responses cannot be mapped by the
+     * gateway and have to be returned by the backend, so APIs with a CORS configuration are rejected. Response
+     * caching remains available, but query parameters that are not declared in the definition are proxied without
+     * being part of the cache key.
+     *
+     * @param api API to be deployed
+     * @return Validation error, or null if the API can be deployed with HTTP_PROXY integrations
+     */
+    public static String validateHttpProxyIntegration(API api) {
+        CORSConfiguration corsConfiguration = api.getCorsConfiguration();
+        if (corsConfiguration != null && corsConfiguration.isCorsConfigurationEnabled()) {
+            return "CORS response headers cannot be added to the responses of HTTP_PROXY integrations. Disable the "
+                    + "CORS configuration of the API and return the CORS headers from the backend, or deploy it to "
+                    + "an environment that uses " + AWSConstants.INTEGRATION_MODE_HTTP + " integrations";
+        }
+        return null;
+    }
+
+    /**
+     * Validates the result caching parameters of the {@code awsOAuth2} policies of the API.
+     *
+     * @param api API to be deployed
+     * @return Validation error, or null if the parameters are valid
+     */
+    public static String validateAuthorizerPolicies(API api) {
+        for (OperationPolicy policy : getAuthorizerPolicies(api)) {
+            try {
+                getAuthorizerResultTtl(policy.getParameters());
+                getIdentityValidationExpression(policy.getParameters());
+            } catch (APIManagementException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Warns about the throttling policies of the API whose limit cannot be translated to AWS API Gateway throttling,
+     * as they are deployed without any throttling at the edge. Only policies named after their limit per second,
+     * minute or hour, e.g. 10KPerMin, are translated.
+     *
+     * @param api API to be deployed
+     */
+    public static void warnUnenforcedThrottlingPolicies(API api) {
+        Set<String> policies = new TreeSet<>();
+        if (StringUtils.isNotEmpty(api.getApiLevelPolicy())) {
+            policies.add(api.getApiLevelPolicy());
+        } else if (api.getUriTemplates() != null) {
+            for (URITemplate uriTemplate : api.getUriTemplates()) {
+                if (StringUtils.isNotEmpty(uriTemplate.getThrottlingTier())) {
+                    policies.add(uriTemplate.getThrottlingTier());
+                }
+            }
+        }
+        policies.removeIf(policy -> AWSConstants.UNLIMITED_TIER.equalsIgnoreCase(policy)
+                || ThrottlingLimit.fromTierName(policy) != null);
+        if (!policies.isEmpty()) {
+            log.warn("Throttling policies " + policies + " of API " + api.getId() + " are not enforced by AWS API "
+                    + "Gateway. Only policies named after their limit per second, minute or hour, e.g. 10KPerMin, "
+                    + "are translated to AWS throttling limits");
+        }
+    }
+
+    /**
+     * Validates that the API only relies on features that HTTP APIs provide and that the JWT settings of its
+     * {@code awsOAuth2} policies are complete. HTTP APIs have no response cache.
+     *
+     * @param api API to be deployed
+     * @return Validation error, or null if the API can be deployed as an HTTP API
+     */
+    public static String validateHttpAPI(API api) {
+        if (isResponseCachingEnabled(api)) {
+            return "Response caching is not supported by AWS HTTP APIs. Disable response caching for the API or "
+                    + "deploy it to an environment that uses " + AWSConstants.API_TYPE_REST + " APIs";
+        }
+        for (OperationPolicy policy : getAuthorizerPolicies(api)) {
+            try {
+                if (getJwtIssuer(policy.getParameters()) != null) {
+                    getJwtAudience(policy.getParameters());
+                }
+            } catch (APIManagementException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private static List<OperationPolicy> getAuthorizerPolicies(API api) {
+        List<OperationPolicy> policies = new ArrayList<>();
+        if (api.getApiPolicies() != null) {
+            policies.addAll(api.getApiPolicies());
+        }
+        if (api.getUriTemplates() != null) {
+            for (URITemplate uriTemplate : api.getUriTemplates()) {
+                if (uriTemplate.getOperationPolicies() != null) {
+                    policies.addAll(uriTemplate.getOperationPolicies());
+                }
+            }
+        }
+        policies.removeIf(policy -> !AWSConstants.AWS_OPERATION_POLICY_NAME.equals(policy.getPolicyName()));
+        return policies;
+    }
+
+    /**
+     * Reads the time for which API Gateway caches the decision of a Lambda authorizer per token from the parameters
+     * of an {@code awsOAuth2} policy. Caching is disabled if the parameter is not set.
+     *
+     * @param parameters Parameters of the policy
+     * @return Result TTL in seconds
+     * @throws APIManagementException If the parameter is not a number of seconds within the range allowed by AWS
+     */
+    public static int getAuthorizerResultTtl(Map<String, Object> parameters) throws APIManagementException {
+        Object value = parameters.get(AWSConstants.OPERATION_POLICY_RESULT_TTL_PARAMETER);
+        if (value == null || StringUtils.isBlank(value.toString())) {
+            return 0;
+        }
+        try {
+            int resultTtl = new BigDecimal(value.toString().trim()).intValueExact();
+            if (resultTtl >= 0 && resultTtl <= AWSConstants.MAX_AUTHORIZER_RESULT_TTL) {
+                return resultTtl;
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            // reported below
+        }
+        throw new APIManagementException("Authorizer result TTL must be between 0 and "
+                + AWSConstants.MAX_AUTHORIZER_RESULT_TTL + " seconds: " + value);
+    }
+
+    /**
+     * Reads the regular expression tokens are validated against before the Lambda authorizer is invoked from the
+     * parameters of an {@code awsOAuth2} policy.
+     *
+     * @param parameters Parameters of the policy
+     * @return Identity validation expression, or null if it is not set
+     * @throws APIManagementException If the expression is not a valid regular expression
+     */
+    public static String getIdentityValidationExpression(Map<String, Object> parameters)
+            throws APIManagementException {
+        Object value = parameters.get(AWSConstants.OPERATION_POLICY_IDENTITY_VALIDATION_PARAMETER);
+        if (value == null || StringUtils.isBlank(value.toString())) {
+            return null;
+        }
+        try {
+            Pattern.compile(value.toString());
+        } catch (PatternSyntaxException e) {
+            throw new APIManagementException("Invalid authorizer identity validation expression: " + value, e);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Reads the issuer of the tokens accepted by the native JWT authorizer of an HTTP API from the parameters of an
+     * {@code awsOAuth2} policy.
+     *
+     * @param parameters Parameters of the policy
+     * @return Issuer URL, or null if the policy is enforced by a Lambda authorizer
+     * @throws APIManagementException If the issuer is not an HTTPS URL
+     */
+    public static String getJwtIssuer(Map<String, Object> parameters) throws APIManagementException {
+        Object value = parameters.get(AWSConstants.OPERATION_POLICY_JWT_ISSUER_PARAMETER);
+        if (value == null || StringUtils.isBlank(value.toString())) {
+            return null;
+        }
+        String issuer = value.toString().trim();
+        if (!issuer.startsWith("https://")) {
+            throw new APIManagementException("JWT issuer of the authorizer must be an HTTPS URL: " + issuer);
+        }
+        return issuer;
+    }
+
+    /**
+     * Reads the comma separated audiences of the tokens accepted by the native JWT authorizer of an HTTP API from
+     * the parameters of an {@code awsOAuth2} policy.
+     *
+     * @param parameters Parameters of the policy
+     * @return Accepted audiences
+     * @throws APIManagementException If no audience is set
+     */
+    public static List<String> getJwtAudience(Map<String, Object> parameters) throws APIManagementException {
+        Object value = parameters.get(AWSConstants.OPERATION_POLICY_JWT_AUDIENCE_PARAMETER);
+        List<String> audience = new ArrayList<>();
+        if (value != null) {
+            for (String entry : value.toString().split(",")) {
+                if (StringUtils.isNotBlank(entry)) {
+                    audience.add(entry.trim());
+                }
             }
+        }
+        if (audience.isEmpty()) {
+            throw new APIManagementException("At least one JWT audience is required for the JWT authorizer of "
+                    + "issuer: " + parameters.get(AWSConstants.OPERATION_POLICY_JWT_ISSUER_PARAMETER));
+        }
+        return audience;
+    }
 
-            UpdateIntegrationResponseRequest updateIntegrationResponseRequest =
-                    UpdateIntegrationResponseRequest.builder()
-                            .restApiId(apiId).resourceId(resource.id()).httpMethod(httpMethod).statusCode("200")
-                            .patchOperations(PatchOperation.builder().op(Op.ADD).path("/responseParameters/method" +
-                                    ".response.header.Access-Control-Allow-Origin").value("'*'").build()).build();
-            apiGatewayClient.updateIntegrationResponse(updateIntegrationResponseRequest);
+    /**
+     * Resolves the minimum size in bytes of the responses of the API that API Gateway compresses, read from the
+     * {@code aws_minimum_compression_size} property of the API and falling back to the default of the environment.
+     * A negative property value disables compression for the API.
+     *
+     * @param api         API to be deployed
+     * @param defaultSize Default of the environment, or null if compression is disabled by default
+     * @return Minimum compression size, or null if compression is disabled
+     * @throws APIManagementException If the property is not a number or exceeds the maximum allowed by AWS
+     */
+    public static Integer getMinimumCompressionSize(API api, Integer defaultSize) throws APIManagementException {
+        Object value = api.getAdditionalProperties() != null
+                ? api.getAdditionalProperties().get(AWSConstants.API_PROPERTY_MINIMUM_COMPRESSION_SIZE) : null;
+        if (value == null || StringUtils.isBlank(value.toString())) {
+            return defaultSize;
+        }
+        try {
+            int size = Integer.parseInt(value.toString().trim());
+            if (size < 0) {
+                return null;
+            }
+            if (size <= AWSConstants.MAX_MINIMUM_COMPRESSION_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
         }
+        throw new APIManagementException("Minimum compression size must be at most "
+                + AWSConstants.MAX_MINIMUM_COMPRESSION_SIZE + " bytes, or negative to disable compression: " + value);
     }
 
-    public static CreateAuthorizerResponse getAuthorizer(String awsApiId, String name, String lambdaArn, String roleArn,
-                                                         String region, ApiGatewayClient apiGatewayClient) {
+    /**
+     * Validates the minimum compression size property of the API.
+     *
+     * @param api API to be deployed
+     * @return Validation error, or null if the property is valid or not set
+     */
+    public static String validateCompression(API api) {
+        try {
+            getMinimumCompressionSize(api, null);
+            return null;
+        } catch (APIManagementException e) {
+            return e.getMessage();
+        }
+    }
 
-        CreateAuthorizerRequest createAuthorizerRequest = CreateAuthorizerRequest.builder()
-                .restApiId(awsApiId)
-                .name(name + "-authorizer")
-                .type(AuthorizerType.TOKEN)
-                .identitySource("method.request.header.Authorization")
-                .authorizerUri("arn:aws:apigateway:" + region + ":lambda:path/2015-03-31/functions/" + lambdaArn +
-                        "/invocations")
-                .authorizerCredentials(roleArn)
-                .authorizerResultTtlInSeconds(0)
-                .build();
-        return apiGatewayClient.createAuthorizer(createAuthorizerRequest);
+    /**
+     * Reads a positive integer property from the additional properties of an environment.
+     *
+     * @param properties   Additional properties of the environment
+     * @param key          Property key
+     * @param defaultValue Value returned when the property is not set or is invalid
+     * @return Value of the property
+     */
+    public static int getIntegerProperty(Map<String, String> properties, String key, int defaultValue) {
+        return getIntegerProperty(properties, key, defaultValue, 1);
     }
 
-    public static void deleteAuthorizer(String awsApiId, String authorizerId, ApiGatewayClient apiGatewayClient) {
-        DeleteAuthorizerRequest deleteAuthorizerRequest = DeleteAuthorizerRequest.builder()
-                .restApiId(awsApiId)
-                .authorizerId(authorizerId)
-                .build();
+    /**
+     * Reads an integer property that may be zero from the additional properties of an environment.
+     *
+     * @param properties   Additional properties of the environment
+     * @param key          Property key
+     * @param defaultValue Value returned when the property is not set or is invalid
+     * @return Value of the property
+     */
+    public static int getNonNegativeIntegerProperty(Map<String, String> properties, String key, int defaultValue) {
+        return getIntegerProperty(properties, key, defaultValue, 0);
+    }
 
-        apiGatewayClient.deleteAuthorizer(deleteAuthorizerRequest);
+    private static int getIntegerProperty(Map<String, String> properties, String key, int defaultValue,
+                                          int minimum) {
+        String value = properties != null ? properties.get(key) : null;
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int parsedValue = Integer.parseInt(value.trim());
+            return parsedValue >= minimum ? parsedValue : defaultValue;
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value '" + value + "' for property " + key + ". Using default value " + defaultValue);
+            return defaultValue;
+        }
     }
 
     public static List<String> extractPathParams(String path) {
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.CORSConfiguration;
+import org.wso2.carbon.apimgt.api.model.OperationPolicy;
+import org.wso2.carbon.apimgt.api.model.URITemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Enriches the OpenAPI definition of an API with the AWS API Gateway extensions required to build the complete
+ * HTTP API (proxy integrations, JWT or Lambda authorizers and CORS) through a single import call.
+ */
+public class HttpAPIEnricher {
+
+    private static final Log log = LogFactory.getLog(HttpAPIEnricher.class);
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String[] HTTP_METHODS = {"get", "put", "post", "delete", "options", "head", "patch"};
+
+    private final API api;
+    private final String region;
+    private final boolean stageVariableEndpoint;
+    private boolean swagger2;
+
+    /**
+     * Creates an enricher whose integrations optionally resolve the backend from the backend stage variable.
+     *
+     * @param api                   API to be deployed
+     * @param region                AWS region of the gateway environment
+     * @param stageVariableEndpoint Whether the backend should be resolved from the backend stage variable
+     */
+    public HttpAPIEnricher(API api, String region, boolean stageVariableEndpoint) {
+        this.api = api;
+        this.region = region;
+        this.stageVariableEndpoint = stageVariableEndpoint;
+    }
+
+    /**
+     * Returns the OpenAPI definition of the API with the AWS API Gateway extensions of HTTP APIs injected.
+     *
+     * @return Enriched OpenAPI definition in JSON format
+     * @throws APIManagementException If the definition or the endpoint configuration cannot be processed
+     */
+    public String enrich() throws APIManagementException {
+        JsonObject definition;
+        try {
+            definition = JsonParser.parseString(api.getSwaggerDefinition()).getAsJsonObject();
+        } catch (RuntimeException e) {
+            throw new APIManagementException("Error while parsing the OpenAPI definition of API: " + api.getId(), e);
+        }
+        swagger2 = definition.has("swagger");
+
+        String endpoint = GatewayUtil.getIntegrationEndpoint(GatewayUtil.getEndpointURL(api), stageVariableEndpoint);
+        Map<String, OperationPolicy> authorizerMapping = getAuthorizerMapping();
+        JsonObject securitySchemes = getSecuritySchemes(definition);
+
+        JsonObject paths = definition.has("paths") ? definition.getAsJsonObject("paths") : new JsonObject();
+        for (Map.Entry<String, JsonElement> pathEntry : paths.entrySet()) {
+            String path = pathEntry.getKey();
+            JsonObject pathItem = pathEntry.getValue().getAsJsonObject();
+
+            for (String httpMethod : HTTP_METHODS) {
+                if (!pathItem.has(httpMethod) || "options".equals(httpMethod)) {
+                    continue;
+                }
+                JsonObject operation = pathItem.getAsJsonObject(httpMethod);
+                operation.add(AWSConstants.OPENAPI_INTEGRATION_EXTENSION,
+                        buildHttpProxyIntegration(httpMethod, endpoint + path));
+
+                OperationPolicy authorizer = authorizerMapping.get(path.toLowerCase() + "|" + httpMethod);
+                if (authorizer == null) {
+                    authorizer = authorizerMapping.get(AWSConstants.OPERATION_POLICY_API);
+                }
+                if (authorizer != null) {
+                    String authorizerName = addAuthorizer(securitySchemes, authorizer);
+                    JsonArray security = new JsonArray();
+                    JsonObject requirement = new JsonObject();
+                    requirement.add(authorizerName, new JsonArray());
+                    security.add(requirement);
+                    operation.add("security", security);
+                } else if (log.isDebugEnabled()) {
+                    log.debug("Authorizer not found for the resource: " + path + " at API or Resource levels");
+                }
+            }
+            // preflight requests are answered by the CORS configuration of the HTTP API, which only applies to
+            // paths without an OPTIONS route
+            pathItem.remove("options");
+        }
+
+        definition.add(AWSConstants.OPENAPI_CORS_EXTENSION, buildCORSConfiguration());
+        return GSON.toJson(definition);
+    }
+
+    /**
+     * Builds the mapping of "path|verb" (or "API" for the API level policy) to the {@code awsOAuth2} policy that
+     * should protect it.
+     */
+    private Map<String, OperationPolicy> getAuthorizerMapping() {
+        Map<String, OperationPolicy> pathToPolicyMapping = new HashMap<>();
+
+        List<OperationPolicy> apiPolicies = api.getApiPolicies();
+        if (apiPolicies != null) {
+            for (OperationPolicy policy : apiPolicies) {
+                if (AWSConstants.AWS_OPERATION_POLICY_NAME.equals(policy.getPolicyName())) {
+                    pathToPolicyMapping.put(AWSConstants.OPERATION_POLICY_API, policy);
+                    break;
+                }
+            }
+        }
+
+        Set<URITemplate> uriTemplates = api.getUriTemplates();
+        if (uriTemplates != null) {
+            for (URITemplate resource : uriTemplates) {
+                List<OperationPolicy> resourcePolicies = resource.getOperationPolicies();
+                if (resourcePolicies == null) {
+                    continue;
+                }
+                for (OperationPolicy policy : resourcePolicies) {
+                    if (AWSConstants.AWS_OPERATION_POLICY_NAME.equals(policy.getPolicyName())) {
+                        pathToPolicyMapping.put(resource.getUriTemplate().toLowerCase() + "|"
+                                + resource.getHTTPVerb().toLowerCase(), policy);
+                        break;
+                    }
+                }
+            }
+        }
+        return pathToPolicyMapping;
+    }
+
+    private JsonObject getSecuritySchemes(JsonObject definition) {
+        if (swagger2) {
+            if (!definition.has("securityDefinitions")) {
+                definition.add("securityDefinitions", new JsonObject());
+            }
+            return definition.getAsJsonObject("securityDefinitions");
+        }
+        if (!definition.has("components")) {
+            definition.add("components", new JsonObject());
+        }
+        JsonObject components = definition.getAsJsonObject("components");
+        if (!components.has("securitySchemes")) {
+            components.add("securitySchemes", new JsonObject());
+        }
+        return components.getAsJsonObject("securitySchemes");
+    }
+
+    /**
+     * Adds the security scheme of the authorizer configured by the given policy if it is not already defined and
+     * returns the name of the scheme. Policies with a JWT issuer are enforced by a native JWT authorizer, the others
+     * by a Lambda REQUEST authorizer. HTTP APIs have no TOKEN authorizers, so the authorizer uses the 1.0 payload
+     * format, which expects the same IAM policy response as the TOKEN authorizers of REST APIs. The Lambda function
+     * receives the token in the Authorization header of the request event, rather than as the authorizationToken
+     * of a TOKEN event.
+     */
+    private String addAuthorizer(JsonObject securitySchemes, OperationPolicy policy) throws APIManagementException {
+        Map<String, Object> parameters = policy.getParameters();
+        String issuer = GatewayUtil.getJwtIssuer(parameters);
+        JsonObject authorizer = new JsonObject();
+        JsonObject securityScheme = new JsonObject();
+        String name;
+        if (issuer != null) {
+            JsonObject jwtConfiguration = new JsonObject();
+            jwtConfiguration.addProperty("issuer", issuer);
+            jwtConfiguration.add("audience", GSON.toJsonTree(GatewayUtil.getJwtAudience(parameters)));
+            authorizer.addProperty("type", "jwt");
+            authorizer.add("jwtConfiguration", jwtConfiguration);
+            authorizer.addProperty("identitySource", AWSConstants.HTTP_API_IDENTITY_SOURCE);
+
+            securityScheme.addProperty("type", "oauth2");
+            if (swagger2) {
+                securityScheme.addProperty("flow", "implicit");
+                securityScheme.addProperty("authorizationUrl", issuer);
+                securityScheme.add("scopes", new JsonObject());
+            } else {
+                securityScheme.add("flows", new JsonObject());
+            }
+            name = "jwt-authorizer";
+        } else {
+            String lambdaArn = parameters.get(AWSConstants.OPERATION_POLICY_ARN_PARAMETER).toString();
+            String invokeRoleArn = parameters.get(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER).toString();
+            if (GatewayUtil.getIdentityValidationExpression(parameters) != null) {
+                log.warn("Identity validation expressions are not supported by the authorizers of HTTP APIs. "
+                        + "Ignoring the expression of the authorizer of API: " + api.getId());
+            }
+            authorizer.addProperty("type", "request");
+            authorizer.addProperty("authorizerUri",
+                    String.format(AWSConstants.AUTHORIZER_URI_TEMPLATE, GatewayUtil.getPartition(region), region,
+                            lambdaArn));
+            authorizer.addProperty("authorizerCredentials", invokeRoleArn);
+            authorizer.addProperty("authorizerPayloadFormatVersion",
+                    AWSConstants.HTTP_API_AUTHORIZER_PAYLOAD_FORMAT_VERSION);
+            authorizer.addProperty("authorizerResultTtlInSeconds", GatewayUtil.getAuthorizerResultTtl(parameters));
+            authorizer.add("identitySource", GSON.toJsonTree(List.of(AWSConstants.HTTP_API_IDENTITY_SOURCE)));
+
+            securityScheme.addProperty("type", "apiKey");
+            securityScheme.addProperty("name", AWSConstants.AUTHORIZATION_HEADER);
+            securityScheme.addProperty("in", "header");
+            name = lambdaArn.substring(lambdaArn.lastIndexOf(':') + 1) + "-"
+                    + invokeRoleArn.substring(invokeRoleArn.lastIndexOf('/') + 1) + "-authorizer";
+        }
+        securityScheme.add(AWSConstants.OPENAPI_AUTHORIZER_EXTENSION, authorizer);
+
+        // authorizers with the same name but different settings are told apart by a fingerprint of the settings
+        if (securitySchemes.has(name) && !securityScheme.equals(securitySchemes.get(name))) {
+            name = name + "-" + GatewayUtil.fingerprint(authorizer).substring(0, 8);
+        }
+        if (!securitySchemes.has(name)) {
+            securitySchemes.add(name, securityScheme);
+        }
+        return name;
+    }
+
+    private static JsonObject buildHttpProxyIntegration(String httpMethod, String uri) {
+        JsonObject integration = new JsonObject();
+        integration.addProperty("type", "http_proxy");
+        integration.addProperty("httpMethod", httpMethod.toUpperCase());
+        integration.addProperty("uri", uri);
+        integration.addProperty("connectionType", "INTERNET");
+        integration.addProperty("payloadFormatVersion", AWSConstants.HTTP_API_PAYLOAD_FORMAT_VERSION);
+        return integration;
+    }
+
+    /**
+     * Builds the CORS configuration of the HTTP API from the CORS configuration of the API, falling back to the
+     * permissive defaults if CORS is not configured for the API. Unlike REST APIs, HTTP APIs answer preflight
+     * requests and add the headers to the responses themselves, and support several allowed origins.
+     */
+    private JsonObject buildCORSConfiguration() {
+        List<String> origins = null;
+        List<String> methods = null;
+        List<String> headers = null;
+        boolean allowCredentials = false;
+        CORSConfiguration corsConfiguration = api.getCorsConfiguration();
+        if (corsConfiguration != null && corsConfiguration.isCorsConfigurationEnabled()) {
+            origins = corsConfiguration.getAccessControlAllowOrigins();
+            methods = corsConfiguration.getAccessControlAllowMethods();
+            headers = corsConfiguration.getAccessControlAllowHeaders();
+            allowCredentials = corsConfiguration.isAccessControlAllowCredentials();
+        }
+        if (origins == null || origins.isEmpty()) {
+            origins = List.of(AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN);
+        }
+
+        JsonObject cors = new JsonObject();
+        cors.add("allowOrigins", GSON.toJsonTree(origins));
+        cors.add("allowMethods", GSON.toJsonTree(methods == null || methods.isEmpty()
+                ? List.of(StringUtils.split(AWSConstants.CORS_DEFAULT_ALLOW_METHODS, ',')) : methods));
+        cors.add("allowHeaders", GSON.toJsonTree(headers == null || headers.isEmpty()
+                ? List.of(StringUtils.split(AWSConstants.CORS_DEFAULT_ALLOW_HEADERS, ',')) : headers));
+        if (allowCredentials && !origins.contains(AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN)) {
+            // credentials are not allowed by browsers with a wildcard origin
+            cors.addProperty("allowCredentials", true);
+        }
+        return cors;
+    }
+}
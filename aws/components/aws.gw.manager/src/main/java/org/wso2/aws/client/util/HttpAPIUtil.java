@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.aws.client.model.ThrottlingLimit;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.APIIdentifier;
+import org.wso2.carbon.apimgt.api.model.Environment;
+import org.wso2.carbon.apimgt.api.model.URITemplate;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.apigatewayv2.ApiGatewayV2Client;
+import software.amazon.awssdk.services.apigatewayv2.model.Api;
+import software.amazon.awssdk.services.apigatewayv2.model.CreateStageRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.DeleteApiRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.DeleteRouteSettingsRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.DeleteStageRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.ExportApiRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.GetApisRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.GetApisResponse;
+import software.amazon.awssdk.services.apigatewayv2.model.GetStageRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.GetStageResponse;
+import software.amazon.awssdk.services.apigatewayv2.model.ImportApiRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.ImportApiResponse;
+import software.amazon.awssdk.services.apigatewayv2.model.NotFoundException;
+import software.amazon.awssdk.services.apigatewayv2.model.ProtocolType;
+import software.amazon.awssdk.services.apigatewayv2.model.ReimportApiRequest;
+import software.amazon.awssdk.services.apigatewayv2.model.ReimportApiResponse;
+import software.amazon.awssdk.services.apigatewayv2.model.RouteSettings;
+import software.amazon.awssdk.services.apigatewayv2.model.UpdateStageRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.wso2.aws.client.AWSConstants.DEFAULT_VERSION;
+import static org.wso2.aws.client.AWSConstants.MAX_PAGE_SIZE;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_API_TYPE_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_API_VERSION_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_FINGERPRINT_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_ID_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_NAME_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_STAGE_FIELD;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_VERSION;
+import static org.wso2.aws.client.AWSConstants.REFERENCE_ARTIFACT_VERSION_FIELD;
+
+/**
+ * This class contains utility methods to interact with the HTTP APIs of AWS API Gateway. An HTTP API is imported
+ * with its integrations, authorizers and CORS configuration in a single call and served from a stage that deploys
+ * every change automatically, so no separate deployment calls are issued.
+ */
+public class HttpAPIUtil {
+    private static final Log log = LogFactory.getLog(HttpAPIUtil.class);
+
+    /**
+     * Imports the API as a new HTTP API and creates its stage. The HTTP API is deleted again if the stage cannot be
+     * created.
+     *
+     * @param api                   API to be deployed
+     * @param apiGatewayClient      Client of the HTTP APIs
+     * @param region                AWS region
+     * @param stage                 Stage the API is deployed to
+     * @param stageVariableEndpoint Whether the integrations resolve the backend from the backend stage variable
+     * @return Reference artifact of the HTTP API
+     * @throws APIManagementException If the API cannot be imported
+     */
+    public static String importHttpAPI(API api, ApiGatewayV2Client apiGatewayClient, String region, String stage,
+                                       boolean stageVariableEndpoint) throws APIManagementException {
+        String apiId = null;
+        try {
+            String openAPI = new HttpAPIEnricher(api, region, stageVariableEndpoint).enrich();
+            ImportApiResponse importApiResponse = apiGatewayClient.importApi(ImportApiRequest.builder()
+                    .body(openAPI)
+                    .failOnWarnings(false)
+                    .build());
+            apiId = importApiResponse.apiId();
+            AWSAPIUtil.logImportWarnings(apiId, importApiResponse.warnings());
+            configureStage(api, apiGatewayClient, apiId, stage, stageVariableEndpoint);
+            return createReferenceArtifact(apiId, importApiResponse.name(), importApiResponse.version(), stage)
+                    .toString();
+        } catch (Exception e) {
+            if (apiId != null) {
+                try {
+                    apiGatewayClient.deleteApi(DeleteApiRequest.builder().apiId(apiId).build());
+                } catch (SdkException ex) {
+                    log.error("Error occurred while rolling back the import of AWS HTTP API " + apiId, ex);
+                }
+            }
+            throw new APIManagementException("Error occurred while importing API: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Overwrites the deployed HTTP API with the current definition of the API and reconciles its stage, which
+     * deploys the change automatically.
+     *
+     * @param referenceArtifact     Reference artifact of the deployed HTTP API
+     * @param api                   API to be deployed
+     * @param apiGatewayClient      Client of the HTTP APIs
+     * @param region                AWS region
+     * @param stage                 Stage the API is deployed to
+     * @param stageVariableEndpoint Whether the integrations resolve the backend from the backend stage variable
+     * @return Reference artifact of the HTTP API
+     * @throws APIManagementException If the API cannot be re-imported
+     */
+    public static String reimportHttpAPI(String referenceArtifact, API api, ApiGatewayV2Client apiGatewayClient,
+                                         String region, String stage, boolean stageVariableEndpoint)
+            throws APIManagementException {
+        String apiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        try {
+            String openAPI = new HttpAPIEnricher(api, region, stageVariableEndpoint).enrich();
+            ReimportApiResponse reimportApiResponse = apiGatewayClient.reimportApi(ReimportApiRequest.builder()
+                    .apiId(apiId)
+                    .body(openAPI)
+                    .failOnWarnings(false)
+                    .build());
+            AWSAPIUtil.logImportWarnings(apiId, reimportApiResponse.warnings());
+            configureStage(api, apiGatewayClient, apiId, stage, stageVariableEndpoint);
+            return createReferenceArtifact(apiId, reimportApiResponse.name(), reimportApiResponse.version(), stage)
+                    .toString();
+        } catch (SdkException e) {
+            throw new APIManagementException("Error occurred while re-importing API: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates the auto deployed stage of the HTTP API, or updates it if its stage variables or route throttling
+     * differ from the ones the API requires. Route settings of routes that are no longer throttled are deleted.
+     */
+    static void configureStage(API api, ApiGatewayV2Client apiGatewayClient, String apiId, String stage,
+                               boolean stageVariableEndpoint) throws APIManagementException {
+        Map<String, String> stageVariables = AWSAPIUtil.getStageVariables(api, stageVariableEndpoint);
+        Map<String, RouteSettings> routeSettings = getRouteSettings(api);
+        GetStageResponse currentStage = getStage(apiGatewayClient, apiId, stage);
+        if (currentStage == null) {
+            apiGatewayClient.createStage(CreateStageRequest.builder()
+                    .apiId(apiId)
+                    .stageName(stage)
+                    .autoDeploy(true)
+                    .stageVariables(stageVariables)
+                    .routeSettings(routeSettings)
+                    .build());
+            return;
+        }
+
+        Map<String, RouteSettings> currentRouteSettings = currentStage.hasRouteSettings()
+                ? currentStage.routeSettings() : Collections.emptyMap();
+        for (String routeKey : currentRouteSettings.keySet()) {
+            if (!routeSettings.containsKey(routeKey)) {
+                apiGatewayClient.deleteRouteSettings(DeleteRouteSettingsRequest.builder()
+                        .apiId(apiId)
+                        .stageName(stage)
+                        .routeKey(routeKey)
+                        .build());
+            }
+        }
+        boolean variablesChanged = stageVariables != null && (!currentStage.hasStageVariables()
+                || !stageVariables.equals(currentStage.stageVariables()));
+        if (!Boolean.TRUE.equals(currentStage.autoDeploy()) || variablesChanged
+                || !isThrottlingEqual(routeSettings, currentRouteSettings)) {
+            apiGatewayClient.updateStage(UpdateStageRequest.builder()
+                    .apiId(apiId)
+                    .stageName(stage)
+                    .autoDeploy(true)
+                    .stageVariables(stageVariables)
+                    .routeSettings(routeSettings)
+                    .build());
+        }
+    }
+
+    /**
+     * Returns the throttling settings of the routes of the API keyed by their route key. The API level policy is
+     * applied to every route instead of the default route settings of the stage, so that a removed policy only
+     * requires deleting route settings.
+     */
+    static Map<String, RouteSettings> getRouteSettings(API api) {
+        Map<String, RouteSettings> routeSettings = new TreeMap<>();
+        GatewayUtil.warnUnenforcedThrottlingPolicies(api);
+        if (api.getUriTemplates() == null) {
+            return routeSettings;
+        }
+        for (URITemplate uriTemplate : api.getUriTemplates()) {
+            String policy = StringUtils.isNotEmpty(api.getApiLevelPolicy()) ? api.getApiLevelPolicy()
+                    : uriTemplate.getThrottlingTier();
+            ThrottlingLimit limit = ThrottlingLimit.fromTierName(policy);
+            if (limit != null) {
+                routeSettings.put(uriTemplate.getHTTPVerb().toUpperCase() + " " + uriTemplate.getUriTemplate(),
+                        RouteSettings.builder()
+                                .throttlingRateLimit(limit.getRateLimit())
+                                .throttlingBurstLimit(limit.getBurstLimit())
+                                .build());
+            }
+        }
+        return routeSettings;
+    }
+
+    private static boolean isThrottlingEqual(Map<String, RouteSettings> routeSettings,
+                                             Map<String, RouteSettings> currentRouteSettings) {
+        if (!routeSettings.keySet().equals(currentRouteSettings.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, RouteSettings> entry : routeSettings.entrySet()) {
+            RouteSettings current = currentRouteSettings.get(entry.getKey());
+            if (!Objects.equals(entry.getValue().throttlingRateLimit(), current.throttlingRateLimit())
+                    || !Objects.equals(entry.getValue().throttlingBurstLimit(), current.throttlingBurstLimit())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describes the calls a deployment of the API would issue against AWS API Gateway without changing anything.
+     *
+     * @param referenceArtifact Reference artifact of the deployed HTTP API, or null for a new deployment
+     * @param api               API to be deployed
+     * @param stage             Stage the API is deployed to
+     * @return Description of the deployment plan
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static String planDeployment(String referenceArtifact, API api, String stage)
+            throws APIManagementException {
+        if (referenceArtifact == null) {
+            return "ImportApi of " + api.getId().getApiName() + "\nCreateStage " + stage
+                    + " with automatic deployments\nTotal: 2 calls";
+        }
+        String apiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        return "ReimportApi of AWS HTTP API " + apiId + "\nGetStage " + stage
+                + "\nUpdateStage and DeleteRouteSettings if the stage variables or route throttling changed"
+                + "\nTotal: at least 2 calls";
+    }
+
+    /**
+     * Describes the calls an undeployment of the API would issue against AWS API Gateway without changing anything.
+     *
+     * @param referenceArtifact Reference artifact of the deployed HTTP API
+     * @param stage             Stage the API is undeployed from
+     * @param delete            Whether the HTTP API is deleted as well
+     * @return Description of the undeployment plan
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static String planUndeployment(String referenceArtifact, String stage, boolean delete)
+            throws APIManagementException {
+        String apiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        if (delete) {
+            return "DeleteApi " + apiId + ", which deletes its stages\nTotal: 1 call";
+        }
+        return "DeleteStage " + stage + " of AWS HTTP API " + apiId + "\nTotal: 1 call";
+    }
+
+    /**
+     * Deletes the stage of the HTTP API. A stage that no longer exists is ignored.
+     *
+     * @param referenceArtifact Reference artifact of the deployed HTTP API
+     * @param apiGatewayClient  Client of the HTTP APIs
+     * @param stage             Stage to be deleted
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static void deleteDeployment(String referenceArtifact, ApiGatewayV2Client apiGatewayClient, String stage)
+            throws APIManagementException {
+        String apiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        try {
+            apiGatewayClient.deleteStage(DeleteStageRequest.builder().apiId(apiId).stageName(stage).build());
+        } catch (NotFoundException e) {
+            log.debug("Stage " + stage + " of AWS HTTP API " + apiId + " was already deleted");
+        }
+    }
+
+    /**
+     * Deletes the HTTP API together with its stages. An HTTP API that no longer exists is ignored.
+     *
+     * @param referenceArtifact Reference artifact of the deployed HTTP API
+     * @param apiGatewayClient  Client of the HTTP APIs
+     * @throws APIManagementException If the reference artifact cannot be read
+     */
+    public static void deleteAPI(String referenceArtifact, ApiGatewayV2Client apiGatewayClient)
+            throws APIManagementException {
+        String apiId = GatewayUtil.getAWSApiIdFromReferenceArtifact(referenceArtifact);
+        try {
+            apiGatewayClient.deleteApi(DeleteApiRequest.builder().apiId(apiId).build());
+        } catch (NotFoundException e) {
+            log.debug("AWS HTTP API " + apiId + " was already deleted");
+        }
+    }
+
+    /**
+     * Returns all HTTP APIs of the account, following the pagination of GetApis. WebSocket APIs are skipped.
+     *
+     * @param client Client of the HTTP APIs
+     * @return HTTP APIs
+     */
+    public static List<Api> getHttpApis(ApiGatewayV2Client client) {
+        List<Api> httpApis = new ArrayList<>();
+        String nextToken = null;
+        do {
+            GetApisResponse getApisResponse = client.getApis(GetApisRequest.builder()
+                    .maxResults(String.valueOf(MAX_PAGE_SIZE))
+                    .nextToken(nextToken)
+                    .build());
+            for (Api httpApi : getApisResponse.items()) {
+                if (httpApi.protocolType() == ProtocolType.HTTP) {
+                    httpApis.add(httpApi);
+                }
+            }
+            nextToken = getApisResponse.nextToken();
+        } while (nextToken != null);
+        return httpApis;
+    }
+
+    /**
+     * Returns the given stage of the HTTP API, or null if it does not exist.
+     *
+     * @param client Client of the HTTP APIs
+     * @param apiId  ID of the HTTP API
+     * @param stage  Name of the stage
+     * @return Stage or null
+     */
+    public static GetStageResponse getStage(ApiGatewayV2Client client, String apiId, String stage) {
+        try {
+            return client.getStage(GetStageRequest.builder().apiId(apiId).stageName(stage).build());
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Exports the definition of the HTTP API as deployed to the given stage, with the integration extensions so
+     * that the backend of the API can be read from it.
+     *
+     * @param client Client of the HTTP APIs
+     * @param apiId  ID of the HTTP API
+     * @param stage  Stage the definition is exported from
+     * @return API definition in OpenAPI format
+     */
+    public static String getHttpApiDefinition(ApiGatewayV2Client client, String apiId, String stage) {
+        return client.exportApi(ExportApiRequest.builder()
+                .apiId(apiId)
+                .stageName(stage)
+                .specification(AWSConstants.HTTP_API_EXPORT_SPECIFICATION)
+                .outputType(AWSConstants.HTTP_API_EXPORT_OUTPUT_TYPE)
+                .includeExtensions(true)
+                .build()).body().asUtf8String();
+    }
+
+    /**
+     * Converts an HTTP API to an API object.
+     *
+     * @param httpApi       The HTTP API to convert.
+     * @param apiDefinition The OpenAPI definition of the API.
+     * @param organization  The organization name.
+     * @param environment   The environment in which the API is deployed.
+     * @return An API object representing the HTTP API.
+     */
+    public static API httpAPItoAPI(Api httpApi, String apiDefinition, String organization, Environment environment) {
+        String name = httpApi.name() == null ? httpApi.apiId() : httpApi.name();
+        String version = httpApi.version() == null ? DEFAULT_VERSION : httpApi.version();
+        API api = new API(new APIIdentifier("admin", name, version));
+        api.setDisplayName(name);
+        api.setUuid(httpApi.apiId());
+        api.setDescription(httpApi.description());
+        api.setContext(name.toLowerCase().replace(" ", "-"));
+        api.setContextTemplate(name.toLowerCase().replace(" ", "-"));
+        api.setOrganization(organization);
+        api.setSwaggerDefinition(apiDefinition);
+        api.setRevision(false);
+        api.setLastUpdated(Date.from(httpApi.createdDate()));
+        api.setCreatedTime(Long.toString(httpApi.createdDate().toEpochMilli()));
+        api.setInitiatedFromGateway(true);
+        api.setGatewayVendor("external");
+        api.setEnableSubscriberVerification(false);
+        api.setGatewayType(environment.getGatewayType());
+        return api;
+    }
+
+    /**
+     * Sets the endpoint configuration for the API based on the backend derived from its exported definition.
+     *
+     * @param api      The API object to set the endpoint configuration for.
+     * @param httpApi  The HTTP API the API was discovered from.
+     * @param endpoint Backend endpoint of the API.
+     */
+    public static void setEndpointConfig(API api, Api httpApi, String endpoint) {
+        AWSAPIUtil.setEndpointConfig(api, httpApi.name(), endpoint);
+    }
+
+    /**
+     * Creates the compact, versioned reference artifact of a discovered HTTP API, holding a fingerprint of the
+     * definition and the fields that the discovered API is built from.
+     *
+     * @param httpApi            The discovered HTTP API.
+     * @param stage              The stage the definition was exported from.
+     * @param exportedDefinition The definition exported from the stage.
+     * @param endpoint           The backend endpoint derived from the definition, or null if there is none.
+     * @return A JSON string that represents the reference artifact.
+     */
+    public static String createReferenceArtifact(Api httpApi, String stage, ExportedDefinition exportedDefinition,
+                                                 String endpoint) {
+        JsonObject referenceArtifact = createReferenceArtifact(httpApi.apiId(), httpApi.name(), httpApi.version(),
+                stage);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_FINGERPRINT_FIELD, GatewayUtil.fingerprint(
+                new JsonPrimitive(exportedDefinition.getFingerprint()), toJson(httpApi.name()),
+                toJson(httpApi.description()), toJson(httpApi.version()), toJson(endpoint)));
+        return referenceArtifact.toString();
+    }
+
+    private static JsonObject createReferenceArtifact(String apiId, String name, String version, String stage) {
+        JsonObject referenceArtifact = new JsonObject();
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_VERSION_FIELD, REFERENCE_ARTIFACT_VERSION);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_ID_FIELD, apiId);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_NAME_FIELD, name);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_API_VERSION_FIELD, version);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_STAGE_FIELD, stage);
+        referenceArtifact.addProperty(REFERENCE_ARTIFACT_API_TYPE_FIELD, AWSConstants.API_TYPE_HTTP);
+        return referenceArtifact;
+    }
+
+    private static JsonElement toJson(String value) {
+        return value != null ? new JsonPrimitive(value) : JsonNull.INSTANCE;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.model.DefinitionState;
+import software.amazon.awssdk.services.apigateway.model.PutMode;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides how an API is re-imported to AWS API Gateway by diffing the enriched OpenAPI definition against the state
+ * last deployed by this node.
+ * <ul>
+ *     <li>If nothing changed, the re-import and redeployment are skipped.</li>
+ *     <li>If operations were only added or modified, only the affected path items are sent with
+ *     {@link PutMode#MERGE} and only their resources are verified afterwards.</li>
+ *     <li>Otherwise (operations removed, fields removed from an operation, root level changes or no known previous
+ *     state) the whole definition is sent with {@link PutMode#OVERWRITE}.</li>
+ * </ul>
+ */
+public final class IncrementalReimportPlan {
+
+    private static final Log log = LogFactory.getLog(IncrementalReimportPlan.class);
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Set<String> HTTP_METHODS =
+            Set.of("get", "put", "post", "delete", "options", "head", "patch", "x-amazon-apigateway-any-method");
+    private static final Map<String, DefinitionState> deployedStates = new ConcurrentHashMap<>();
+
+    /**
+     * Kind of re-import selected by the plan.
+     */
+    public enum Mode {
+        UNCHANGED, MERGE, OVERWRITE
+    }
+
+    private final String restApiId;
+    private final String stage;
+    private final Mode mode;
+    private final String body;
+    private final Set<String> changedPaths;
+    private final DefinitionState state;
+    private final DefinitionState previousState;
+
+    private IncrementalReimportPlan(String restApiId, String stage, Mode mode, String body, Set<String> changedPaths,
+                                    DefinitionState state, DefinitionState previousState) {
+        this.restApiId = restApiId;
+        this.stage = stage;
+        this.mode = mode;
+        this.body = body;
+        this.changedPaths = changedPaths;
+        this.state = state;
+        this.previousState = previousState;
+    }
+
+    /**
+     * Creates the re-import plan of the given enriched definition.
+     *
+     * @param restApiId ID of the REST API in AWS
+     * @param stage     Stage the API is deployed to
+     * @param openAPI   Enriched OpenAPI definition
+     * @return Re-import plan
+     */
+    public static IncrementalReimportPlan create(String restApiId, String stage, String openAPI) {
+        JsonObject definition = JsonParser.parseString(openAPI).getAsJsonObject();
+        DefinitionState state = computeState(definition);
+        DefinitionState previousState = deployedStates.get(getKey(restApiId, stage));
+
+        if (previousState == null) {
+            return new IncrementalReimportPlan(restApiId, stage, Mode.OVERWRITE, openAPI, null, state, null);
+        }
+        Set<String> changedPaths = state.getChangedPaths(previousState);
+        Set<String> removedOperations = state.getRemovedOperations(previousState);
+        if (!state.hasSameGlobals(previousState) || !removedOperations.isEmpty()
+                || !state.getReducedOperations(previousState).isEmpty()) {
+            // MERGE cannot remove methods, resources or the parameters, models and security requirements of a
+            // method, nor reliably replace root level definitions
+            return new IncrementalReimportPlan(restApiId, stage, Mode.OVERWRITE, openAPI, null, state,
+                    previousState);
+        }
+        if (changedPaths.isEmpty()) {
+            return new IncrementalReimportPlan(restApiId, stage, Mode.UNCHANGED, null, changedPaths, state,
+                    previousState);
+        }
+
+        JsonObject paths = definition.getAsJsonObject("paths");
+        JsonObject changedPathItems = new JsonObject();
+        for (String path : changedPaths) {
+            changedPathItems.add(path, paths.get(path));
+        }
+        definition.add("paths", changedPathItems);
+        return new IncrementalReimportPlan(restApiId, stage, Mode.MERGE, GSON.toJson(definition), changedPaths,
+                state, previousState);
+    }
+
+    /**
+     * Creates a plan that overwrites the whole definition regardless of the known deployed state.
+     */
+    public static IncrementalReimportPlan overwrite(String restApiId, String stage, String openAPI) {
+        DefinitionState state = computeState(JsonParser.parseString(openAPI).getAsJsonObject());
+        return new IncrementalReimportPlan(restApiId, stage, Mode.OVERWRITE, openAPI, null, state, null);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public PutMode getPutMode() {
+        return mode == Mode.MERGE ? PutMode.MERGE : PutMode.OVERWRITE;
+    }
+
+    /**
+     * Returns the definition to be sent to AWS API Gateway.
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the paths whose resources were touched by the re-import, or null if all of them were.
+     */
+    public Set<String> getChangedPaths() {
+        return changedPaths;
+    }
+
+    /**
+     * Returns the deployment created from the previous state, which is expected to be the active deployment of the
+     * stage when the re-import is skipped.
+     */
+    public String getPreviousDeploymentId() {
+        return previousState != null ? previousState.getDeploymentId() : null;
+    }
+
+    /**
+     * Records the state of the plan as deployed by the given deployment.
+     */
+    public void markDeployed(String deploymentId) {
+        deployedStates.put(getKey(restApiId, stage), state.withDeploymentId(deploymentId));
+        if (log.isDebugEnabled()) {
+            log.debug("Re-imported AWS API " + restApiId + " in " + mode + " mode"
+                    + (changedPaths != null ? " touching " + changedPaths.size() + " paths of "
+                    + state.getOperationHashes().size() + " operations" : ""));
+        }
+    }
+
+    /**
+     * Records the state of a newly imported API.
+     */
+    public static void markImported(String restApiId, String stage, String openAPI, String deploymentId) {
+        DefinitionState state = computeState(JsonParser.parseString(openAPI).getAsJsonObject());
+        deployedStates.put(getKey(restApiId, stage), state.withDeploymentId(deploymentId));
+    }
+
+    /**
+     * Forgets the deployed state of the given API, forcing the next re-import to overwrite the definition.
+     */
+    public static void invalidate(String restApiId, String stage) {
+        deployedStates.remove(getKey(restApiId, stage));
+    }
+
+    /**
+     * Forgets the deployed state of the given API on all stages.
+     */
+    public static void invalidate(String restApiId) {
+        deployedStates.keySet().removeIf(key -> key.startsWith(restApiId + "|"));
+    }
+
+    private static DefinitionState computeState(JsonObject definition) {
+        Map<String, String> operationHashes = new LinkedHashMap<>();
+        Map<String, Set<String>> operationFields = new LinkedHashMap<>();
+        JsonObject root = definition.deepCopy();
+        JsonObject paths = (JsonObject) root.remove("paths");
+        if (paths != null) {
+            for (String path : paths.keySet()) {
+                JsonObject pathLevelFields = new JsonObject();
+                for (Map.Entry<String, JsonElement> entry : paths.getAsJsonObject(path).entrySet()) {
+                    if (HTTP_METHODS.contains(entry.getKey().toLowerCase())) {
+                        String key = DefinitionState.getKey(path, entry.getKey().toLowerCase());
+                        operationHashes.put(key, DigestUtils.sha256Hex(GSON.toJson(entry.getValue())));
+                        operationFields.put(key, getFields(entry.getValue()));
+                    } else {
+                        pathLevelFields.add(entry.getKey(), entry.getValue());
+                    }
+                }
+                operationHashes.put(DefinitionState.getKey(path, null),
+                        DigestUtils.sha256Hex(GSON.toJson(pathLevelFields)));
+                operationFields.put(DefinitionState.getKey(path, null), getFields(pathLevelFields));
+            }
+        }
+        return new DefinitionState(DigestUtils.sha256Hex(GSON.toJson(root)), operationHashes, operationFields, null);
+    }
+
+    /**
+     * Returns the JSON pointers of the fields of the given element. Array items are identified by their content, so
+     * that a replaced item, e.g. a renamed parameter, counts as removed.
+     */
+    private static Set<String> getFields(JsonElement element) {
+        Set<String> fields = new HashSet<>();
+        addFields("", element, fields);
+        return fields;
+    }
+
+    private static void addFields(String pointer, JsonElement element, Set<String> fields) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                String field = pointer + "/" + entry.getKey().replace("~", "~0").replace("/", "~1");
+                fields.add(field);
+                addFields(field, entry.getValue(), fields);
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement item : element.getAsJsonArray()) {
+                fields.add(pointer + "/" + DigestUtils.sha256Hex(GSON.toJson(item)));
+            }
+        }
+    }
+
+    private static String getKey(String restApiId, String stage) {
+        return restApiId + "|" + stage;
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.aws.client.model.DeploymentSettings;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.CORSConfiguration;
+import org.wso2.carbon.apimgt.api.model.OperationPolicy;
+import org.wso2.carbon.apimgt.api.model.URITemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Enriches the OpenAPI definition of an API with the AWS API Gateway extensions required to build the complete
+ * REST API (integrations, Lambda authorizers and CORS) through a single import call.
+ */
+public class OpenAPIEnricher {
+
+    private static final Log log = LogFactory.getLog(OpenAPIEnricher.class);
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String[] HTTP_METHODS = {"get", "put", "post", "delete", "options", "head", "patch"};
+
+    private final API api;
+    private final String region;
+    private final boolean stageVariableEndpoint;
+    private final boolean httpProxyIntegration;
+    private final Integer defaultCompressionSize;
+    private boolean swagger2;
+    private Map<String, String> corsHeaders;
+
+    /**
+     * Creates an enricher that applies the deployment settings of the environment. With HTTP_PROXY integrations,
+     * which have no integration responses, CORS headers are only added to preflight and gateway responses.
+     *
+     * @param api                   API to be deployed
+     * @param region                AWS region of the gateway environment
+     * @param stageVariableEndpoint Whether the backend should be resolved from the backend stage variable
+     * @param deploymentSettings    Deployment settings of the environment
+     */
+    public OpenAPIEnricher(API api, String region, boolean stageVariableEndpoint,
+                           DeploymentSettings deploymentSettings) {
+        this.api = api;
+        this.region = region;
+        this.stageVariableEndpoint = stageVariableEndpoint;
+        this.httpProxyIntegration = deploymentSettings.isHttpProxyIntegration();
+        this.defaultCompressionSize = deploymentSettings.getMinimumCompressionSize();
+    }
+
+    /**
+     * Returns the OpenAPI definition of the API with the AWS API Gateway extensions injected.
+     *
+     * @return Enriched OpenAPI definition in JSON format
+     * @throws APIManagementException If the definition or the endpoint configuration cannot be processed
+     */
+    public String enrich() throws APIManagementException {
+        JsonObject definition;
+        try {
+            definition = JsonParser.parseString(api.getSwaggerDefinition()).getAsJsonObject();
+        } catch (RuntimeException e) {
+            throw new APIManagementException("Error while parsing the OpenAPI definition of API: " + api.getId(), e);
+        }
+        swagger2 = definition.has("swagger");
+        corsHeaders = getCORSHeaders();
+
+        String endpoint = GatewayUtil.getIntegrationEndpoint(GatewayUtil.getEndpointURL(api), stageVariableEndpoint);
+        Map<String, AuthorizerConfig> authorizerMapping = getAuthorizerMapping();
+        JsonObject securitySchemes = getSecuritySchemes(definition);
+
+        JsonObject paths = definition.has("paths") ? definition.getAsJsonObject("paths") : new JsonObject();
+        for (Map.Entry<String, JsonElement> pathEntry : paths.entrySet()) {
+            String path = pathEntry.getKey();
+            JsonObject pathItem = pathEntry.getValue().getAsJsonObject();
+            JsonArray pathParameters = pathItem.has("parameters") ? pathItem.getAsJsonArray("parameters") : null;
+
+            for (String httpMethod : HTTP_METHODS) {
+                if (!pathItem.has(httpMethod) || "options".equals(httpMethod)) {
+                    continue;
+                }
+                JsonObject operation = pathItem.getAsJsonObject(httpMethod);
+                addPathParameters(path, pathParameters, operation);
+                operation.add(AWSConstants.OPENAPI_INTEGRATION_EXTENSION,
+                        buildHttpIntegration(definition, httpMethod, endpoint + path, pathParameters, operation));
+                if (!httpProxyIntegration) {
+                    addCORSResponseHeaders(operation, false);
+                }
+
+                AuthorizerConfig authorizer = authorizerMapping.get(path.toLowerCase() + "|" + httpMethod);
+                if (authorizer == null) {
+                    authorizer = authorizerMapping.get(AWSConstants.OPERATION_POLICY_API);
+                }
+                if (authorizer != null) {
+                    String authorizerName = addAuthorizer(securitySchemes, authorizer);
+                    JsonArray security = new JsonArray();
+                    JsonObject requirement = new JsonObject();
+                    requirement.add(authorizerName, new JsonArray());
+                    security.add(requirement);
+                    operation.add("security", security);
+                } else if (log.isDebugEnabled()) {
+                    log.debug("Authorizer not found for the resource: " + path + " at API or Resource levels");
+                }
+            }
+
+            // preflight requests are answered by a MOCK integration, which also replaces OPTIONS operations of the
+            // definition, since they have no backend integration that would add the CORS headers
+            pathItem.add("options", buildCORSOptionsOperation());
+        }
+
+        definition.add(AWSConstants.OPENAPI_GATEWAY_RESPONSES_EXTENSION, buildCORSGatewayResponses());
+        Integer minimumCompressionSize = GatewayUtil.getMinimumCompressionSize(api, defaultCompressionSize);
+        if (minimumCompressionSize != null) {
+            definition.addProperty(AWSConstants.OPENAPI_MINIMUM_COMPRESSION_SIZE_EXTENSION, minimumCompressionSize);
+        }
+        return GSON.toJson(definition);
+    }
+
+    /**
+     * Builds the mapping of "path|verb" (or "API" for the API level policy) to the configuration of the Lambda
+     * authorizer that should protect it.
+     */
+    private Map<String, AuthorizerConfig> getAuthorizerMapping() throws APIManagementException {
+        Map<String, AuthorizerConfig> pathToArnMapping = new HashMap<>();
+
+        List<OperationPolicy> apiPolicies = api.getApiPolicies();
+        if (apiPolicies != null) {
+            for (OperationPolicy policy : apiPolicies) {
+                if (AWSConstants.AWS_OPERATION_POLICY_NAME.equals(policy.getPolicyName())) {
+                    pathToArnMapping.put(AWSConstants.OPERATION_POLICY_API, new AuthorizerConfig(policy));
+                    break;
+                }
+            }
+        }
+
+        Set<URITemplate> uriTemplates = api.getUriTemplates();
+        if (uriTemplates != null) {
+            for (URITemplate resource : uriTemplates) {
+                List<OperationPolicy> resourcePolicies = resource.getOperationPolicies();
+                if (resourcePolicies == null) {
+                    continue;
+                }
+                for (OperationPolicy policy : resourcePolicies) {
+                    if (AWSConstants.AWS_OPERATION_POLICY_NAME.equals(policy.getPolicyName())) {
+                        pathToArnMapping.put(resource.getUriTemplate().toLowerCase() + "|"
+                                + resource.getHTTPVerb().toLowerCase(), new AuthorizerConfig(policy));
+                        break;
+                    }
+                }
+            }
+        }
+        return pathToArnMapping;
+    }
+
+    private JsonObject getSecuritySchemes(JsonObject definition) {
+        if (swagger2) {
+            if (!definition.has("securityDefinitions")) {
+                definition.add("securityDefinitions", new JsonObject());
+            }
+            return definition.getAsJsonObject("securityDefinitions");
+        }
+        if (!definition.has("components")) {
+            definition.add("components", new JsonObject());
+        }
+        JsonObject components = definition.getAsJsonObject("components");
+        if (!components.has("securitySchemes")) {
+            components.add("securitySchemes", new JsonObject());
+        }
+        return components.getAsJsonObject("securitySchemes");
+    }
+
+    /**
+     * Adds a Lambda TOKEN authorizer security scheme for the given configuration if it is not already defined and
+     * returns the name of the scheme. Authorizers of the same function and role that differ in their caching
+     * settings get a suffixed name.
+     */
+    private String addAuthorizer(JsonObject securitySchemes, AuthorizerConfig config) {
+        String lambdaArn = config.lambdaArn;
+        String invokeRoleArn = config.invokeRoleArn;
+        String name = lambdaArn.substring(lambdaArn.lastIndexOf(':') + 1) + "-"
+                + invokeRoleArn.substring(invokeRoleArn.lastIndexOf('/') + 1) + "-authorizer";
+
+        JsonObject authorizer = new JsonObject();
+        authorizer.addProperty("type", "token");
+        authorizer.addProperty("authorizerUri",
+                String.format(AWSConstants.AUTHORIZER_URI_TEMPLATE, GatewayUtil.getPartition(region), region,
+                        lambdaArn));
+        authorizer.addProperty("authorizerCredentials", invokeRoleArn);
+        authorizer.addProperty("authorizerResultTtlInSeconds", config.resultTtlInSeconds);
+        authorizer.addProperty("identitySource", AWSConstants.AUTHORIZER_IDENTITY_SOURCE);
+        if (config.identityValidationExpression != null) {
+            authorizer.addProperty("identityValidationExpression", config.identityValidationExpression);
+        }
+
+        if (securitySchemes.has(name)) {
+            JsonElement existing = securitySchemes.getAsJsonObject(name)
+                    .get(AWSConstants.OPENAPI_AUTHORIZER_EXTENSION);
+            if (authorizer.equals(existing)) {
+                return name;
+            }
+            name = name + "-" + GatewayUtil.fingerprint(authorizer).substring(0, 8);
+            if (securitySchemes.has(name)) {
+                return name;
+            }
+        }
+
+        JsonObject securityScheme = new JsonObject();
+        securityScheme.addProperty("type", "apiKey");
+        securityScheme.addProperty("name", AWSConstants.AUTHORIZATION_HEADER);
+        securityScheme.addProperty("in", "header");
+        securityScheme.addProperty(AWSConstants.OPENAPI_AUTH_TYPE_EXTENSION, "custom");
+        securityScheme.add(AWSConstants.OPENAPI_AUTHORIZER_EXTENSION, authorizer);
+        securitySchemes.add(name, securityScheme);
+        return name;
+    }
+
+    /**
+     * Declares the path parameters of the resource path that are not declared in the operation, since the
+     * integration request parameters can only be mapped from declared method request parameters.
+     */
+    private void addPathParameters(String path, JsonArray pathParameters, JsonObject operation) {
+        if (!operation.has("parameters")) {
+            operation.add("parameters", new JsonArray());
+        }
+        JsonArray parameters = operation.getAsJsonArray("parameters");
+        for (String pathParam : GatewayUtil.extractPathParams(path)) {
+            if (isParameterDeclared(pathParam, pathParameters) || isParameterDeclared(pathParam, parameters)) {
+                continue;
+            }
+            JsonObject parameter = new JsonObject();
+            parameter.addProperty("name", pathParam);
+            parameter.addProperty("in", "path");
+            parameter.addProperty("required", true);
+            if (swagger2) {
+                parameter.addProperty("type", "string");
+            } else {
+                JsonObject schema = new JsonObject();
+                schema.addProperty("type", "string");
+                parameter.add("schema", schema);
+            }
+            parameters.add(parameter);
+        }
+    }
+
+    private static boolean isParameterDeclared(String name, JsonArray parameters) {
+        if (parameters == null) {
+            return false;
+        }
+        for (JsonElement parameter : parameters) {
+            JsonObject parameterObject = parameter.getAsJsonObject();
+            if (parameterObject.has("name") && name.equals(parameterObject.get("name").getAsString())
+                    && parameterObject.has("in") && "path".equals(parameterObject.get("in").getAsString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonObject buildHttpIntegration(JsonObject definition, String httpMethod, String uri,
+                                            JsonArray pathParameters, JsonObject operation) {
+        Map<String, String> requestParameters = new LinkedHashMap<>();
+        addRequestParameterMappings(definition, pathParameters, requestParameters);
+        addRequestParameterMappings(definition, operation.getAsJsonArray("parameters"), requestParameters);
+
+        JsonObject integration = new JsonObject();
+        integration.addProperty("type", httpProxyIntegration ? "http_proxy" : "http");
+        integration.addProperty("httpMethod", httpMethod.toUpperCase());
+        integration.addProperty("uri", uri);
+        integration.addProperty("passthroughBehavior", "when_no_match");
+        if (httpProxyIntegration) {
+            // query strings and headers are proxied as they are, only the path parameters of the URI need a mapping
+            Map<String, String> pathParameterMappings = new LinkedHashMap<>();
+            for (Map.Entry<String, String> mapping : requestParameters.entrySet()) {
+                if (mapping.getKey().startsWith("integration.request.path.")) {
+                    pathParameterMappings.put(mapping.getKey(), mapping.getValue());
+                }
+            }
+            integration.add("requestParameters", GSON.toJsonTree(pathParameterMappings));
+        } else {
+            integration.add("requestParameters", GSON.toJsonTree(requestParameters));
+        }
+        if ("get".equals(httpMethod) && GatewayUtil.isResponseCachingEnabled(api)) {
+            // cached responses are keyed by the path and query parameters of the request
+            JsonArray cacheKeyParameters = new JsonArray();
+            for (String parameter : requestParameters.values()) {
+                if (parameter.startsWith("method.request.path.")
+                        || parameter.startsWith("method.request.querystring.")) {
+                    cacheKeyParameters.add(parameter);
+                }
+            }
+            integration.add("cacheKeyParameters", cacheKeyParameters);
+        }
+
+        if (!httpProxyIntegration) {
+            integration.add("responses",
+                    buildDefaultIntegrationResponse(buildCORSHeaderValues("method.response.header.", false)));
+        }
+        return integration;
+    }
+
+    /**
+     * Maps each declared path, query and header parameter of the method request to the integration request.
+     */
+    private void addRequestParameterMappings(JsonObject definition, JsonArray parameters,
+                                             Map<String, String> requestParameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (JsonElement parameterElement : parameters) {
+            JsonObject parameter = resolveReference(definition, parameterElement.getAsJsonObject());
+            if (parameter == null || !parameter.has("name") || !parameter.has("in")) {
+                continue;
+            }
+            String location;
+            switch (parameter.get("in").getAsString()) {
+                case "path":
+                    location = "path";
+                    break;
+                case "query":
+                    location = "querystring";
+                    break;
+                case "header":
+                    location = "header";
+                    break;
+                default:
+                    continue;
+            }
+            String name = parameter.get("name").getAsString();
+            requestParameters.put("integration.request." + location + "." + name,
+                    "method.request." + location + "." + name);
+        }
+    }
+
+    private static JsonObject resolveReference(JsonObject definition, JsonObject element) {
+        if (!element.has("$ref")) {
+            return element;
+        }
+        String ref = element.get("$ref").getAsString();
+        if (!ref.startsWith("#/")) {
+            return null;
+        }
+        JsonElement current = definition;
+        for (String segment : ref.substring(2).split("/")) {
+            if (current == null || !current.isJsonObject()) {
+                return null;
+            }
+            current = current.getAsJsonObject().get(segment.replace("~1", "/").replace("~0", "~"));
+        }
+        return current != null && current.isJsonObject() ? current.getAsJsonObject() : null;
+    }
+
+    /**
+     * Declares the CORS headers on the method responses of the operation, adding a 200 response if the operation
+     * does not define one since the default integration response is mapped to it.
+     */
+    private void addCORSResponseHeaders(JsonObject operation, boolean preflight) {
+        if (!operation.has("responses")) {
+            operation.add("responses", new JsonObject());
+        }
+        JsonObject responses = operation.getAsJsonObject("responses");
+        if (!responses.has("200")) {
+            JsonObject okResponse = new JsonObject();
+            okResponse.addProperty("description", "OK");
+            responses.add("200", okResponse);
+        }
+        for (Map.Entry<String, JsonElement> response : responses.entrySet()) {
+            if (!StringUtils.isNumeric(response.getKey()) || !response.getValue().isJsonObject()
+                    || response.getValue().getAsJsonObject().has("$ref")) {
+                continue;
+            }
+            JsonObject responseObject = response.getValue().getAsJsonObject();
+            if (!responseObject.has("headers")) {
+                responseObject.add("headers", new JsonObject());
+            }
+            JsonObject headers = responseObject.getAsJsonObject("headers");
+            for (String header : corsHeaders.keySet()) {
+                if (preflight || isActualResponseHeader(header)) {
+                    headers.add(header, buildStringHeader());
+                }
+            }
+        }
+    }
+
+    private JsonObject buildStringHeader() {
+        JsonObject header = new JsonObject();
+        if (swagger2) {
+            header.addProperty("type", "string");
+        } else {
+            JsonObject schema = new JsonObject();
+            schema.addProperty("type", "string");
+            header.add("schema", schema);
+        }
+        return header;
+    }
+
+    /**
+     * Builds an OPTIONS operation backed by a MOCK integration that answers CORS preflight requests.
+     */
+    private JsonObject buildCORSOptionsOperation() {
+        JsonObject operation = new JsonObject();
+        operation.add("security", new JsonArray());
+        addCORSResponseHeaders(operation, true);
+
+        JsonObject integration = new JsonObject();
+        integration.addProperty("type", "mock");
+        integration.addProperty("passthroughBehavior", "when_no_match");
+        JsonObject requestTemplates = new JsonObject();
+        requestTemplates.addProperty(AWSConstants.JSON_PAYLOAD_TYPE, "{\"statusCode\": 200}");
+        integration.add("requestTemplates", requestTemplates);
+        integration.add("responses",
+                buildDefaultIntegrationResponse(buildCORSHeaderValues("method.response.header.", true)));
+        operation.add(AWSConstants.OPENAPI_INTEGRATION_EXTENSION, integration);
+        return operation;
+    }
+
+    private static JsonObject buildDefaultIntegrationResponse(JsonObject responseParameters) {
+        JsonObject defaultResponse = new JsonObject();
+        defaultResponse.addProperty("statusCode", "200");
+        defaultResponse.add("responseParameters", responseParameters);
+        JsonObject responseTemplates = new JsonObject();
+        responseTemplates.addProperty(AWSConstants.JSON_PAYLOAD_TYPE, "");
+        defaultResponse.add("responseTemplates", responseTemplates);
+
+        JsonObject responses = new JsonObject();
+        responses.add("default", defaultResponse);
+        return responses;
+    }
+
+    private JsonObject buildCORSGatewayResponses() {
+        JsonObject default4xx = new JsonObject();
+        default4xx.add("responseParameters", buildCORSHeaderValues("gatewayresponse.header.", true));
+        JsonObject gatewayResponses = new JsonObject();
+        gatewayResponses.add("DEFAULT_4XX", default4xx);
+        return gatewayResponses;
+    }
+
+    /**
+     * Builds the static CORS header values mapped to responses, all of them for preflight and gateway responses and
+     * only the ones relevant to actual responses otherwise.
+     */
+    private JsonObject buildCORSHeaderValues(String prefix, boolean preflight) {
+        JsonObject headers = new JsonObject();
+        for (Map.Entry<String, String> header : corsHeaders.entrySet()) {
+            if (preflight || isActualResponseHeader(header.getKey())) {
+                headers.addProperty(prefix + header.getKey(), "'" + header.getValue() + "'");
+            }
+        }
+        return headers;
+    }
+
+    private static boolean isActualResponseHeader(String header) {
+        return AWSConstants.CORS_ALLOW_ORIGIN_HEADER.equals(header)
+                || AWSConstants.CORS_ALLOW_CREDENTIALS_HEADER.equals(header);
+    }
+
+    /**
+     * Resolves the CORS headers from the CORS configuration of the API, falling back to the permissive defaults if
+     * CORS is not configured for the API.
+     */
+    private Map<String, String> getCORSHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        CORSConfiguration corsConfiguration = api.getCorsConfiguration();
+        if (corsConfiguration == null || !corsConfiguration.isCorsConfigurationEnabled()) {
+            headers.put(AWSConstants.CORS_ALLOW_ORIGIN_HEADER, AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN);
+            headers.put(AWSConstants.CORS_ALLOW_METHODS_HEADER, AWSConstants.CORS_DEFAULT_ALLOW_METHODS);
+            headers.put(AWSConstants.CORS_ALLOW_HEADERS_HEADER, AWSConstants.CORS_DEFAULT_ALLOW_HEADERS);
+            return headers;
+        }
+
+        String allowOrigin = AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN;
+        List<String> origins = corsConfiguration.getAccessControlAllowOrigins();
+        if (origins != null && !origins.isEmpty() && !origins.contains(AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN)) {
+            // static header mappings of AWS API Gateway can only return a single origin
+            allowOrigin = origins.get(0);
+            if (origins.size() > 1) {
+                log.warn("AWS API Gateway supports a single allowed origin. Only " + allowOrigin
+                        + " is allowed for API: " + api.getId());
+            }
+        }
+        headers.put(AWSConstants.CORS_ALLOW_ORIGIN_HEADER, allowOrigin);
+        headers.put(AWSConstants.CORS_ALLOW_METHODS_HEADER, joinOrDefault(
+                corsConfiguration.getAccessControlAllowMethods(), AWSConstants.CORS_DEFAULT_ALLOW_METHODS));
+        headers.put(AWSConstants.CORS_ALLOW_HEADERS_HEADER, joinOrDefault(
+                corsConfiguration.getAccessControlAllowHeaders(), AWSConstants.CORS_DEFAULT_ALLOW_HEADERS));
+        if (corsConfiguration.isAccessControlAllowCredentials()
+                && !AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN.equals(allowOrigin)) {
+            // credentials are not allowed by browsers with a wildcard origin
+            headers.put(AWSConstants.CORS_ALLOW_CREDENTIALS_HEADER, "true");
+        }
+        return headers;
+    }
+
+    private static String joinOrDefault(List<String> values, String defaultValue) {
+        return values == null || values.isEmpty() ? defaultValue : String.join(",", values);
+    }
+
+    /**
+     * Configuration of a Lambda authorizer read from an {@code awsOAuth2} operation policy.
+     */
+    private static final class AuthorizerConfig {
+
+        private final String lambdaArn;
+        private final String invokeRoleArn;
+        private final int resultTtlInSeconds;
+        private final String identityValidationExpression;
+
+        private AuthorizerConfig(OperationPolicy policy) throws APIManagementException {
+            Map<String, Object> parameters = policy.getParameters();
+            this.lambdaArn = parameters.get(AWSConstants.OPERATION_POLICY_ARN_PARAMETER).toString();
+            this.invokeRoleArn = parameters.get(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER).toString();
+            this.resultTtlInSeconds = GatewayUtil.getAuthorizerResultTtl(parameters);
+            this.identityValidationExpression = GatewayUtil.getIdentityValidationExpression(parameters);
+        }
+    }
+}
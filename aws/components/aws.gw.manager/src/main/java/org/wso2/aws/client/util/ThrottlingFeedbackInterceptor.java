@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+/**
+ * Execution interceptor that feeds the response status of every HTTP attempt of an API Gateway client back to an
+ * {@link AdaptiveRateLimiter} without pacing the attempts. Only 2xx responses raise the permitted rate, while other
+ * responses such as 5xx leave it unchanged. Asynchronous clients use it on its own, since their calls are paced
+ * before they are submitted and blocking here would block the event loop.
+ */
+public class ThrottlingFeedbackInterceptor implements ExecutionInterceptor {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    protected final AdaptiveRateLimiter rateLimiter;
+
+    public ThrottlingFeedbackInterceptor(AdaptiveRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        if (context.httpResponse().statusCode() == TOO_MANY_REQUESTS) {
+            rateLimiter.onThrottle();
+        } else if (context.httpResponse().isSuccessful()) {
+            rateLimiter.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+
+/**
+ * Execution interceptor that paces every HTTP attempt of a synchronous API Gateway client, including SDK retries,
+ * through an {@link AdaptiveRateLimiter} and feeds the response status back to it. Pacing blocks the calling thread,
+ * so asynchronous clients use {@link ThrottlingFeedbackInterceptor} instead.
+ */
+public class ThrottlingInterceptor extends ThrottlingFeedbackInterceptor {
+
+    public ThrottlingInterceptor(AdaptiveRateLimiter rateLimiter) {
+        super(rateLimiter);
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // the call is aborted rather than sent unpaced, since the deployment it belongs to is being cancelled
+            throw AbortedException.builder().message("Interrupted while waiting to call AWS API Gateway")
+                    .cause(e).build();
+        }
+    }
+}
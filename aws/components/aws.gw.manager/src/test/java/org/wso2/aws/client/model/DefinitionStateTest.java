@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the diffing of the operation fingerprints of deployed definitions.
+ */
+public class DefinitionStateTest {
+
+    @Test
+    public void testKeys() {
+        assertEquals("/pets get", DefinitionState.getKey("/pets", "get"));
+        assertEquals("/pets", DefinitionState.getKey("/pets", null));
+    }
+
+    @Test
+    public void testChangedPaths() {
+        DefinitionState previous = createState("global", "/pets get", "a", "/pets", "b", "/orders post", "c");
+        DefinitionState state = createState("global", "/pets get", "a", "/pets", "b", "/orders post", "changed",
+                "/users get", "d");
+
+        assertEquals(Set.of("/orders", "/users"), state.getChangedPaths(previous));
+        assertTrue(state.getRemovedOperations(previous).isEmpty());
+        assertTrue(state.hasSameGlobals(previous));
+    }
+
+    @Test
+    public void testRemovedOperations() {
+        DefinitionState previous = createState("global", "/pets get", "a", "/pets delete", "b", "/pets", "c");
+        DefinitionState state = createState("other", "/pets get", "a", "/pets", "c");
+
+        assertTrue(state.getChangedPaths(previous).isEmpty());
+        assertEquals(Collections.singleton("/pets delete"), state.getRemovedOperations(previous));
+        assertFalse(state.hasSameGlobals(previous));
+    }
+
+    @Test
+    public void testReducedOperations() {
+        Map<String, String> hashes = Map.of("/pets get", "a", "/pets post", "b");
+        DefinitionState previous = new DefinitionState("global", hashes,
+                Map.of("/pets get", Set.of("/parameters", "/security"), "/pets post", Set.of("/security")), null);
+        DefinitionState state = new DefinitionState("global", hashes,
+                Map.of("/pets get", Set.of("/parameters"), "/pets post", Set.of("/security", "/requestBody"),
+                        "/orders get", Set.of("/security")), null);
+
+        assertEquals(Collections.singleton("/pets get"), state.getReducedOperations(previous));
+        assertTrue(previous.getReducedOperations(previous).isEmpty());
+    }
+
+    @Test
+    public void testDeploymentId() {
+        DefinitionState state = createState("global", "/pets get", "a");
+        assertNull(state.getDeploymentId());
+
+        DefinitionState deployed = state.withDeploymentId("deployment");
+        assertEquals("deployment", deployed.getDeploymentId());
+        assertEquals(state.getOperationHashes(), deployed.getOperationHashes());
+        assertTrue(deployed.getChangedPaths(state).isEmpty());
+    }
+
+    private static DefinitionState createState(String globalHash, String... operationHashes) {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        for (int i = 0; i < operationHashes.length; i += 2) {
+            hashes.put(operationHashes[i], operationHashes[i + 1]);
+        }
+        return new DefinitionState(globalHash, hashes, Collections.emptyMap(), null);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the translation of the names of WSO2 throttling tiers to AWS API Gateway limits.
+ */
+public class ThrottlingLimitTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testRateTiers() {
+        ThrottlingLimit limit = ThrottlingLimit.fromTierName("10KPerMin");
+        assertEquals(10000.0 / 60, limit.getRateLimit(), DELTA);
+        assertEquals(Integer.valueOf(167), limit.getBurstLimit());
+
+        limit = ThrottlingLimit.fromTierName("500PerSec");
+        assertEquals(500.0, limit.getRateLimit(), DELTA);
+        assertEquals(Integer.valueOf(500), limit.getBurstLimit());
+
+        limit = ThrottlingLimit.fromTierName("1MPerHour");
+        assertEquals(1000000.0 / 3600, limit.getRateLimit(), DELTA);
+        assertEquals(Integer.valueOf(278), limit.getBurstLimit());
+    }
+
+    @Test
+    public void testBurstOfAtLeastOneRequest() {
+        ThrottlingLimit limit = ThrottlingLimit.fromTierName("1PerMin");
+        assertEquals(1.0 / 60, limit.getRateLimit(), DELTA);
+        assertEquals(Integer.valueOf(1), limit.getBurstLimit());
+    }
+
+    @Test
+    public void testCaseInsensitiveNames() {
+        assertEquals(Integer.valueOf(2000), ThrottlingLimit.fromTierName("2kpersec").getBurstLimit());
+    }
+
+    @Test
+    public void testUnknownTiers() {
+        assertNull(ThrottlingLimit.fromTierName(null));
+        assertNull(ThrottlingLimit.fromTierName("Unlimited"));
+        assertNull(ThrottlingLimit.fromTierName("unlimited"));
+        assertNull(ThrottlingLimit.fromTierName("Gold"));
+        assertNull(ThrottlingLimit.fromTierName("10PerWeek"));
+        // quotas over a day are not enforced by the stage
+        assertNull(ThrottlingLimit.fromTierName("1000PerDay"));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.plan;
+
+import org.junit.Test;
+import org.wso2.aws.client.model.ResourceSnapshot;
+import software.amazon.awssdk.services.apigateway.model.Integration;
+import software.amazon.awssdk.services.apigateway.model.IntegrationType;
+import software.amazon.awssdk.services.apigateway.model.Method;
+import software.amazon.awssdk.services.apigateway.model.MethodSetting;
+import software.amazon.awssdk.services.apigateway.model.Op;
+import software.amazon.awssdk.services.apigateway.model.PatchOperation;
+import software.amazon.awssdk.services.apigateway.model.PutIntegrationRequest;
+import software.amazon.awssdk.services.apigateway.model.PutIntegrationResponseRequest;
+import software.amazon.awssdk.services.apigateway.model.Resource;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+import software.amazon.awssdk.services.apigateway.model.UpdateStageRequest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the coalescing of the calls compiled into deployment plans.
+ */
+public class DeploymentPlanCompilerTest {
+
+    private static final String REST_API_ID = "a1b2c3d4e5";
+    private static final String STAGE = "prod";
+
+    @Test
+    public void testStagePatchesCoalesced() {
+        DeploymentPlan plan = new DeploymentPlanCompiler(new ResourceSnapshot(REST_API_ID), STAGE, null)
+                .patchStage(replace("/variables/backend", "old.example.com"))
+                .patchStage(replace("/cacheClusterEnabled", "true"))
+                .patchStage(replace("/variables/backend", "backend.example.com"))
+                .compileStage();
+
+        assertEquals(1, plan.getCallCount());
+        UpdateStageRequest request = getStageUpdate(plan);
+        assertEquals(REST_API_ID, request.restApiId());
+        assertEquals(STAGE, request.stageName());
+        // later patches of a path replace the earlier ones in place
+        List<PatchOperation> patches = request.patchOperations();
+        assertEquals(2, patches.size());
+        assertEquals("/variables/backend", patches.get(0).path());
+        assertEquals("backend.example.com", patches.get(0).value());
+        assertEquals("/cacheClusterEnabled", patches.get(1).path());
+    }
+
+    @Test
+    public void testNoOpPatchesDropped() {
+        Stage currentStage = Stage.builder()
+                .stageName(STAGE)
+                .variables(Collections.singletonMap("backend", "backend.example.com"))
+                .cacheClusterEnabled(true)
+                .cacheClusterSize("0.5")
+                .methodSettings(Map.of(
+                        "~1pets/GET", MethodSetting.builder().cachingEnabled(true).cacheTtlInSeconds(300).build(),
+                        "*/*", MethodSetting.builder().throttlingRateLimit(100.0).throttlingBurstLimit(100).build()))
+                .build();
+
+        DeploymentPlan plan = new DeploymentPlanCompiler(new ResourceSnapshot(REST_API_ID), STAGE, currentStage)
+                .patchStage(replace("/variables/backend", "backend.example.com"))
+                .patchStage(replace("/cacheClusterEnabled", "true"))
+                .patchStage(replace("/cacheClusterSize", "0.5"))
+                .patchStage(replace("/~1pets/GET/caching/enabled", "true"))
+                .patchStage(replace("/~1pets/GET/caching/ttlInSeconds", "60"))
+                .patchStage(replace("/*/*/throttling/rateLimit", "100"))
+                .patchStage(replace("/*/*/throttling/burstLimit", "100"))
+                .patchStage(replace("/~1orders/GET/caching/enabled", "true"))
+                .patchStage(PatchOperation.builder().op(Op.REMOVE).path("/variables/legacy").build())
+                .compileStage();
+
+        List<PatchOperation> patches = getStageUpdate(plan).patchOperations();
+        assertEquals(3, patches.size());
+        assertEquals("/~1pets/GET/caching/ttlInSeconds", patches.get(0).path());
+        // settings of methods without current settings are unknown, so they are kept
+        assertEquals("/~1orders/GET/caching/enabled", patches.get(1).path());
+        assertEquals(Op.REMOVE, patches.get(2).op());
+    }
+
+    @Test
+    public void testUnchangedStageHasEmptyPlan() {
+        Stage currentStage = Stage.builder()
+                .stageName(STAGE)
+                .variables(Collections.singletonMap("backend", "backend.example.com"))
+                .build();
+
+        DeploymentPlan plan = new DeploymentPlanCompiler(new ResourceSnapshot(REST_API_ID), STAGE, currentStage)
+                .patchStage(replace("/variables/backend", "backend.example.com"))
+                .compileStage();
+
+        assertTrue(plan.isEmpty());
+        assertEquals(0, plan.getCallCount());
+    }
+
+    @Test
+    public void testMissingIntegrationsRepaired() {
+        ResourceSnapshot snapshot = new ResourceSnapshot(REST_API_ID);
+        snapshot.addResource(Resource.builder()
+                .id("pets")
+                .path("/pets")
+                .resourceMethods(Map.of(
+                        "GET", Method.builder().httpMethod("GET").build(),
+                        "POST", Method.builder().httpMethod("POST")
+                                .methodIntegration(Integration.builder().type(IntegrationType.HTTP).build()).build()))
+                .build());
+        snapshot.addResource(Resource.builder()
+                .id("pet")
+                .path("/pets/{petId}")
+                .resourceMethods(Collections.singletonMap("GET", Method.builder().httpMethod("GET")
+                        .requestParameters(Map.of("method.request.path.petId", true,
+                                "method.request.querystring.limit", false)).build()))
+                .build());
+
+        DeploymentPlan plan = new DeploymentPlanCompiler(snapshot, STAGE, null)
+                .repairIntegrations("https://backend.example.com", false, null)
+                .compile();
+        assertEquals(1, plan.getSteps().size());
+        assertEquals(2, plan.getSteps().get(0).getOperations().size());
+        assertEquals(4, plan.getCallCount());
+
+        PlanOperation operation = plan.getSteps().get(0).getOperations().get(1);
+        assertEquals("/pets/{petId}", operation.getTarget());
+        PutIntegrationRequest integration = (PutIntegrationRequest) operation.getCalls().get(0);
+        assertEquals(IntegrationType.HTTP, integration.type());
+        assertEquals("https://backend.example.com/pets/{petId}", integration.uri());
+        assertEquals("method.request.path.petId",
+                integration.requestParameters().get("integration.request.path.petId"));
+        assertEquals(2, integration.requestParameters().size());
+        assertTrue(operation.getCalls().get(1) instanceof PutIntegrationResponseRequest);
+    }
+
+    @Test
+    public void testMissingProxyIntegrationsRepaired() {
+        ResourceSnapshot snapshot = new ResourceSnapshot(REST_API_ID);
+        snapshot.addResource(Resource.builder()
+                .id("pet")
+                .path("/pets/{petId}")
+                .resourceMethods(Collections.singletonMap("GET", Method.builder().httpMethod("GET")
+                        .requestParameters(Map.of("method.request.path.petId", true,
+                                "method.request.querystring.limit", false)).build()))
+                .build());
+
+        DeploymentPlan plan = new DeploymentPlanCompiler(snapshot, STAGE, null)
+                .repairIntegrations("https://backend.example.com", true, Collections.singleton("/pets/{petId}"))
+                .compile();
+
+        List<PlanOperation> operations = plan.getSteps().get(0).getOperations();
+        assertEquals(1, operations.size());
+        // proxy integrations have no integration responses and only map the path parameters
+        assertEquals(1, operations.get(0).getCalls().size());
+        PutIntegrationRequest integration = (PutIntegrationRequest) operations.get(0).getCalls().get(0);
+        assertEquals(IntegrationType.HTTP_PROXY, integration.type());
+        assertEquals(Collections.singletonMap("integration.request.path.petId", "method.request.path.petId"),
+                integration.requestParameters());
+    }
+
+    private static PatchOperation replace(String path, String value) {
+        return PatchOperation.builder().op(Op.REPLACE).path(path).value(value).build();
+    }
+
+    private static UpdateStageRequest getStageUpdate(DeploymentPlan plan) {
+        assertEquals(1, plan.getSteps().size());
+        return (UpdateStageRequest) plan.getSteps().get(0).getOperations().get(0).getCalls().get(0);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonObject;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.APIIdentifier;
+import org.wso2.carbon.apimgt.api.model.OperationPolicy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * APIs and policies shared by the tests of the AWS API Gateway utilities.
+ */
+final class APITestUtil {
+
+    static final String DEFINITION = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"PetStore\",\"version\":\"1.0.0\"},"
+            + "\"paths\":{\"/pets\":{\"get\":{\"responses\":{\"200\":{\"description\":\"OK\"}}}},"
+            + "\"/pets/{petId}\":{\"get\":{\"parameters\":[{\"name\":\"limit\",\"in\":\"query\","
+            + "\"schema\":{\"type\":\"integer\"}}],\"responses\":{\"200\":{\"description\":\"OK\"}}}}}}";
+    static final String ENDPOINT_CONFIG = "{\"endpoint_type\":\"http\","
+            + "\"production_endpoints\":{\"url\":\"https://backend.example.com/v1/\"}}";
+    static final String LAMBDA_ARN = "arn:aws-cn:lambda:cn-north-1:123456789012:function:authorizer";
+    static final String INVOKE_ROLE_ARN = "arn:aws-cn:iam::123456789012:role/invoke-role";
+
+    private APITestUtil() {
+    }
+
+    /**
+     * Creates a PetStore API with the {@link #DEFINITION} definition and an HTTP backend.
+     */
+    static API createAPI() {
+        API api = new API(new APIIdentifier("admin", "PetStore", "1.0.0"));
+        api.setUuid("7f0e3c52-0b4e-4a8f-9d36-1c2b3a4d5e6f");
+        api.setSwaggerDefinition(DEFINITION);
+        api.setEndpointConfig(ENDPOINT_CONFIG);
+        return api;
+    }
+
+    /**
+     * Creates the AWS operation policy of a Lambda authorizer, with the given result TTL if it is not null.
+     */
+    static OperationPolicy createAuthorizerPolicy(String resultTtl) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(AWSConstants.OPERATION_POLICY_ARN_PARAMETER, LAMBDA_ARN);
+        parameters.put(AWSConstants.OPERATION_POLICY_ROLE_PARAMETER, INVOKE_ROLE_ARN);
+        if (resultTtl != null) {
+            parameters.put(AWSConstants.OPERATION_POLICY_RESULT_TTL_PARAMETER, resultTtl);
+        }
+        OperationPolicy policy = new OperationPolicy();
+        policy.setPolicyName(AWSConstants.AWS_OPERATION_POLICY_NAME);
+        policy.setParameters(parameters);
+        return policy;
+    }
+
+    static JsonObject getOperation(JsonObject definition, String path, String httpMethod) {
+        return definition.getAsJsonObject("paths").getAsJsonObject(path).getAsJsonObject(httpMethod);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.junit.Test;
+import software.amazon.awssdk.services.apigateway.model.Op;
+import software.amazon.awssdk.services.apigateway.model.PatchOperation;
+import software.amazon.awssdk.services.apigateway.model.UpdateRestApiRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the requests and keys built for AWS REST APIs.
+ */
+public class AWSAPIUtilTest {
+
+    @Test
+    public void testMethodSettingKey() {
+        assertEquals("~1pets~1{petId}/GET", AWSAPIUtil.getMethodSettingKey("/pets/{petId}", "get"));
+    }
+
+    @Test
+    public void testNormalizeMethodSettingKey() {
+        assertEquals("~1pets/GET", AWSAPIUtil.normalizeMethodSettingKey("~1pets/GET"));
+        assertEquals("~1pets/GET", AWSAPIUtil.normalizeMethodSettingKey("/pets/GET"));
+        assertEquals("~1pets~1{petId}/GET", AWSAPIUtil.normalizeMethodSettingKey("pets/{petId}/GET"));
+        assertEquals("~1pets~1{petId}/GET", AWSAPIUtil.normalizeMethodSettingKey("~1pets~1{petId}/get"));
+        assertEquals("*/*", AWSAPIUtil.normalizeMethodSettingKey("*/*"));
+    }
+
+    @Test
+    public void testCompressionUpdate() {
+        UpdateRestApiRequest request = AWSAPIUtil.buildCompressionUpdate("a1b2c3d4e5", null, 1024);
+        assertEquals("a1b2c3d4e5", request.restApiId());
+        assertEquals(1, request.patchOperations().size());
+        PatchOperation patch = request.patchOperations().get(0);
+        assertEquals(Op.REPLACE, patch.op());
+        assertEquals("/minimumCompressionSize", patch.path());
+        assertEquals("1024", patch.value());
+
+        assertEquals("0", AWSAPIUtil.buildCompressionUpdate("a1b2c3d4e5", 1024, 0).patchOperations().get(0).value());
+    }
+
+    @Test
+    public void testCompressionDisabled() {
+        // an empty value clears the minimum compression size, which disables compression
+        PatchOperation patch = AWSAPIUtil.buildCompressionUpdate("a1b2c3d4e5", 1024, null).patchOperations().get(0);
+        assertEquals(Op.REPLACE, patch.op());
+        assertEquals("", patch.value());
+    }
+
+    @Test
+    public void testCompressionUnchanged() {
+        assertNull(AWSAPIUtil.buildCompressionUpdate("a1b2c3d4e5", 1024, 1024));
+        assertNull(AWSAPIUtil.buildCompressionUpdate("a1b2c3d4e5", null, null));
+    }
+}
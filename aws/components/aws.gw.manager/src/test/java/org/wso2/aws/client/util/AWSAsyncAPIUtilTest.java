@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.junit.Test;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.aws.client.model.DeploymentSettings;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import software.amazon.awssdk.services.apigateway.ApiGatewayAsyncClient;
+import software.amazon.awssdk.services.apigateway.model.BadRequestException;
+import software.amazon.awssdk.services.apigateway.model.DeleteRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.DeleteRestApiResponse;
+import software.amazon.awssdk.services.apigateway.model.ImportRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.ImportRestApiResponse;
+import software.amazon.awssdk.services.apigateway.model.UpdateRestApiRequest;
+import software.amazon.awssdk.services.apigateway.model.UpdateRestApiResponse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the recovery of the non-blocking deployments of REST APIs.
+ */
+public class AWSAsyncAPIUtilTest {
+
+    private static final String REST_API_ID = "a1b2c3d4e5";
+
+    @Test
+    public void testImportRolledBackWhenCompressionUpdateFails() throws Exception {
+        List<String> deletedApis = new CopyOnWriteArrayList<>();
+        ApiGatewayAsyncClient client = new ApiGatewayAsyncClient() {
+            @Override
+            public CompletableFuture<ImportRestApiResponse> importRestApi(ImportRestApiRequest request) {
+                // the minimum compression size of the definition is not applied by the import
+                return CompletableFuture.completedFuture(ImportRestApiResponse.builder().id(REST_API_ID).build());
+            }
+
+            @Override
+            public CompletableFuture<UpdateRestApiResponse> updateRestApi(UpdateRestApiRequest request) {
+                return CompletableFuture.failedFuture(BadRequestException.builder().statusCode(400)
+                        .message("Invalid patch path /minimumCompressionSize").build());
+            }
+
+            @Override
+            public CompletableFuture<DeleteRestApiResponse> deleteRestApi(DeleteRestApiRequest request) {
+                deletedApis.add(request.restApiId());
+                return CompletableFuture.completedFuture(DeleteRestApiResponse.builder().build());
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        DeploymentCheckpointStore checkpoints = DeploymentCheckpointStore.getInstance("async-import", "", 3,
+                false);
+        DeploymentSettings deploymentSettings = new DeploymentSettings(
+                Collections.singletonMap(AWSConstants.AWS_MINIMUM_COMPRESSION_SIZE, "1024"));
+        AWSAsyncAPIUtil asyncAPIUtil = new AWSAsyncAPIUtil(client,
+                AdaptiveRateLimiter.getInstance("async-import", "us-east-1"), false, deploymentSettings,
+                checkpoints, null);
+        API api = APITestUtil.createAPI();
+
+        try {
+            asyncAPIUtil.importRestAPI(api, "us-east-1", "prod").get(10, TimeUnit.SECONDS);
+            fail("The import must fail when the compression update fails");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof APIManagementException);
+            assertTrue(e.getCause().getMessage().contains("Invalid patch path /minimumCompressionSize"));
+        }
+        // the imported Rest API is not checkpointed, so it is deleted instead of being left for a resume
+        assertEquals(Collections.singletonList(REST_API_ID), deletedApis);
+        assertNull(checkpoints.get(checkpoints.getKey(api, "prod")));
+    }
+}
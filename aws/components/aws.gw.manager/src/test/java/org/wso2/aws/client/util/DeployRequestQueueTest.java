@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the ordering and collapsing of the deploy requests of an API.
+ */
+public class DeployRequestQueueTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestsRunInArrivalOrder() throws Exception {
+        DeployRequestQueue queue = DeployRequestQueue.getInstance("arrival-order", 4);
+        Future<String> first = submitBlocking(queue, "pets");
+        Future<String> undeployment = executor.submit(() -> {
+            queue.submitUndeployment("pets", previousResult -> record("undeploy after " + previousResult));
+            return null;
+        });
+        waitFor(() -> queue.getQueueDepth() == 1);
+        Future<String> second = submit(queue, "pets", "deploy-2");
+        waitFor(() -> queue.getQueueDepth() == 2);
+        Future<String> third = submit(queue, "pets", "deploy-3");
+        waitFor(() -> queue.getCoalescedCount() == 1);
+
+        release.countDown();
+        assertEquals("deploy-1", get(first));
+        assertNull(get(undeployment));
+        // the waiting deploy requests collapse into the latest one, but not into the undeployment before them
+        assertEquals("deploy-3", get(second));
+        assertEquals("deploy-3", get(third));
+        assertEquals(Arrays.asList("deploy-1", "undeploy after deploy-1", "deploy-3 after null"), executed);
+        assertEquals(3, queue.getExecutedCount());
+        assertEquals(0, queue.getQueueDepth());
+        assertEquals(0, queue.getInFlight());
+    }
+
+    @Test
+    public void testUndeploymentsNotCollapsed() throws Exception {
+        DeployRequestQueue queue = DeployRequestQueue.getInstance("undeployments", 4);
+        Future<String> first = submitBlocking(queue, "pets");
+        Future<String> undeployment = executor.submit(() -> {
+            queue.submitUndeployment("pets", previousResult -> record("undeploy-1"));
+            return null;
+        });
+        waitFor(() -> queue.getQueueDepth() == 1);
+        Future<String> nextUndeployment = executor.submit(() -> {
+            queue.submitUndeployment("pets", previousResult -> record("undeploy-2"));
+            return null;
+        });
+        waitFor(() -> queue.getQueueDepth() == 2);
+
+        release.countDown();
+        get(first);
+        get(undeployment);
+        get(nextUndeployment);
+        assertEquals(Arrays.asList("deploy-1", "undeploy-1", "undeploy-2"), executed);
+        assertEquals(0, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void testFailureReturnedToCollapsedRequests() throws Exception {
+        DeployRequestQueue queue = DeployRequestQueue.getInstance("failure", 4);
+        Future<String> first = submitBlocking(queue, "pets");
+        Future<String> second = submit(queue, "pets", "deploy-2");
+        waitFor(() -> queue.getQueueDepth() == 1);
+        Future<String> third = executor.submit(() -> queue.submit("pets", previousResult -> {
+            throw new APIManagementException("Deployment failed");
+        }));
+        waitFor(() -> queue.getCoalescedCount() == 1);
+
+        release.countDown();
+        get(first);
+        assertFailed(second);
+        assertFailed(third);
+
+        // the API is not left blocked by the failed request
+        assertEquals("deploy-4", get(submit(queue, "pets", "deploy-4")));
+    }
+
+    @Test
+    public void testTimedOutDeploymentKeepsAPI() throws Exception {
+        DeployRequestQueue queue = DeployRequestQueue.getInstance("timeout", 4);
+        CompletableFuture<String> deployment = new CompletableFuture<>();
+        try {
+            queue.submitAsync("pets", previousResult -> deployment, 1);
+            fail("Deployment should have timed out");
+        } catch (APIManagementException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        // the next request of the API waits until the timed out deployment completes
+        Future<String> next = submit(queue, "pets", "deploy-2");
+        waitFor(() -> queue.getQueueDepth() == 1);
+        assertFalse(next.isDone());
+        assertEquals(1, queue.getInFlight());
+
+        deployment.complete("deploy-1");
+        assertEquals("deploy-2", get(next));
+        assertEquals(Collections.singletonList("deploy-2 after deploy-1"), executed);
+        assertEquals(0, queue.getInFlight());
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        DeployRequestQueue queue = DeployRequestQueue.getInstance("concurrency-limit", 1);
+        Future<String> first = submitBlocking(queue, "pets");
+        Future<String> other = submit(queue, "orders", "deploy-orders");
+        waitFor(() -> queue.getQueueDepth() == 1);
+        assertFalse(other.isDone());
+
+        release.countDown();
+        assertEquals("deploy-1", get(first));
+        assertEquals("deploy-orders", get(other));
+    }
+
+    @Test
+    public void testResizedInPlace() throws Exception {
+        DeployRequestQueue queue = DeployRequestQueue.getInstance("resize", 1);
+        Future<String> first = submitBlocking(queue, "pets");
+
+        assertSame(queue, DeployRequestQueue.getInstance("resize", 2));
+        // the raised limit applies to the requests of other APIs right away
+        assertEquals("deploy-orders", get(submit(queue, "orders", "deploy-orders")));
+        assertFalse(first.isDone());
+
+        release.countDown();
+        assertEquals("deploy-1", get(first));
+    }
+
+    /**
+     * Submits a deployment that blocks until released, and waits for it to start.
+     */
+    private Future<String> submitBlocking(DeployRequestQueue queue, String apiKey) throws InterruptedException {
+        Future<String> future = executor.submit(() -> queue.submit(apiKey, previousResult -> {
+            record("deploy-1");
+            started.countDown();
+            try {
+                assertTrue(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new APIManagementException("Interrupted", e);
+            }
+            return "deploy-1";
+        }));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return future;
+    }
+
+    private Future<String> submit(DeployRequestQueue queue, String apiKey, String name) {
+        return executor.submit(() -> queue.submit(apiKey, previousResult -> {
+            record(name + " after " + previousResult);
+            return name;
+        }));
+    }
+
+    private String record(String execution) {
+        executed.add(execution);
+        return null;
+    }
+
+    private static <T> T get(Future<T> future) throws Exception {
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void assertFailed(Future<String> future) throws Exception {
+        try {
+            get(future);
+            fail("Deployment should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof APIManagementException);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for the deploy requests to be queued");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
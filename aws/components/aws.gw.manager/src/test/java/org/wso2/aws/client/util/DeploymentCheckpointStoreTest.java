@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.aws.client.model.DeploymentCheckpoint;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.APIIdentifier;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the persistence of deployment checkpoints and the policy that decides when a deployment is rolled back.
+ */
+public class DeploymentCheckpointStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        String directory = temporaryFolder.newFolder().getPath();
+        DeploymentCheckpointStore store = DeploymentCheckpointStore.getInstance("round-trip", directory, 3, false);
+        API api = new API(new APIIdentifier("admin", "PetStore", "1.0.0"));
+        api.setUuid("7f0e3c52-0b4e-4a8f-9d36-1c2b3a4d5e6f");
+        String key = store.getKey(api, "prod");
+        DeploymentCheckpoint checkpoint = new DeploymentCheckpoint("a1b2c3d4e5", "fingerprint", true);
+        checkpoint.complete(DeploymentCheckpoint.Phase.CONFIGURED);
+        checkpoint.deployed("deployment");
+        checkpoint.failed();
+        store.save(key, checkpoint);
+
+        // a changed configuration recreates the store, which loads the checkpoints from the directory
+        DeploymentCheckpointStore reloaded = DeploymentCheckpointStore.getInstance("round-trip", directory, 4,
+                false);
+        DeploymentCheckpoint loaded = reloaded.get(key);
+        assertNotNull(loaded);
+        assertEquals("a1b2c3d4e5", loaded.getRestApiId());
+        assertEquals("fingerprint", loaded.getDefinitionFingerprint());
+        assertTrue(loaded.isRestApiCreated());
+        assertEquals(DeploymentCheckpoint.Phase.DEPLOYED, loaded.getPhase());
+        assertEquals("deployment", loaded.getDeploymentId());
+        assertEquals(1, loaded.getFailedAttempts());
+    }
+
+    @Test
+    public void testCheckpointsOfOtherEnvironmentsIgnored() throws IOException {
+        String directory = temporaryFolder.newFolder().getPath();
+        DeploymentCheckpointStore.getInstance("production", directory, 3, false)
+                .save("production/api/prod", new DeploymentCheckpoint("a1b2c3d4e5", "fingerprint", true));
+
+        DeploymentCheckpointStore store = DeploymentCheckpointStore.getInstance("sandbox", directory, 3, false);
+        assertNull(store.get("production/api/prod"));
+    }
+
+    @Test
+    public void testRemove() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        DeploymentCheckpointStore store = DeploymentCheckpointStore.getInstance("remove", directory.getPath(), 3,
+                false);
+        store.save("remove/pets/prod", new DeploymentCheckpoint("pets", "fingerprint", true));
+        store.save("remove/orders/prod", new DeploymentCheckpoint("orders", "fingerprint", false));
+        store.remove("remove/pets/prod");
+        store.removeByRestApiId("orders");
+
+        assertNull(store.get("remove/pets/prod"));
+        assertNull(store.get("remove/orders/prod"));
+        assertEquals(0, directory.list((dir, name) -> name.endsWith(".json")).length);
+    }
+
+    @Test
+    public void testRolledBackAfterMaxAttempts() {
+        DeploymentCheckpointStore store = DeploymentCheckpointStore.getInstance("max-attempts", "", 2, false);
+        DeploymentCheckpoint checkpoint = new DeploymentCheckpoint("a1b2c3d4e5", "fingerprint", true);
+        store.save("max-attempts/api/prod", checkpoint);
+
+        assertFalse(store.recordFailure("max-attempts/api/prod", checkpoint));
+        assertNotNull(store.get("max-attempts/api/prod"));
+        assertTrue(store.recordFailure("max-attempts/api/prod", checkpoint));
+        assertNull(store.get("max-attempts/api/prod"));
+    }
+
+    @Test
+    public void testRolledBackOnFirstFailure() {
+        DeploymentCheckpointStore store = DeploymentCheckpointStore.getInstance("rollback", "", 3, true);
+        DeploymentCheckpoint checkpoint = new DeploymentCheckpoint("a1b2c3d4e5", "fingerprint", true);
+        store.save("rollback/api/prod", checkpoint);
+
+        assertTrue(store.recordFailure("rollback/api/prod", checkpoint));
+        assertNull(store.get("rollback/api/prod"));
+    }
+}
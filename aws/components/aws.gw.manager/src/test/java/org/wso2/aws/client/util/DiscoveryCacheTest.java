@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.junit.Test;
+import software.amazon.awssdk.services.apigateway.model.RestApi;
+import software.amazon.awssdk.services.apigateway.model.Stage;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the invalidation and eviction of the details cached between discovery cycles.
+ */
+public class DiscoveryCacheTest {
+
+    private static final Instant UPDATED = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    public void testCachedUntilRedeployed() {
+        DiscoveryCache cache = new DiscoveryCache(10);
+        RestApi restApi = createRestApi("pets");
+        cache.put(restApi, createStage("deployment", UPDATED), "definition", "https://backend.example.com",
+                "reference");
+
+        DiscoveryCache.Entry entry = cache.get(restApi, createStage("deployment", UPDATED));
+        assertNotNull(entry);
+        assertEquals("definition", entry.getApiDefinition());
+        assertEquals("https://backend.example.com", entry.getEndpoint());
+        assertEquals("reference", entry.getReferenceArtifact());
+
+        assertNull(cache.get(restApi, createStage("redeployment", UPDATED)));
+        // stage variables may change the backend without a redeployment
+        assertNull(cache.get(restApi, createStage("deployment", UPDATED.plusSeconds(60))));
+        assertNull(cache.get(restApi.toBuilder().description("Updated").build(),
+                createStage("deployment", UPDATED)));
+        assertNull(cache.get(createRestApi("orders"), createStage("deployment", UPDATED)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        DiscoveryCache cache = new DiscoveryCache(2);
+        Stage stage = createStage("deployment", UPDATED);
+        RestApi pets = createRestApi("pets");
+        RestApi orders = createRestApi("orders");
+        RestApi users = createRestApi("users");
+        cache.put(pets, stage, "pets", null, "pets");
+        cache.put(orders, stage, "orders", null, "orders");
+        cache.get(pets, stage);
+        cache.put(users, stage, "users", null, "users");
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(pets, stage));
+        assertNull(cache.get(orders, stage));
+        assertNotNull(cache.get(users, stage));
+    }
+
+    @Test
+    public void testDeletedApisEvicted() {
+        DiscoveryCache cache = new DiscoveryCache(10);
+        Stage stage = createStage("deployment", UPDATED);
+        RestApi pets = createRestApi("pets");
+        cache.put(pets, stage, "pets", null, "pets");
+        cache.put(createRestApi("orders"), stage, "orders", null, "orders");
+
+        cache.retainAll(Collections.singletonList(pets));
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(pets, stage));
+    }
+
+    private static RestApi createRestApi(String id) {
+        return RestApi.builder().id(id).name(id).version("1.0.0").build();
+    }
+
+    private static Stage createStage(String deploymentId, Instant lastUpdatedDate) {
+        return Stage.builder().stageName("prod").deploymentId(deploymentId).lastUpdatedDate(lastUpdatedDate).build();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the parsing of OpenAPI definitions exported from AWS API Gateway.
+ */
+public class ExportedDefinitionTest {
+
+    private static final String EXPORTED_DEFINITION = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"PetStore\"},"
+            + "\"paths\":{\"/pets\":{"
+            + "\"get\":{\"x-amazon-apigateway-integration\":{\"type\":\"http\","
+            + "\"uri\":\"https://${stageVariables.host}/v1/pets\"}},"
+            + "\"post\":{\"x-amazon-apigateway-integration\":{\"type\":\"HTTP_PROXY\","
+            + "\"uri\":\"https://${stageVariables.host}/v1/pets\"}}},"
+            + "\"/pets/{id}\":{\"get\":{\"x-amazon-apigateway-integration\":{\"type\":\"http\","
+            + "\"uri\":\"https://${stageVariables.host}/v1/pets/{petId}\"}}},"
+            + "\"/status\":{\"get\":{\"x-amazon-apigateway-integration\":{\"type\":\"mock\"}}}},"
+            + "\"x-amazon-apigateway-gateway-responses\":{\"DEFAULT_4XX\":{}}}";
+
+    @Test
+    public void testIntegrationUris() {
+        Map<String, String> integrationUris = ExportedDefinition.parse(EXPORTED_DEFINITION).getIntegrationUris();
+
+        // mock integrations have no backend
+        assertEquals(3, integrationUris.size());
+        assertEquals("https://${stageVariables.host}/v1/pets", integrationUris.get("/pets get"));
+        assertEquals("https://${stageVariables.host}/v1/pets", integrationUris.get("/pets post"));
+        assertEquals("https://${stageVariables.host}/v1/pets/{petId}", integrationUris.get("/pets/{id} get"));
+    }
+
+    @Test
+    public void testEndpoint() {
+        ExportedDefinition definition = ExportedDefinition.parse(EXPORTED_DEFINITION);
+
+        assertEquals("https://backend.example.com/v1",
+                definition.getEndpoint(Collections.singletonMap("host", "backend.example.com")));
+        assertEquals("https://${stageVariables.host}/v1", definition.getEndpoint(null));
+    }
+
+    @Test
+    public void testEndpointOfMostOperations() {
+        String exportedDefinition = "{\"paths\":{"
+                + "\"/pets\":{\"get\":{\"x-amazon-apigateway-integration\":{\"type\":\"http\","
+                + "\"uri\":\"https://pets.example.com/pets\"}}},"
+                + "\"/pets/{id}\":{\"get\":{\"x-amazon-apigateway-integration\":{\"type\":\"http\","
+                + "\"uri\":\"https://pets.example.com/pets/{id}\"}}},"
+                + "\"/orders\":{\"get\":{\"x-amazon-apigateway-integration\":{\"type\":\"http\","
+                + "\"uri\":\"https://orders.example.com/orders\"}}}}}";
+
+        assertEquals("https://pets.example.com", ExportedDefinition.parse(exportedDefinition).getEndpoint(null));
+    }
+
+    @Test
+    public void testEndpointWithoutIntegrations() {
+        String exportedDefinition = "{\"paths\":{\"/status\":{\"get\":{\"x-amazon-apigateway-integration\":"
+                + "{\"type\":\"mock\"}}}}}";
+
+        assertNull(ExportedDefinition.parse(exportedDefinition).getEndpoint(null));
+    }
+
+    @Test
+    public void testDefinitionWithoutExtensions() {
+        ExportedDefinition definition = ExportedDefinition.parse(EXPORTED_DEFINITION);
+
+        assertFalse(definition.getDefinition().contains("x-amazon-apigateway-"));
+        assertEquals(GatewayUtil.fingerprint(JsonParser.parseString(definition.getDefinition())),
+                definition.getFingerprint());
+    }
+
+    @Test
+    public void testFingerprintIgnoresExtensions() {
+        String redeployed = EXPORTED_DEFINITION.replace("https://${stageVariables.host}/v1/pets\"}}}",
+                "https://backend.example.com/pets\"}}}");
+        assertNotEquals(EXPORTED_DEFINITION, redeployed);
+        assertEquals(ExportedDefinition.parse(EXPORTED_DEFINITION).getFingerprint(),
+                ExportedDefinition.parse(redeployed).getFingerprint());
+
+        String changed = EXPORTED_DEFINITION.replace("\"title\":\"PetStore\"", "\"title\":\"Pets\"");
+        assertNotEquals(ExportedDefinition.parse(EXPORTED_DEFINITION).getFingerprint(),
+                ExportedDefinition.parse(changed).getFingerprint());
+    }
+}
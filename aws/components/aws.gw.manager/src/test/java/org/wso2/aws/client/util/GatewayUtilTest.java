@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.GatewayAPIValidationResult;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the utility methods for the AWS API Gateway.
+ */
+public class GatewayUtilTest {
+
+    private static final String REFERENCE_ARTIFACT = "{\"artifactVersion\":1,\"id\":\"a1b2c3d4e5\","
+            + "\"name\":\"PetStore\",\"apiVersion\":\"1.0.0\",\"stage\":\"prod\",\"fingerprint\":\"0123abcd\"}";
+    private static final String HTTP_API_REFERENCE_ARTIFACT = REFERENCE_ARTIFACT.replace("}", ",\"apiType\":\"HTTP\"}");
+    private static final String LEGACY_REFERENCE_ARTIFACT = "RestApi(Id=a1b2c3d4e5, Name=PetStore)";
+
+    @Test
+    public void testFingerprintOfCanonicalForm() {
+        assertEquals(DigestUtils.sha256Hex("[{\"a\":null,\"b\":[1,\"x\"]}]"),
+                GatewayUtil.fingerprint(parse("{\"b\":[1,\"x\"],\"a\":null}")));
+        assertEquals(DigestUtils.sha256Hex("[{\"a\":1},\"b\"]"),
+                GatewayUtil.fingerprint(parse("{\"a\":1}"), parse("\"b\"")));
+    }
+
+    @Test
+    public void testFingerprintIgnoresMemberOrder() {
+        assertEquals(GatewayUtil.fingerprint(parse("{\"info\":{\"title\":\"Pets\",\"version\":\"1\"},\"paths\":{}}")),
+                GatewayUtil.fingerprint(parse("{\"paths\":{},\"info\":{\"version\":\"1\",\"title\":\"Pets\"}}")));
+    }
+
+    @Test
+    public void testFingerprintKeepsArrayOrder() {
+        assertNotEquals(GatewayUtil.fingerprint(parse("[\"get\",\"post\"]")),
+                GatewayUtil.fingerprint(parse("[\"post\",\"get\"]")));
+        assertNotEquals(GatewayUtil.fingerprint(parse("{\"a\":1}"), parse("{\"b\":2}")),
+                GatewayUtil.fingerprint(parse("{\"b\":2}"), parse("{\"a\":1}")));
+    }
+
+    @Test
+    public void testReferenceArtifactFingerprint() {
+        assertEquals("0123abcd", GatewayUtil.getReferenceArtifactFingerprint(REFERENCE_ARTIFACT));
+        // legacy artifacts are the serialized REST API
+        assertNull(GatewayUtil.getReferenceArtifactFingerprint(LEGACY_REFERENCE_ARTIFACT));
+        assertNull(GatewayUtil.getReferenceArtifactFingerprint("{\"id\":\"a1b2c3d4e5\"}"));
+    }
+
+    @Test
+    public void testHttpAPIReferenceArtifact() {
+        assertTrue(GatewayUtil.isHttpAPIReferenceArtifact(HTTP_API_REFERENCE_ARTIFACT));
+        assertFalse(GatewayUtil.isHttpAPIReferenceArtifact(REFERENCE_ARTIFACT));
+        assertFalse(GatewayUtil.isHttpAPIReferenceArtifact(LEGACY_REFERENCE_ARTIFACT));
+        assertFalse(GatewayUtil.isHttpAPIReferenceArtifact(null));
+    }
+
+    @Test
+    public void testReferenceArtifactUpdated() {
+        // only the fingerprint of the definition is compared
+        assertFalse(GatewayUtil.isReferenceArtifactUpdated(REFERENCE_ARTIFACT,
+                REFERENCE_ARTIFACT.replace("\"stage\":\"prod\"", "\"stage\":\"dev\"")));
+        assertTrue(GatewayUtil.isReferenceArtifactUpdated(REFERENCE_ARTIFACT,
+                REFERENCE_ARTIFACT.replace("0123abcd", "4567ef01")));
+        // an API of another type is updated even if its definition is the same
+        assertTrue(GatewayUtil.isReferenceArtifactUpdated(REFERENCE_ARTIFACT, HTTP_API_REFERENCE_ARTIFACT));
+        assertTrue(GatewayUtil.isReferenceArtifactUpdated(LEGACY_REFERENCE_ARTIFACT, REFERENCE_ARTIFACT));
+        assertFalse(GatewayUtil.isReferenceArtifactUpdated(LEGACY_REFERENCE_ARTIFACT, LEGACY_REFERENCE_ARTIFACT));
+    }
+
+    @Test
+    public void testAWSApiId() throws APIManagementException {
+        assertEquals("a1b2c3d4e5", GatewayUtil.getAWSApiIdFromReferenceArtifact(REFERENCE_ARTIFACT));
+        assertEquals("a1b2c3d4e5", GatewayUtil.getAWSApiIdFromReferenceArtifact(HTTP_API_REFERENCE_ARTIFACT));
+        assertEquals("a1b2c3d4e5", GatewayUtil.getAWSApiIdFromReferenceArtifact(LEGACY_REFERENCE_ARTIFACT));
+    }
+
+    @Test
+    public void testValidateAPIOfType() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setResponseCache(AWSConstants.RESPONSE_CACHE_ENABLED);
+        api.setCacheTimeout(300);
+
+        assertTrue(GatewayUtil.validateAPI(api, false, null).isValid());
+        // HTTP APIs have no response cache
+        GatewayAPIValidationResult result = GatewayUtil.validateAPI(api, true, null);
+        assertFalse(result.isValid());
+        assertEquals(1, result.getErrors().size());
+    }
+
+    @Test
+    public void testIntegerProperty() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(AWSConstants.AWS_DEPLOYMENT_RETENTION, "0");
+        assertEquals(2, GatewayUtil.getIntegerProperty(properties, AWSConstants.AWS_DEPLOYMENT_RETENTION, 2));
+        assertEquals(0, GatewayUtil.getNonNegativeIntegerProperty(properties,
+                AWSConstants.AWS_DEPLOYMENT_RETENTION, 2));
+        properties.put(AWSConstants.AWS_DEPLOYMENT_RETENTION, "-1");
+        assertEquals(2, GatewayUtil.getNonNegativeIntegerProperty(properties,
+                AWSConstants.AWS_DEPLOYMENT_RETENTION, 2));
+    }
+
+    private static JsonElement parse(String json) {
+        return JsonParser.parseString(json);
+    }
+}
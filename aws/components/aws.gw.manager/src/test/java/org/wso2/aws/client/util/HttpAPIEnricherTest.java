@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+import org.wso2.carbon.apimgt.api.model.CORSConfiguration;
+import org.wso2.carbon.apimgt.api.model.OperationPolicy;
+import org.wso2.carbon.apimgt.api.model.URITemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the AWS API Gateway extensions injected into the OpenAPI definitions of HTTP APIs.
+ */
+public class HttpAPIEnricherTest {
+
+    @Test
+    public void testHttpProxyIntegrations() throws APIManagementException {
+        JsonObject definition = enrich(new HttpAPIEnricher(APITestUtil.createAPI(), "us-east-1", false));
+
+        JsonObject integration = APITestUtil.getOperation(definition, "/pets/{petId}", "get")
+                .getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION);
+        assertEquals("http_proxy", integration.get("type").getAsString());
+        assertEquals("GET", integration.get("httpMethod").getAsString());
+        assertEquals("https://backend.example.com/v1/pets/{petId}", integration.get("uri").getAsString());
+        assertEquals("INTERNET", integration.get("connectionType").getAsString());
+        assertEquals(AWSConstants.HTTP_API_PAYLOAD_FORMAT_VERSION,
+                integration.get("payloadFormatVersion").getAsString());
+    }
+
+    @Test
+    public void testPreflightAnsweredByCORSConfiguration() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setSwaggerDefinition(APITestUtil.DEFINITION.replace("\"/pets\":{",
+                "\"/pets\":{\"options\":{\"responses\":{\"200\":{\"description\":\"OK\"}}},"));
+        JsonObject definition = enrich(new HttpAPIEnricher(api, "us-east-1", false));
+
+        assertFalse(definition.getAsJsonObject("paths").getAsJsonObject("/pets").has("options"));
+        JsonObject cors = definition.getAsJsonObject(AWSConstants.OPENAPI_CORS_EXTENSION);
+        assertEquals(1, cors.getAsJsonArray("allowOrigins").size());
+        assertEquals(AWSConstants.CORS_DEFAULT_ALLOW_ORIGIN, cors.getAsJsonArray("allowOrigins").get(0).getAsString());
+        assertEquals(2, cors.getAsJsonArray("allowMethods").size());
+        assertFalse(cors.has("allowCredentials"));
+    }
+
+    @Test
+    public void testCORSConfiguration() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setCorsConfiguration(new CORSConfiguration(true,
+                Arrays.asList("https://a.example.com", "https://b.example.com"), true,
+                Collections.singletonList("Authorization"), Arrays.asList("GET", "POST")));
+        JsonObject cors = enrich(new HttpAPIEnricher(api, "us-east-1", false))
+                .getAsJsonObject(AWSConstants.OPENAPI_CORS_EXTENSION);
+
+        // unlike REST APIs, HTTP APIs support several allowed origins
+        assertEquals(2, cors.getAsJsonArray("allowOrigins").size());
+        assertEquals(1, cors.getAsJsonArray("allowHeaders").size());
+        assertEquals(2, cors.getAsJsonArray("allowMethods").size());
+        assertTrue(cors.get("allowCredentials").getAsBoolean());
+    }
+
+    @Test
+    public void testLambdaAuthorizer() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setApiPolicies(Collections.singletonList(APITestUtil.createAuthorizerPolicy("300")));
+        JsonObject definition = enrich(new HttpAPIEnricher(api, "cn-north-1", false));
+
+        String name = "authorizer-invoke-role-authorizer";
+        JsonObject authorizer = getSecurityScheme(definition, name)
+                .getAsJsonObject(AWSConstants.OPENAPI_AUTHORIZER_EXTENSION);
+        assertEquals("request", authorizer.get("type").getAsString());
+        assertEquals("arn:aws-cn:apigateway:cn-north-1:lambda:path/2015-03-31/functions/"
+                + APITestUtil.LAMBDA_ARN + "/invocations", authorizer.get("authorizerUri").getAsString());
+        // the 1.0 payload format expects the IAM policy responses of the TOKEN authorizers of REST APIs
+        assertEquals("1.0", authorizer.get("authorizerPayloadFormatVersion").getAsString());
+        assertFalse(authorizer.has("enableSimpleResponses"));
+        assertEquals(300, authorizer.get("authorizerResultTtlInSeconds").getAsInt());
+        JsonArray identitySource = authorizer.getAsJsonArray("identitySource");
+        assertEquals(AWSConstants.HTTP_API_IDENTITY_SOURCE, identitySource.get(0).getAsString());
+
+        JsonArray security = APITestUtil.getOperation(definition, "/pets", "get").getAsJsonArray("security");
+        assertTrue(security.get(0).getAsJsonObject().has(name));
+    }
+
+    @Test
+    public void testJwtAuthorizerOfResource() throws APIManagementException {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(AWSConstants.OPERATION_POLICY_JWT_ISSUER_PARAMETER, "https://issuer.example.com");
+        parameters.put(AWSConstants.OPERATION_POLICY_JWT_AUDIENCE_PARAMETER, "pets, orders");
+        OperationPolicy jwtPolicy = new OperationPolicy();
+        jwtPolicy.setPolicyName(AWSConstants.AWS_OPERATION_POLICY_NAME);
+        jwtPolicy.setParameters(parameters);
+        URITemplate resource = new URITemplate();
+        resource.setUriTemplate("/pets");
+        resource.setHTTPVerb("GET");
+        resource.setOperationPolicies(Collections.singletonList(jwtPolicy));
+
+        API api = APITestUtil.createAPI();
+        api.setUriTemplates(Collections.singleton(resource));
+        api.setApiPolicies(Collections.singletonList(APITestUtil.createAuthorizerPolicy(null)));
+        JsonObject definition = enrich(new HttpAPIEnricher(api, "us-east-1", false));
+
+        JsonObject authorizer = getSecurityScheme(definition, "jwt-authorizer")
+                .getAsJsonObject(AWSConstants.OPENAPI_AUTHORIZER_EXTENSION);
+        assertEquals("jwt", authorizer.get("type").getAsString());
+        JsonObject jwtConfiguration = authorizer.getAsJsonObject("jwtConfiguration");
+        assertEquals("https://issuer.example.com", jwtConfiguration.get("issuer").getAsString());
+        assertEquals(2, jwtConfiguration.getAsJsonArray("audience").size());
+        assertEquals("orders", jwtConfiguration.getAsJsonArray("audience").get(1).getAsString());
+
+        // the resource level policy takes precedence over the API level one
+        assertTrue(APITestUtil.getOperation(definition, "/pets", "get").getAsJsonArray("security")
+                .get(0).getAsJsonObject().has("jwt-authorizer"));
+        assertTrue(APITestUtil.getOperation(definition, "/pets/{petId}", "get").getAsJsonArray("security")
+                .get(0).getAsJsonObject().has("authorizer-invoke-role-authorizer"));
+    }
+
+    private static JsonObject getSecurityScheme(JsonObject definition, String name) {
+        return definition.getAsJsonObject("components").getAsJsonObject("securitySchemes").getAsJsonObject(name);
+    }
+
+    private static JsonObject enrich(HttpAPIEnricher enricher) throws APIManagementException {
+        return JsonParser.parseString(enricher.enrich()).getAsJsonObject();
+    }
+}
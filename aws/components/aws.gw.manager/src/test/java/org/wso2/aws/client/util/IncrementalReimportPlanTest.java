@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import software.amazon.awssdk.services.apigateway.model.PutMode;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the re-import mode chosen by diffing enriched definitions against the last deployed one.
+ */
+public class IncrementalReimportPlanTest {
+
+    private static final String STAGE = "prod";
+    private static final String DEFINITION = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"PetStore\"},"
+            + "\"paths\":{\"/pets\":{\"get\":{\"operationId\":\"listPets\"},\"post\":{\"operationId\":\"addPet\"}},"
+            + "\"/orders\":{\"get\":{\"operationId\":\"listOrders\"}}}}";
+
+    @Test
+    public void testOverwriteWithoutPreviousState() {
+        IncrementalReimportPlan plan = IncrementalReimportPlan.create("unknown", STAGE, DEFINITION);
+
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE, plan.getMode());
+        assertEquals(PutMode.OVERWRITE, plan.getPutMode());
+        assertEquals(DEFINITION, plan.getBody());
+        assertNull(plan.getChangedPaths());
+        assertNull(plan.getPreviousDeploymentId());
+    }
+
+    @Test
+    public void testUnchanged() {
+        IncrementalReimportPlan.markImported("unchanged", STAGE, DEFINITION, "deployment");
+
+        IncrementalReimportPlan plan = IncrementalReimportPlan.create("unchanged", STAGE, DEFINITION);
+        assertEquals(IncrementalReimportPlan.Mode.UNCHANGED, plan.getMode());
+        assertNull(plan.getBody());
+        assertEquals("deployment", plan.getPreviousDeploymentId());
+    }
+
+    @Test
+    public void testMergeChangedPaths() {
+        IncrementalReimportPlan.markImported("merge", STAGE, DEFINITION, "deployment");
+        JsonObject definition = parse(DEFINITION);
+        getPaths(definition).getAsJsonObject("/orders").getAsJsonObject("get")
+                .addProperty("description", "Lists the orders");
+
+        IncrementalReimportPlan plan = IncrementalReimportPlan.create("merge", STAGE, definition.toString());
+        assertEquals(IncrementalReimportPlan.Mode.MERGE, plan.getMode());
+        assertEquals(PutMode.MERGE, plan.getPutMode());
+        assertEquals(Collections.singleton("/orders"), plan.getChangedPaths());
+        JsonObject body = parse(plan.getBody());
+        assertEquals(1, getPaths(body).size());
+        assertTrue(getPaths(body).has("/orders"));
+        assertTrue(body.has("info"));
+
+        plan.markDeployed("redeployment");
+        IncrementalReimportPlan next = IncrementalReimportPlan.create("merge", STAGE, definition.toString());
+        assertEquals(IncrementalReimportPlan.Mode.UNCHANGED, next.getMode());
+        assertEquals("redeployment", next.getPreviousDeploymentId());
+    }
+
+    @Test
+    public void testOverwriteRemovedOperation() {
+        IncrementalReimportPlan.markImported("removed", STAGE, DEFINITION, "deployment");
+        JsonObject definition = parse(DEFINITION);
+        getPaths(definition).getAsJsonObject("/pets").remove("post");
+
+        IncrementalReimportPlan plan = IncrementalReimportPlan.create("removed", STAGE, definition.toString());
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE, plan.getMode());
+        assertEquals("deployment", plan.getPreviousDeploymentId());
+    }
+
+    @Test
+    public void testOverwriteRemovedField() {
+        JsonObject previous = parse(DEFINITION);
+        getPaths(previous).getAsJsonObject("/orders").getAsJsonObject("get")
+                .add("security", parse("{\"list\":[{\"authorizer\":[]}]}").get("list"));
+        IncrementalReimportPlan.markImported("reduced", STAGE, previous.toString(), "deployment");
+
+        // MERGE would keep the security requirement of the deployed method
+        IncrementalReimportPlan plan = IncrementalReimportPlan.create("reduced", STAGE, DEFINITION);
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE, plan.getMode());
+        assertEquals(DEFINITION, plan.getBody());
+    }
+
+    @Test
+    public void testOverwriteChangedGlobals() {
+        IncrementalReimportPlan.markImported("globals", STAGE, DEFINITION, "deployment");
+        JsonObject definition = parse(DEFINITION);
+        definition.getAsJsonObject("info").addProperty("title", "Pets");
+
+        IncrementalReimportPlan plan = IncrementalReimportPlan.create("globals", STAGE, definition.toString());
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE, plan.getMode());
+    }
+
+    @Test
+    public void testInvalidate() {
+        IncrementalReimportPlan.markImported("invalidated", STAGE, DEFINITION, "deployment");
+        IncrementalReimportPlan.markImported("invalidated", "dev", DEFINITION, "deployment");
+        IncrementalReimportPlan.invalidate("invalidated", STAGE);
+
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE,
+                IncrementalReimportPlan.create("invalidated", STAGE, DEFINITION).getMode());
+        assertEquals(IncrementalReimportPlan.Mode.UNCHANGED,
+                IncrementalReimportPlan.create("invalidated", "dev", DEFINITION).getMode());
+
+        IncrementalReimportPlan.invalidate("invalidated");
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE,
+                IncrementalReimportPlan.create("invalidated", "dev", DEFINITION).getMode());
+    }
+
+    @Test
+    public void testForcedOverwrite() {
+        IncrementalReimportPlan.markImported("forced", STAGE, DEFINITION, "deployment");
+
+        IncrementalReimportPlan plan = IncrementalReimportPlan.overwrite("forced", STAGE, DEFINITION);
+        assertEquals(IncrementalReimportPlan.Mode.OVERWRITE, plan.getMode());
+        assertEquals(DEFINITION, plan.getBody());
+        assertNull(plan.getPreviousDeploymentId());
+    }
+
+    private static JsonObject parse(String definition) {
+        return JsonParser.parseString(definition).getAsJsonObject();
+    }
+
+    private static JsonObject getPaths(JsonObject definition) {
+        return definition.getAsJsonObject("paths");
+    }
+}
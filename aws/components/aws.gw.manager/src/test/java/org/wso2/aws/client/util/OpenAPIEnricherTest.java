@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import org.wso2.aws.client.AWSConstants;
+import org.wso2.aws.client.model.DeploymentSettings;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.API;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the AWS API Gateway extensions injected into the OpenAPI definitions of REST APIs.
+ */
+public class OpenAPIEnricherTest {
+
+    @Test
+    public void testHttpIntegrations() throws APIManagementException {
+        JsonObject definition = enrich(createEnricher(APITestUtil.createAPI(), "us-east-1", false));
+
+        JsonObject operation = APITestUtil.getOperation(definition, "/pets/{petId}", "get");
+        JsonObject integration = operation.getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION);
+        assertEquals("http", integration.get("type").getAsString());
+        assertEquals("GET", integration.get("httpMethod").getAsString());
+        assertEquals("https://backend.example.com/v1/pets/{petId}", integration.get("uri").getAsString());
+
+        JsonObject requestParameters = integration.getAsJsonObject("requestParameters");
+        assertEquals(2, requestParameters.size());
+        assertEquals("method.request.querystring.limit",
+                requestParameters.get("integration.request.querystring.limit").getAsString());
+        assertEquals("method.request.path.petId",
+                requestParameters.get("integration.request.path.petId").getAsString());
+
+        // undeclared path parameters are declared so that they can be mapped
+        JsonArray parameters = operation.getAsJsonArray("parameters");
+        assertEquals(2, parameters.size());
+        assertEquals("petId", parameters.get(1).getAsJsonObject().get("name").getAsString());
+        assertEquals("path", parameters.get(1).getAsJsonObject().get("in").getAsString());
+        assertFalse(operation.has("security"));
+        assertFalse(definition.has(AWSConstants.OPENAPI_MINIMUM_COMPRESSION_SIZE_EXTENSION));
+    }
+
+    @Test
+    public void testDefaultCORS() throws APIManagementException {
+        JsonObject definition = enrich(createEnricher(APITestUtil.createAPI(), "us-east-1", false));
+
+        JsonObject operation = APITestUtil.getOperation(definition, "/pets", "get");
+        JsonObject headers = operation.getAsJsonObject("responses").getAsJsonObject("200")
+                .getAsJsonObject("headers");
+        assertEquals(1, headers.size());
+        assertTrue(headers.has(AWSConstants.CORS_ALLOW_ORIGIN_HEADER));
+        JsonObject responseParameters = operation.getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION)
+                .getAsJsonObject("responses").getAsJsonObject("default").getAsJsonObject("responseParameters");
+        assertEquals("'*'", responseParameters.get("method.response.header."
+                + AWSConstants.CORS_ALLOW_ORIGIN_HEADER).getAsString());
+
+        JsonObject preflight = APITestUtil.getOperation(definition, "/pets", "options");
+        assertEquals(0, preflight.getAsJsonArray("security").size());
+        assertEquals("mock", preflight.getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION)
+                .get("type").getAsString());
+        assertEquals(3, preflight.getAsJsonObject("responses").getAsJsonObject("200")
+                .getAsJsonObject("headers").size());
+
+        JsonObject gatewayResponseParameters = definition
+                .getAsJsonObject(AWSConstants.OPENAPI_GATEWAY_RESPONSES_EXTENSION).getAsJsonObject("DEFAULT_4XX")
+                .getAsJsonObject("responseParameters");
+        assertEquals("'" + AWSConstants.CORS_DEFAULT_ALLOW_METHODS + "'", gatewayResponseParameters
+                .get("gatewayresponse.header." + AWSConstants.CORS_ALLOW_METHODS_HEADER).getAsString());
+    }
+
+    @Test
+    public void testDefinedOptionsOperationReplaced() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setSwaggerDefinition(APITestUtil.DEFINITION.replace("\"/pets\":{",
+                "\"/pets\":{\"options\":{\"responses\":{\"200\":{\"description\":\"OK\"}}},"));
+        JsonObject definition = enrich(createEnricher(api, "us-east-1", false));
+
+        JsonObject preflight = APITestUtil.getOperation(definition, "/pets", "options");
+        assertEquals("mock", preflight.getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION)
+                .get("type").getAsString());
+        assertEquals(3, preflight.getAsJsonObject("responses").getAsJsonObject("200")
+                .getAsJsonObject("headers").size());
+    }
+
+    @Test
+    public void testLambdaAuthorizer() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setApiPolicies(Collections.singletonList(APITestUtil.createAuthorizerPolicy("300")));
+        JsonObject definition = enrich(createEnricher(api, "cn-north-1", false));
+
+        String name = "authorizer-invoke-role-authorizer";
+        JsonObject securityScheme = definition.getAsJsonObject("components").getAsJsonObject("securitySchemes")
+                .getAsJsonObject(name);
+        assertEquals("apiKey", securityScheme.get("type").getAsString());
+        JsonObject authorizer = securityScheme.getAsJsonObject(AWSConstants.OPENAPI_AUTHORIZER_EXTENSION);
+        assertEquals("token", authorizer.get("type").getAsString());
+        assertEquals("arn:aws-cn:apigateway:cn-north-1:lambda:path/2015-03-31/functions/" + APITestUtil.LAMBDA_ARN
+                + "/invocations", authorizer.get("authorizerUri").getAsString());
+        assertEquals(APITestUtil.INVOKE_ROLE_ARN, authorizer.get("authorizerCredentials").getAsString());
+        assertEquals(300, authorizer.get("authorizerResultTtlInSeconds").getAsInt());
+
+        for (String path : new String[]{"/pets", "/pets/{petId}"}) {
+            JsonArray security = APITestUtil.getOperation(definition, path, "get").getAsJsonArray("security");
+            assertEquals(1, security.size());
+            assertTrue(security.get(0).getAsJsonObject().has(name));
+        }
+    }
+
+    @Test
+    public void testHttpProxyIntegrationsWithCompression() throws APIManagementException {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(AWSConstants.AWS_INTEGRATION_MODE, AWSConstants.INTEGRATION_MODE_HTTP_PROXY);
+        properties.put(AWSConstants.AWS_MINIMUM_COMPRESSION_SIZE, "1024");
+        JsonObject definition = enrich(new OpenAPIEnricher(APITestUtil.createAPI(), "us-east-1", false,
+                new DeploymentSettings(properties)));
+
+        JsonObject operation = APITestUtil.getOperation(definition, "/pets/{petId}", "get");
+        JsonObject integration = operation.getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION);
+        assertEquals("http_proxy", integration.get("type").getAsString());
+        assertFalse(integration.has("responses"));
+        // query strings are proxied as they are
+        JsonObject requestParameters = integration.getAsJsonObject("requestParameters");
+        assertEquals(1, requestParameters.size());
+        assertTrue(requestParameters.has("integration.request.path.petId"));
+        assertFalse(operation.getAsJsonObject("responses").getAsJsonObject("200").has("headers"));
+        assertEquals(1024, definition.get(AWSConstants.OPENAPI_MINIMUM_COMPRESSION_SIZE_EXTENSION).getAsInt());
+    }
+
+    @Test
+    public void testStageVariableEndpoint() throws APIManagementException {
+        JsonObject definition = enrich(createEnricher(APITestUtil.createAPI(), "us-east-1", true));
+
+        JsonObject integration = APITestUtil.getOperation(definition, "/pets", "get")
+                .getAsJsonObject(AWSConstants.OPENAPI_INTEGRATION_EXTENSION);
+        assertEquals("https://${stageVariables." + AWSConstants.BACKEND_STAGE_VARIABLE + "}/pets",
+                integration.get("uri").getAsString());
+    }
+
+    @Test(expected = APIManagementException.class)
+    public void testInvalidDefinition() throws APIManagementException {
+        API api = APITestUtil.createAPI();
+        api.setSwaggerDefinition("not a definition");
+        createEnricher(api, "us-east-1", false).enrich();
+    }
+
+    /**
+     * Creates an enricher with the deployment settings of an environment that sets no deployment properties.
+     */
+    private static OpenAPIEnricher createEnricher(API api, String region, boolean stageVariableEndpoint) {
+        return new OpenAPIEnricher(api, region, stageVariableEndpoint, new DeploymentSettings(new HashMap<>()));
+    }
+
+    private static JsonObject enrich(OpenAPIEnricher enricher) throws APIManagementException {
+        return JsonParser.parseString(enricher.enrich()).getAsJsonObject();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.aws.client.util;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.InterceptorContext;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.apigateway.model.GetRestApisRequest;
+
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the pacing of the calls of API Gateway clients and the feedback of their responses to the rate limiter.
+ */
+public class ThrottlingInterceptorTest {
+
+    @Test
+    public void testInterruptedCallAborted() {
+        AdaptiveRateLimiter rateLimiter = AdaptiveRateLimiter.getInstance("interrupted", "us-east-1");
+        // take the next permit, so that the intercepted call has to wait for the one after it
+        rateLimiter.reserve();
+        ThrottlingInterceptor interceptor = new ThrottlingInterceptor(rateLimiter);
+
+        Thread.currentThread().interrupt();
+        try {
+            interceptor.beforeTransmission(null, new ExecutionAttributes());
+            fail("An interrupted call must be aborted instead of being sent unpaced");
+        } catch (AbortedException e) {
+            // the interrupt is kept for the deployment that is being cancelled
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testOnlySuccessfulResponsesRaiseRate() throws Exception {
+        AdaptiveRateLimiter rateLimiter = AdaptiveRateLimiter.getInstance("AKIAFEEDBACK", "us-east-1");
+        ThrottlingFeedbackInterceptor interceptor = new ThrottlingFeedbackInterceptor(rateLimiter);
+        double initialRate = rateLimiter.getPermittedRate();
+
+        interceptor.afterTransmission(response(503), new ExecutionAttributes());
+        assertEquals(initialRate, rateLimiter.getPermittedRate(), 0);
+        interceptor.afterTransmission(response(200), new ExecutionAttributes());
+        assertTrue(rateLimiter.getPermittedRate() > initialRate);
+        assertEquals(rateLimiter.getPermittedRate(), ManagementFactory.getPlatformMBeanServer().getAttribute(
+                new ObjectName("org.wso2.aws.client:type=AdaptiveRateLimiter,key="
+                        + ObjectName.quote("****BACK|us-east-1")), "PermittedRate"));
+    }
+
+    private static InterceptorContext response(int statusCode) {
+        return InterceptorContext.builder()
+                .request(GetRestApisRequest.builder().build())
+                .httpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build();
+    }
+}